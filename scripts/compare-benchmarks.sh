@@ -0,0 +1,49 @@
+#!/bin/bash
+# Compare two JMH result files (mvn -Pbenchmarks -DskipTests verify -Djmh.result=...)
+# Usage: scripts/compare-benchmarks.sh baseline.json current.json [threshold-percent]
+#
+# Prints the change of every benchmark/param combination present in both files and exits
+# with 1 when one of them got worse by more than the threshold (default 10%).
+# Throughput scores are better when higher, avgt/sample/ss scores when lower.
+
+set -e
+
+BASELINE="$1"
+CURRENT="$2"
+THRESHOLD="${3:-10}"
+
+if [ -z "$BASELINE" ] || [ -z "$CURRENT" ]; then
+    echo "Usage: $0 baseline.json current.json [threshold-percent]"
+    exit 2
+fi
+
+if ! command -v jq > /dev/null 2>&1; then
+    echo "❌ jq is required"
+    exit 2
+fi
+
+# benchmark[param=value,...] <TAB> mode <TAB> score <TAB> unit
+flatten() {
+    jq -r '.[] | [
+        (.benchmark | sub("^com\\.api\\.pako\\.benchmark\\."; ""))
+            + (if .params then "[" + (.params | to_entries | map(.key + "=" + .value) | join(",")) + "]" else "" end),
+        .mode,
+        .primaryMetric.score,
+        .primaryMetric.scoreUnit
+    ] | @tsv' "$1"
+}
+
+awk -F '\t' -v threshold="$THRESHOLD" '
+    NR == FNR { baseline[$1] = $3; next }
+    ($1 in baseline) {
+        base = baseline[$1]
+        change = base == 0 ? 0 : ($3 - base) * 100 / base
+        worse = ($2 == "thrpt") ? -change : change
+        flag = worse > threshold ? "REGRESSION" : (worse < -threshold ? "improved" : "")
+        if (flag == "REGRESSION") failed = 1
+        printf "%-80s %14.3f %14.3f %-10s %+8.1f%% %s\n", $1, base, $3, $4, change, flag
+        next
+    }
+    { printf "%-80s %14s %14.3f %-10s %9s new\n", $1, "-", $3, $4, "" }
+    END { exit failed }
+' <(flatten "$BASELINE") <(flatten "$CURRENT")
@@ -1,10 +1,13 @@
 package com.api.pako.business.controller;
 
+import com.api.pako.business.dto.BatchOrderCreateResponse;
 import com.api.pako.business.dto.OrderCreateRequest;
+import com.api.pako.business.dto.OrderPage;
 import com.api.pako.business.dto.OrderResponse;
 import com.api.pako.business.dto.OrderUpdateRequest;
 import com.api.pako.business.service.BusinessOrderService;
 import com.api.pako.dto.ApiResponse;
+import com.api.pako.model.enums.OrderPriority;
 import com.api.pako.model.enums.OrderStatus;
 import com.api.pako.security.JwtTokenProvider;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,8 +16,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -33,6 +38,7 @@ public class BusinessOrderController {
     private final BusinessOrderService orderService;
     private final JwtTokenProvider jwtTokenProvider;
     private final com.api.pako.service.OrderAssignmentService orderAssignmentService;
+    private final com.api.pako.service.OrderAssignmentDispatcher orderAssignmentDispatcher;
 
     /**
      * Create a new order
@@ -61,18 +67,49 @@ public class BusinessOrderController {
     }
 
     /**
-     * Get all orders for the authenticated business
+     * Create several orders at once
+     * Items are validated individually; couriers are assigned asynchronously after the batch is stored
      */
+    @PostMapping("/batch")
+    @Operation(summary = "Create orders in bulk",
+            description = "Create up to 500 orders in one request; returns a result per item")
+    public ApiResponse<BatchOrderCreateResponse> createOrders(
+            @RequestBody List<OrderCreateRequest> requests,
+            @RequestHeader("Authorization") String authHeader) {
+
+        var businessId = extractBusinessIdFromToken(authHeader);
+        log.info("Business {} creating {} orders in bulk", businessId, requests.size());
+
+        var response = orderService.createOrders(requests, businessId);
+
+        orderAssignmentDispatcher.enqueue(response.getResults().stream()
+                .filter(BatchOrderCreateResponse.ItemResult::isSuccess)
+                .map(result -> result.getOrder().getOrderId())
+                .toList());
+
+        return ApiResponse.created(response,
+                response.getCreated() + " of " + response.getRequested() + " orders created");
+    }
+
+    /**
+     * Get the most recent orders for the authenticated business, at most {@code limit}
+     *
+     * @deprecated Use {@link #getOrderPage}, which reads past the first page
+     */
+    @Deprecated
     @GetMapping
-    @Operation(summary = "Get all orders", description = "Get all orders for the authenticated business, optionally filtered by status")
+    @Operation(summary = "Get orders", deprecated = true,
+            description = "Newest orders (with a status: most urgent, then oldest) of the authenticated business, "
+                    + "at most limit (max 500). Use /page to read the whole history")
     public ApiResponse<List<OrderResponse>> getAllOrders(
             @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "100") int limit,
             @RequestHeader("Authorization") String authHeader) {
 
         var businessId = extractBusinessIdFromToken(authHeader);
         log.info("Business {} fetching orders with status: {}", businessId, status);
 
-        var orders = orderService.getAllOrders(businessId, status);
+        var orders = orderService.getAllOrders(businessId, status, limit);
         var message = status != null
                 ? "Orders with status " + status + " fetched successfully"
                 : "All orders fetched successfully";
@@ -80,6 +117,30 @@ public class BusinessOrderController {
         return ApiResponse.ok(orders, message);
     }
 
+    /**
+     * Get orders page by page, newest first
+     * Pass the returned nextCursor as cursor to fetch the following page
+     */
+    @GetMapping("/page")
+    @Operation(summary = "Get orders page",
+            description = "Cursor-paginated order list, filterable by status, priority and creation time range")
+    public ApiResponse<OrderPage> getOrderPage(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) OrderPriority priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestHeader("Authorization") String authHeader) {
+
+        var businessId = extractBusinessIdFromToken(authHeader);
+        log.info("Business {} fetching order page (status: {}, priority: {})", businessId, status, priority);
+
+        var page = orderService.getOrderPage(businessId, status, priority, from, to, cursor, limit);
+
+        return ApiResponse.ok(page, "Orders fetched successfully");
+    }
+
     /**
      * Get order by ID
      */
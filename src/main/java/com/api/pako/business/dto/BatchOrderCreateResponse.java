@@ -0,0 +1,52 @@
+package com.api.pako.business.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for bulk order creation result.
+ * Results are in request order; invalid items are reported and skipped, valid items are created.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+public class BatchOrderCreateResponse {
+
+    private int requested;
+    private int created;
+    private int failed;
+    private List<ItemResult> results = new ArrayList<>();
+
+    /**
+     * Outcome of one item in the batch
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private boolean success;
+        private OrderResponse order;
+        private List<String> errors;
+
+        public static ItemResult created(int index, OrderResponse order) {
+            ItemResult result = new ItemResult();
+            result.index = index;
+            result.success = true;
+            result.order = order;
+            return result;
+        }
+
+        public static ItemResult rejected(int index, List<String> errors) {
+            ItemResult result = new ItemResult();
+            result.index = index;
+            result.success = false;
+            result.errors = errors;
+            return result;
+        }
+    }
+}
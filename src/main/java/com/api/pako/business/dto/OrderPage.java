@@ -0,0 +1,10 @@
+package com.api.pako.business.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated order listing.
+ * Pass {@code nextCursor} back as {@code cursor} to fetch the next page; it is null on the last page.
+ */
+public record OrderPage(List<OrderSummary> items, String nextCursor, boolean hasMore) {
+}
@@ -3,6 +3,7 @@ package com.api.pako.business.dto;
 import com.api.pako.model.enums.OrderPriority;
 import com.api.pako.model.enums.OrderStatus;
 import com.api.pako.model.enums.PaymentType;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -11,11 +12,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
- * DTO for order response
+ * DTO for order response.
+ * The all-args constructor is the target of a JPQL constructor expression in
+ * {@code OrderRepositoryImpl}; keep the field order in sync with that query.
  */
 @Setter
 @Getter
 @NoArgsConstructor
+@AllArgsConstructor
 public class OrderResponse {
 
     // Getters and Setters
@@ -0,0 +1,26 @@
+package com.api.pako.business.dto;
+
+import com.api.pako.model.enums.OrderPriority;
+import com.api.pako.model.enums.OrderStatus;
+import com.api.pako.model.enums.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight order row for list views.
+ * Filled directly by a JPQL constructor expression, without loading Order entities.
+ */
+public record OrderSummary(
+        Long orderId,
+        String orderNumber,
+        OrderStatus status,
+        OrderPriority priority,
+        String endCustomerName,
+        String deliveryAddress,
+        PaymentType paymentType,
+        BigDecimal deliveryFee,
+        Long courierId,
+        String courierName,
+        LocalDateTime createdAt) {
+}
@@ -1,12 +1,16 @@
 package com.api.pako.business.service;
 
+import com.api.pako.business.dto.BatchOrderCreateResponse;
 import com.api.pako.business.dto.OrderCreateRequest;
+import com.api.pako.business.dto.OrderPage;
 import com.api.pako.business.dto.OrderResponse;
 import com.api.pako.business.dto.OrderUpdateRequest;
+import com.api.pako.model.enums.OrderPriority;
 import com.api.pako.model.enums.OrderStatus;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -23,6 +27,16 @@ public interface BusinessOrderService {
      */
     OrderResponse createOrder(OrderCreateRequest request, Long businessId);
 
+    /**
+     * Create several orders in one transaction
+     * Each item is validated on its own; invalid items are reported and skipped
+     *
+     * @param requests Order creation data, in client order
+     * @param businessId ID of the business creating the orders
+     * @return Per-item results in request order
+     */
+    BatchOrderCreateResponse createOrders(List<OrderCreateRequest> requests, Long businessId);
+
     /**
      * Get order by ID
      * Only allows business to view their own orders
@@ -34,13 +48,32 @@ public interface BusinessOrderService {
     OrderResponse getOrderById(Long orderId, Long businessId);
 
     /**
-     * Get all orders for a business
+     * Get the first orders of a business
+     * Without a status newest first; with a status by priority, then oldest first.
+     * Use {@link #getOrderPage} to read further.
      *
      * @param businessId Business ID
      * @param status Optional status filter
+     * @param limit Max orders returned, clamped to 1..500
      * @return List of orders
      */
-    List<OrderResponse> getAllOrders(Long businessId, OrderStatus status);
+    List<OrderResponse> getAllOrders(Long businessId, OrderStatus status, int limit);
+
+    /**
+     * Get one page of a business's orders, newest first
+     * Uses keyset pagination on (createdAt, id), so deep pages stay as cheap as the first
+     *
+     * @param businessId Business ID
+     * @param status Optional status filter
+     * @param priority Optional priority filter
+     * @param from Optional createdAt lower bound (inclusive)
+     * @param to Optional createdAt upper bound (exclusive)
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param limit Page size, clamped to 1..100
+     * @return Page of order summaries
+     */
+    OrderPage getOrderPage(Long businessId, OrderStatus status, OrderPriority priority,
+                           LocalDateTime from, LocalDateTime to, String cursor, int limit);
 
     /**
      * Update an existing order
@@ -0,0 +1,125 @@
+package com.api.pako.business.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Generates order numbers in the format ORD-YYYYMMDD-NNN (NNN widens past 999).
+ * <p>
+ * Numbers come from the order_number_counters table. Each node reserves a block of
+ * {@code order.number.block-size} numbers per upsert and hands them out from memory, so
+ * generation costs one round trip per block. The upsert auto-commits on a connection of its
+ * own, so callers must reserve before opening their transaction: inside one it would hold the
+ * counter row until commit and a rollback would hand the block out a second time. A rolled back
+ * order therefore leaves a gap, but a number is never issued twice.
+ * <p>
+ * The lock only guards the in-memory block; the round trip runs outside it. Callers that find
+ * the block used up at the same time each reserve their own, and the leftovers of all but the
+ * last one become gaps.
+ */
+@Component
+public class OrderNumberGenerator {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String RESERVE_SQL = """
+            INSERT INTO order_number_counters (day, last_value)
+            VALUES (?, ?)
+            ON CONFLICT (day) DO UPDATE SET last_value = order_number_counters.last_value + EXCLUDED.last_value
+            RETURNING last_value
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private LocalDate blockDay;
+    private int next;
+    private int end;
+
+    public OrderNumberGenerator(JdbcTemplate jdbcTemplate,
+                                @Value("${order.number.block-size:20}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public String next() {
+        return next(1).getFirst();
+    }
+
+    /**
+     * Reserve {@code count} order numbers for today
+     *
+     * @throws IllegalStateException when called inside a transaction
+     */
+    public List<String> next(int count) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Order numbers must be reserved before the transaction starts");
+        }
+
+        LocalDate today = LocalDate.now();
+        String prefix = "ORD-" + today.format(DAY_FORMAT) + "-";
+        List<String> numbers = new ArrayList<>(count);
+
+        lock.lock();
+        try {
+            if (!today.equals(blockDay)) {
+                blockDay = today;
+                next = 0;
+                end = 0;
+            }
+            while (numbers.size() < count && next < end) {
+                numbers.add(format(prefix, ++next));
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (numbers.size() == count) {
+            return numbers;
+        }
+
+        // Büyük toplu isteklerde eksik kalanı tek seferde ayır
+        int missing = count - numbers.size();
+        int size = Math.max(blockSize, missing);
+        int last = reserve(today, size);
+        int first = last - size + 1;
+        for (int n = first; n < first + missing; n++) {
+            numbers.add(format(prefix, n));
+        }
+
+        lock.lock();
+        try {
+            if (!today.equals(blockDay) || next >= end) {
+                blockDay = today;
+                next = first + missing - 1;
+                end = last;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return numbers;
+    }
+
+    private static String format(String prefix, int number) {
+        return String.format("%s%03d", prefix, number);
+    }
+
+    /**
+     * @return Last number of the reserved block
+     */
+    private int reserve(LocalDate day, int size) {
+        Integer last = jdbcTemplate.queryForObject(RESERVE_SQL, Integer.class, day, size);
+        if (last == null) {
+            throw new IllegalStateException("Could not reserve order numbers for " + day);
+        }
+        return last;
+    }
+}
@@ -0,0 +1,104 @@
+package com.api.pako.business.service;
+
+import com.api.pako.business.dto.OrderResponse;
+import com.api.pako.model.Business;
+import com.api.pako.model.Courier;
+import com.api.pako.model.Order;
+import com.api.pako.service.cache.BusinessProfile;
+import com.api.pako.service.cache.ProfileCache;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps orders to {@link OrderResponse}. Business and courier names come from the loaded
+ * association when it is initialized, otherwise from the profile cache, so mapping never
+ * triggers a lazy load.
+ */
+@Component
+public class OrderResponseMapper {
+
+    private final ProfileCache profileCache;
+
+    public OrderResponseMapper(ProfileCache profileCache) {
+        this.profileCache = profileCache;
+    }
+
+    /**
+     * Map Order entity to OrderResponse DTO
+     */
+    public OrderResponse toResponse(Order order) {
+        OrderResponse response = new OrderResponse();
+
+        response.setOrderId(order.getId());
+        response.setOrderNumber(order.getOrderNumber());
+        response.setStatus(order.getStatus());
+        response.setPriority(order.getPriority());
+
+        // Business info
+        if (order.getBusiness() != null) {
+            response.setBusinessId(order.getBusiness().getId());
+            response.setBusinessName(businessName(order.getBusiness()));
+        }
+        response.setBusinessContactPerson(order.getBusinessContactPerson());
+        response.setBusinessPhone(order.getBusinessPhone());
+
+        // Courier info
+        if (order.getCourier() != null) {
+            Courier courier = order.getCourier();
+            response.setCourierId(courier.getId());
+            if (Hibernate.isInitialized(courier)) {
+                response.setCourierName(courier.getName());
+                response.setCourierPhone(courier.getPhone());
+            } else {
+                profileCache.findCourier(courier.getId()).ifPresent(profile -> {
+                    response.setCourierName(profile.name());
+                    response.setCourierPhone(profile.phone());
+                });
+            }
+        }
+
+        // Addresses
+        response.setPickupAddress(order.getPickupAddress());
+        response.setPickupAddressDescription(order.getPickupAddressDescription());
+        response.setPickupContactPerson(order.getPickupContactPerson());
+        response.setDeliveryAddress(order.getDeliveryAddress());
+        response.setDeliveryAddressDescription(order.getDeliveryAddressDescription());
+
+        // Customer
+        response.setEndCustomerName(order.getEndCustomerName());
+        response.setEndCustomerPhone(order.getEndCustomerPhone());
+
+        // Package
+        response.setPackageDescription(order.getPackageDescription());
+        response.setPackageWeight(order.getPackageWeight());
+        response.setPackageCount(order.getPackageCount());
+
+        // Payment
+        response.setPaymentType(order.getPaymentType());
+        response.setDeliveryFee(order.getDeliveryFee());
+        response.setCollectionAmount(order.getCollectionAmount());
+
+        // Notes
+        response.setBusinessNotes(order.getBusinessNotes());
+        response.setCourierNotes(order.getCourierNotes());
+
+        // Timestamps
+        response.setScheduledPickupTime(order.getScheduledPickupTime());
+        response.setEstimatedDeliveryTime(order.getEstimatedDeliveryTime());
+        response.setOrderDate(order.getOrderDate());
+        response.setCreatedAt(order.getCreatedAt());
+        response.setUpdatedAt(order.getUpdatedAt());
+
+        return response;
+    }
+
+    /**
+     * Name of the order's business without loading an uninitialized proxy
+     */
+    private String businessName(Business business) {
+        if (Hibernate.isInitialized(business)) {
+            return business.getName();
+        }
+        return profileCache.findBusiness(business.getId()).map(BusinessProfile::name).orElse(null);
+    }
+}
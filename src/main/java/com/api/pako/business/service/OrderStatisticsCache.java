@@ -0,0 +1,57 @@
+package com.api.pako.business.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Short-lived per-business cache for dashboard order statistics.
+ * Business-side writes evict the entry after commit; status changes made elsewhere
+ * (courier, assignment) become visible when the entry expires.
+ */
+@Component
+public class OrderStatisticsCache {
+
+    private final Cache<Long, BusinessOrderService.OrderStatistics> entries;
+
+    public OrderStatisticsCache(@Value("${order.statistics.cache-ttl-ms:5000}") long ttlMillis,
+                                @Value("${order.statistics.cache-max-size:10000}") long maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public BusinessOrderService.OrderStatistics get(Long businessId,
+                                                    Function<Long, BusinessOrderService.OrderStatistics> loader) {
+        // Aynı işletme için eşzamanlı istekler tek yüklemeyi bekler
+        return entries.get(businessId, loader);
+    }
+
+    /**
+     * Drop the business's entry once the current transaction commits (immediately if there is none),
+     * so a concurrent read cannot cache counts from before the write.
+     */
+    public void evictAfterCommit(Long businessId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entries.invalidate(businessId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entries.invalidate(businessId);
+            }
+        });
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+}
@@ -1,26 +1,44 @@
 package com.api.pako.business.service.impl;
 
+import com.api.pako.business.dto.BatchOrderCreateResponse;
 import com.api.pako.business.dto.OrderCreateRequest;
+import com.api.pako.business.dto.OrderPage;
 import com.api.pako.business.dto.OrderResponse;
+import com.api.pako.business.dto.OrderSummary;
 import com.api.pako.business.dto.OrderUpdateRequest;
 import com.api.pako.business.service.BusinessOrderService;
+import com.api.pako.business.service.OrderCursor;
+import com.api.pako.business.service.OrderNumberGenerator;
+import com.api.pako.business.service.OrderResponseMapper;
+import com.api.pako.business.service.OrderStatisticsCache;
+import com.api.pako.event.OrderStatusChangedEvent;
 import com.api.pako.exception.InvalidOrderOperationException;
 import com.api.pako.exception.OrderNotFoundException;
 import com.api.pako.exception.UnauthorizedAccessException;
 import com.api.pako.model.Business;
-import com.api.pako.model.Courier;
 import com.api.pako.model.Order;
+import com.api.pako.model.enums.OrderPriority;
 import com.api.pako.model.enums.OrderStatus;
 import com.api.pako.repository.BusinessRepository;
 import com.api.pako.repository.OrderRepository;
+import com.api.pako.repository.OrderRepositoryCustom;
+import com.api.pako.service.cache.BusinessProfile;
+import com.api.pako.service.cache.ProfileCache;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementation of BusinessOrderService
@@ -30,71 +48,125 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BusinessOrderServiceImpl implements BusinessOrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_LIST_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final BusinessRepository businessRepository;
-
-    public BusinessOrderServiceImpl(OrderRepository orderRepository, BusinessRepository businessRepository) {
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderStatisticsCache statisticsCache;
+    private final OrderResponseMapper orderResponseMapper;
+    private final ProfileCache profileCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+
+    public BusinessOrderServiceImpl(OrderRepository orderRepository,
+                                    BusinessRepository businessRepository,
+                                    OrderNumberGenerator orderNumberGenerator,
+                                    OrderStatisticsCache statisticsCache,
+                                    OrderResponseMapper orderResponseMapper,
+                                    ProfileCache profileCache,
+                                    ApplicationEventPublisher eventPublisher,
+                                    Validator validator,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${order.batch.max-size:500}") int maxBatchSize) {
         this.orderRepository = orderRepository;
         this.businessRepository = businessRepository;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.statisticsCache = statisticsCache;
+        this.orderResponseMapper = orderResponseMapper;
+        this.profileCache = profileCache;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
     }
 
+    /**
+     * Runs outside a transaction: the order number is reserved first, so the insert
+     * transaction does not hold a connection while it waits for the counter round trip
+     */
     @Override
+    @Transactional(propagation = Propagation.NEVER)
     public OrderResponse createOrder(OrderCreateRequest request, Long businessId) {
         log.info("Creating order for business ID: {}", businessId);
 
-        // Get business
-        Business business = businessRepository.findById(businessId)
-                .orElseThrow(() -> new RuntimeException("Business not found with ID: " + businessId));
-
-        // Verify business is active
-        if (!business.canLogin()) {
-            throw new InvalidOrderOperationException("Business account is not active. Cannot create orders.");
-        }
+        BusinessProfile business = getActiveBusiness(businessId);
+        String orderNumber = orderNumberGenerator.next();
 
-        // Create order entity
-        Order order = new Order();
-        order.setBusiness(business);
-        order.setOrderNumber(generateOrderNumber());
-        order.setStatus(OrderStatus.PENDING);
-        order.setPriority(request.getPriority());
+        return transactionTemplate.execute(status -> {
+            Order order = buildOrder(request, businessRepository.getReferenceById(businessId), business);
+            order.setOrderNumber(orderNumber);
 
-        // Set business contact info
-        order.setBusinessContactPerson(business.getContactPerson());
-        order.setBusinessPhone(business.getPhone());
-
-        // Set pickup details
-        order.setPickupAddress(request.getPickupAddress());
-        order.setPickupAddressDescription(request.getPickupAddressDescription());
-        order.setPickupContactPerson(request.getPickupContactPerson());
-
-        // Set delivery details
-        order.setDeliveryAddress(request.getDeliveryAddress());
-        order.setDeliveryAddressDescription(request.getDeliveryAddressDescription());
-
-        // Set customer details
-        order.setEndCustomerName(request.getEndCustomerName());
-        order.setEndCustomerPhone(request.getEndCustomerPhone());
+            // Save order
+            Order savedOrder = orderRepository.save(order);
+            statisticsCache.evictAfterCommit(businessId);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(
+                    savedOrder.getId(), businessId, null, null, savedOrder.getStatus()));
+            log.info("Order created successfully with ID: {} and number: {}", savedOrder.getId(), savedOrder.getOrderNumber());
 
-        // Set package details
-        order.setPackageDescription(request.getPackageDescription());
-        order.setPackageWeight(request.getPackageWeight());
-        order.setPackageCount(request.getPackageCount());
+            return orderResponseMapper.toResponse(savedOrder);
+        });
+    }
 
-        // Set payment details
-        order.setPaymentType(request.getPaymentType());
-        order.setDeliveryFee(request.getDeliveryFee());
-        order.setCollectionAmount(request.getCollectionAmount());
+    @Override
+    @Transactional(propagation = Propagation.NEVER)
+    public BatchOrderCreateResponse createOrders(List<OrderCreateRequest> requests, Long businessId) {
+        log.info("Creating {} orders in bulk for business ID: {}", requests.size(), businessId);
 
-        // Set notes and timestamps
-        order.setBusinessNotes(request.getBusinessNotes());
-        order.setScheduledPickupTime(request.getScheduledPickupTime());
-        order.setOrderDate(LocalDateTime.now());
+        if (requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw new InvalidOrderOperationException(
+                    "A batch must contain between 1 and " + maxBatchSize + " orders");
+        }
 
-        // Save order
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created successfully with ID: {} and number: {}", savedOrder.getId(), savedOrder.getOrderNumber());
+        BusinessProfile profile = getActiveBusiness(businessId);
+
+        // Validate every item on its own so one bad item does not reject the whole batch
+        BatchOrderCreateResponse.ItemResult[] results = new BatchOrderCreateResponse.ItemResult[requests.size()];
+        List<Integer> orderIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = validate(requests.get(i));
+            if (errors.isEmpty()) {
+                orderIndexes.add(i);
+            } else {
+                results[i] = BatchOrderCreateResponse.ItemResult.rejected(i, errors);
+            }
+        }
 
-        return mapToResponse(savedOrder);
+        // Order numbers are reserved as one block, before the insert transaction starts
+        List<String> orderNumbers = orderNumberGenerator.next(orderIndexes.size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Business business = businessRepository.getReferenceById(businessId);
+            List<Order> orders = new ArrayList<>(orderIndexes.size());
+            for (int j = 0; j < orderIndexes.size(); j++) {
+                Order order = buildOrder(requests.get(orderIndexes.get(j)), business, profile);
+                order.setOrderNumber(orderNumbers.get(j));
+                orders.add(order);
+            }
+
+            // Sequence ids (pooled) are assigned on persist; inserts go out in JDBC batches at flush
+            orderRepository.saveAll(orders);
+            statisticsCache.evictAfterCommit(businessId);
+            orders.forEach(created -> eventPublisher.publishEvent(new OrderStatusChangedEvent(
+                    created.getId(), businessId, null, null, created.getStatus())));
+
+            for (int j = 0; j < orders.size(); j++) {
+                int index = orderIndexes.get(j);
+                results[index] = BatchOrderCreateResponse.ItemResult.created(index, orderResponseMapper.toResponse(orders.get(j)));
+            }
+        });
+
+        int created = orderIndexes.size();
+        BatchOrderCreateResponse response = new BatchOrderCreateResponse();
+        response.setRequested(requests.size());
+        response.setCreated(created);
+        response.setFailed(requests.size() - created);
+        response.setResults(List.of(results));
+        log.info("Bulk created {} of {} orders for business ID: {}", created, requests.size(), businessId);
+        return response;
     }
 
     @Override
@@ -102,30 +174,50 @@ public class BusinessOrderServiceImpl implements BusinessOrderService {
     public OrderResponse getOrderById(Long orderId, Long businessId) {
         log.info("Fetching order ID: {} for business ID: {}", orderId, businessId);
 
-        Order order = orderRepository.findById(orderId)
+        OrderResponse order = orderRepository.findResponseById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
 
         // Verify ownership
-        verifyOrderOwnership(order, businessId);
-
-        return mapToResponse(order);
+        if (!businessId.equals(order.getBusinessId())) {
+            log.warn("Business ID: {} attempted to access order ID: {} belonging to business ID: {}",
+                    businessId, orderId, order.getBusinessId());
+            throw new UnauthorizedAccessException("You can only access your own orders");
+        }
+        return order;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponse> getAllOrders(Long businessId, OrderStatus status) {
+    public List<OrderResponse> getAllOrders(Long businessId, OrderStatus status, int limit) {
         log.info("Fetching orders for business ID: {}, status: {}", businessId, status);
 
-        List<Order> orders;
-        if (status != null) {
-            orders = orderRepository.findByBusinessIdAndStatusOrderByPriorityAndCreatedAt(businessId, status);
-        } else {
-            orders = orderRepository.findByBusinessIdOrderByCreatedAtDesc(businessId);
-        }
+        return orderRepository.findResponsesByBusiness(businessId, status, Math.clamp(limit, 1, MAX_LIST_SIZE));
+    }
 
-        return orders.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPage getOrderPage(Long businessId, OrderStatus status, OrderPriority priority,
+                                  LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        OrderCursor after = cursor != null && !cursor.isBlank() ? OrderCursor.decode(cursor) : null;
+        log.debug("Fetching order page for business ID: {}, status: {}, priority: {}, after: {}",
+                businessId, status, priority, after);
+
+        // Bir fazla satır okunur; sonraki sayfa olup olmadığını ayrıca COUNT yapmadan anlarız
+        List<OrderSummary> rows = orderRepository.findSummaries(new OrderRepositoryCustom.SummaryQuery(
+                businessId, status, priority, from, to,
+                after != null ? after.createdAt() : null,
+                after != null ? after.id() : null,
+                pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummary last = items.getLast();
+            nextCursor = new OrderCursor(last.createdAt(), last.orderId()).encode();
+        }
+        return new OrderPage(List.copyOf(items), nextCursor, hasMore);
     }
 
     @Override
@@ -198,7 +290,7 @@ public class BusinessOrderServiceImpl implements BusinessOrderService {
         Order updatedOrder = orderRepository.save(order);
         log.info("Order updated successfully: {}", orderId);
 
-        return mapToResponse(updatedOrder);
+        return orderResponseMapper.toResponse(updatedOrder);
     }
 
     @Override
@@ -219,6 +311,7 @@ public class BusinessOrderServiceImpl implements BusinessOrderService {
         }
 
         orderRepository.delete(order);
+        statisticsCache.evictAfterCommit(businessId);
         log.info("Order deleted successfully: {}", orderId);
     }
 
@@ -241,6 +334,7 @@ public class BusinessOrderServiceImpl implements BusinessOrderService {
         }
 
         // Update status to CANCELLED
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
 
         // Add cancellation note
@@ -253,24 +347,34 @@ public class BusinessOrderServiceImpl implements BusinessOrderService {
         }
 
         Order cancelledOrder = orderRepository.save(order);
+        statisticsCache.evictAfterCommit(businessId);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, businessId,
+                order.getCourier() != null ? order.getCourier().getId() : null, previousStatus, OrderStatus.CANCELLED));
         log.info("Order cancelled successfully: {}", orderId);
 
-        return mapToResponse(cancelledOrder);
+        return orderResponseMapper.toResponse(cancelledOrder);
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderStatistics getOrderStatistics(Long businessId) {
-        log.info("Fetching order statistics for business ID: {}", businessId);
+        log.debug("Fetching order statistics for business ID: {}", businessId);
+        return statisticsCache.get(businessId, this::loadOrderStatistics);
+    }
 
-        OrderStatistics stats = new OrderStatistics();
-        stats.setTotalOrders(orderRepository.countByBusinessId(businessId));
-        stats.setPendingOrders(orderRepository.countByBusinessIdAndStatus(businessId, OrderStatus.PENDING));
-        stats.setAssignedOrders(orderRepository.countByBusinessIdAndStatus(businessId, OrderStatus.ASSIGNED));
-        stats.setInTransitOrders(orderRepository.countByBusinessIdAndStatus(businessId, OrderStatus.IN_TRANSIT));
-        stats.setDeliveredOrders(orderRepository.countByBusinessIdAndStatus(businessId, OrderStatus.DELIVERED));
-        stats.setCancelledOrders(orderRepository.countByBusinessIdAndStatus(businessId, OrderStatus.CANCELLED));
+    /**
+     * One primary-key range read on business_order_stats instead of six COUNTs over orders
+     */
+    private OrderStatistics loadOrderStatistics(Long businessId) {
+        Map<OrderStatus, Long> counts = orderRepository.countByStatus(businessId);
 
+        OrderStatistics stats = new OrderStatistics();
+        stats.setTotalOrders(counts.values().stream().mapToLong(Long::longValue).sum());
+        stats.setPendingOrders(counts.getOrDefault(OrderStatus.PENDING, 0L));
+        stats.setAssignedOrders(counts.getOrDefault(OrderStatus.ASSIGNED, 0L));
+        stats.setInTransitOrders(counts.getOrDefault(OrderStatus.IN_TRANSIT, 0L));
+        stats.setDeliveredOrders(counts.getOrDefault(OrderStatus.DELIVERED, 0L));
+        stats.setCancelledOrders(counts.getOrDefault(OrderStatus.CANCELLED, 0L));
         return stats;
     }
 
@@ -285,82 +389,70 @@ public class BusinessOrderServiceImpl implements BusinessOrderService {
         }
     }
 
-    /**
-     * Generate unique order number
-     * Format: ORD-YYYYMMDD-XXX
-     */
-    private String generateOrderNumber() {
-        String datePrefix = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String orderNumber;
-        int attempt = 0;
-        do {
-            attempt++;
-            orderNumber = String.format("ORD-%s-%03d", datePrefix, attempt);
-        } while (orderRepository.existsByOrderNumber(orderNumber));
-
-        return orderNumber;
+    private BusinessProfile getActiveBusiness(Long businessId) {
+        BusinessProfile business = profileCache.findBusiness(businessId)
+                .orElseThrow(() -> new RuntimeException("Business not found with ID: " + businessId));
+
+        // Verify business is active
+        if (!business.active()) {
+            throw new InvalidOrderOperationException("Business account is not active. Cannot create orders.");
+        }
+        return business;
+    }
+
+    private List<String> validate(OrderCreateRequest request) {
+        if (request == null) {
+            return List.of("Order data is required");
+        }
+        Set<ConstraintViolation<OrderCreateRequest>> violations = validator.validate(request);
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .toList();
     }
 
     /**
-     * Map Order entity to OrderResponse DTO
+     * Build a new PENDING order from the request, without order number
+     * The business is a reference; contact info comes from the cached profile
      */
-    private OrderResponse mapToResponse(Order order) {
-        OrderResponse response = new OrderResponse();
-
-        response.setOrderId(order.getId());
-        response.setOrderNumber(order.getOrderNumber());
-        response.setStatus(order.getStatus());
-        response.setPriority(order.getPriority());
-
-        // Business info
-        if (order.getBusiness() != null) {
-            response.setBusinessId(order.getBusiness().getId());
-            response.setBusinessName(order.getBusiness().getName());
-        }
-        response.setBusinessContactPerson(order.getBusinessContactPerson());
-        response.setBusinessPhone(order.getBusinessPhone());
-
-        // Courier info
-        if (order.getCourier() != null) {
-            Courier courier = order.getCourier();
-            response.setCourierId(courier.getId());
-            response.setCourierName(courier.getName());
-            response.setCourierPhone(courier.getPhone());
-        }
+    private Order buildOrder(OrderCreateRequest request, Business business, BusinessProfile profile) {
+        Order order = new Order();
+        order.setBusiness(business);
+        order.setStatus(OrderStatus.PENDING);
+        order.setPriority(request.getPriority());
 
-        // Addresses
-        response.setPickupAddress(order.getPickupAddress());
-        response.setPickupAddressDescription(order.getPickupAddressDescription());
-        response.setPickupContactPerson(order.getPickupContactPerson());
-        response.setDeliveryAddress(order.getDeliveryAddress());
-        response.setDeliveryAddressDescription(order.getDeliveryAddressDescription());
-
-        // Customer
-        response.setEndCustomerName(order.getEndCustomerName());
-        response.setEndCustomerPhone(order.getEndCustomerPhone());
-
-        // Package
-        response.setPackageDescription(order.getPackageDescription());
-        response.setPackageWeight(order.getPackageWeight());
-        response.setPackageCount(order.getPackageCount());
-
-        // Payment
-        response.setPaymentType(order.getPaymentType());
-        response.setDeliveryFee(order.getDeliveryFee());
-        response.setCollectionAmount(order.getCollectionAmount());
-
-        // Notes
-        response.setBusinessNotes(order.getBusinessNotes());
-        response.setCourierNotes(order.getCourierNotes());
-
-        // Timestamps
-        response.setScheduledPickupTime(order.getScheduledPickupTime());
-        response.setEstimatedDeliveryTime(order.getEstimatedDeliveryTime());
-        response.setOrderDate(order.getOrderDate());
-        response.setCreatedAt(order.getCreatedAt());
-        response.setUpdatedAt(order.getUpdatedAt());
+        // Set business contact info
+        order.setBusinessContactPerson(profile.contactPerson());
+        order.setBusinessPhone(profile.phone());
 
-        return response;
+        // Set pickup details
+        order.setPickupAddress(request.getPickupAddress());
+        order.setPickupAddressDescription(request.getPickupAddressDescription());
+        order.setPickupContactPerson(request.getPickupContactPerson());
+
+        // Set delivery details
+        order.setDeliveryAddress(request.getDeliveryAddress());
+        order.setDeliveryAddressDescription(request.getDeliveryAddressDescription());
+
+        // Set customer details
+        order.setEndCustomerName(request.getEndCustomerName());
+        order.setEndCustomerPhone(request.getEndCustomerPhone());
+
+        // Set package details
+        order.setPackageDescription(request.getPackageDescription());
+        order.setPackageWeight(request.getPackageWeight());
+        order.setPackageCount(request.getPackageCount());
+
+        // Set payment details
+        order.setPaymentType(request.getPaymentType());
+        order.setDeliveryFee(request.getDeliveryFee());
+        order.setCollectionAmount(request.getCollectionAmount());
+
+        // Set notes and timestamps
+        order.setBusinessNotes(request.getBusinessNotes());
+        order.setScheduledPickupTime(request.getScheduledPickupTime());
+        order.setOrderDate(LocalDateTime.now());
+        return order;
     }
 }
 
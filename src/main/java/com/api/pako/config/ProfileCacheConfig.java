@@ -0,0 +1,26 @@
+package com.api.pako.config;
+
+import com.api.pako.service.cache.ProfileCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes this node to profile cache invalidations when the Redis level is enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cache.profile.l2.enabled", havingValue = "true", matchIfMissing = true)
+public class ProfileCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer profileCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       ProfileCache profileCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(profileCache, new ChannelTopic(profileCache.getChannel()));
+        return container;
+    }
+}
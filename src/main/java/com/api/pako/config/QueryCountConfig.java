@@ -0,0 +1,31 @@
+package com.api.pako.config;
+
+import com.api.pako.config.querycount.QueryCountingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource so {@link com.api.pako.config.querycount.QueryCountFilter}
+ * can count the statements of each request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "query-count.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryCountConfig {
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)) {
+                    return new QueryCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -3,6 +3,7 @@ package com.api.pako.config;
 import com.api.pako.security.JwtAccessDeniedHandler;
 import com.api.pako.security.JwtAuthenticationEntryPoint;
 import com.api.pako.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -10,6 +11,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.CsrfConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -19,6 +21,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Security configuration for the application.
@@ -54,6 +57,8 @@ public class SecurityConfig {
                 .requestMatchers("/actuator/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/api/v1/courier/shifts/**").authenticated()
+                // Konum kurye satırına ve dispatch konum indeksine yazılır: yalnızca kurye token'ı
+                .requestMatchers("/api/v1/courier/location/**").hasRole("COURIER")
                 .requestMatchers("/api/v1/business/**").authenticated()
                 .anyRequest().authenticated()
             )
@@ -81,9 +86,14 @@ public class SecurityConfig {
 
     /**
      * Password encoder bean.
+     * New hashes are written as {bcrypt} with the configured work factor; stored hashes
+     * without a prefix (legacy, strength 10) still match and are upgraded on the next login.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int bcryptStrength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 }
@@ -0,0 +1,27 @@
+package com.api.pako.config;
+
+import com.api.pako.service.notification.RedisUserNotificationSender;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Subscribes this node to the cluster notification channel when
+ * {@code websocket.broker.mode=redis}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "redis")
+public class WebSocketRelayConfig {
+
+    @Bean
+    public RedisMessageListenerContainer notificationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       RedisUserNotificationSender sender) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(sender, new ChannelTopic(sender.getChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,100 @@
+package com.api.pako.config.querycount;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each HTTP request executes and records them per endpoint
+ * ({@code http.server.requests.queries}). The same statement running
+ * {@code query-count.n-plus-one-threshold} times in one request is logged as a likely N+1.
+ * <p>
+ * With {@code query-count.header.enabled} (dev and tests, never production) the count is also
+ * returned in the {@code X-Query-Count} header; the response is buffered for that, because the
+ * body may still trigger queries (lazy loading) after the controller returns.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "query-count.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Count";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    // SockJS akışları parça parça flush eder, tamponlanamaz
+    private static final String WEBSOCKET_PATH = "/ws";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean headerEnabled;
+    private final int nPlusOneThreshold;
+
+    public QueryCountFilter(MeterRegistry meterRegistry,
+                            @Value("${query-count.header.enabled:false}") boolean headerEnabled,
+                            @Value("${query-count.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.headerEnabled = headerEnabled;
+        this.nPlusOneThreshold = Math.max(2, nPlusOneThreshold);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        return path.equals(WEBSOCKET_PATH) || path.startsWith(WEBSOCKET_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = headerEnabled ? new ContentCachingResponseWrapper(response) : null;
+        QueryCounter.start();
+        try {
+            filterChain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            QueryStats stats = QueryCounter.stop();
+            record(request, stats);
+            if (wrapper != null) {
+                wrapper.setHeader(HEADER, String.valueOf(stats.total()));
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL statements executed per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.total());
+
+        Map<String, Integer> repeated = stats.repeated(nPlusOneThreshold);
+        if (!repeated.isEmpty()) {
+            meterRegistry.counter("http.server.requests.n-plus-one", "method", request.getMethod(), "uri", uri)
+                    .increment();
+            repeated.forEach((sql, count) -> log.warn("Possible N+1 on {} {}: {} executions of [{}]",
+                    request.getMethod(), uri, count, sql));
+        }
+    }
+}
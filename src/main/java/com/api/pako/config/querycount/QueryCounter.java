@@ -0,0 +1,43 @@
+package com.api.pako.config.querycount;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements executed on the current thread between {@link #start()} and
+ * {@link #stop()}. Statements executed while no count is running (schedulers, Kafka
+ * listeners, Flyway) are ignored.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    public static void start() {
+        CURRENT.set(new Counts());
+    }
+
+    /**
+     * Ends the count of the current thread and returns what it saw
+     */
+    public static QueryStats stop() {
+        Counts counts = CURRENT.get();
+        CURRENT.remove();
+        return counts != null ? new QueryStats(counts.total, counts.bySql) : QueryStats.EMPTY;
+    }
+
+    static void record(String sql) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.total++;
+            counts.bySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    private static final class Counts {
+        private int total;
+        private final Map<String, Integer> bySql = new HashMap<>();
+    }
+}
@@ -0,0 +1,100 @@
+package com.api.pako.config.querycount;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Reports every statement execution to {@link QueryCounter}, whichever layer issued it
+ * (Hibernate, JdbcTemplate, native queries). Connections and statements are JDK proxies
+ * around the pool's own objects; {@code unwrap} still reaches the driver classes.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    // executeBatch gönderilen SQL'i bilmez (Statement.addBatch); tek round trip sayılır
+    private static final String BATCH = "<batch>";
+
+    public QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // Proxy kimliği korunur; Hibernate statement'ları map anahtarı olarak tutar
+        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryCountingDataSource.invoke(proxy, target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                StatementHandler handler = new StatementHandler(statement, sql);
+                if (statement instanceof CallableStatement) {
+                    return proxy(CallableStatement.class, handler);
+                }
+                if (statement instanceof PreparedStatement) {
+                    return proxy(PreparedStatement.class, handler);
+                }
+                return proxy(Statement.class, handler);
+            }
+            return result;
+        }
+    }
+
+    private record StatementHandler(Statement target, String preparedSql) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().startsWith("execute")) {
+                QueryCounter.record(sql(method, args));
+            }
+            return QueryCountingDataSource.invoke(proxy, target, method, args);
+        }
+
+        private String sql(Method method, Object[] args) {
+            if (preparedSql != null) {
+                return preparedSql;
+            }
+            if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                return sql;
+            }
+            return method.getName().endsWith("Batch") ? BATCH : method.getName();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.api.pako.config.querycount;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Statements executed during one request: the total and how often each SQL text ran.
+ */
+public record QueryStats(int total, Map<String, Integer> bySql) {
+
+    public static final QueryStats EMPTY = new QueryStats(0, Map.of());
+
+    /**
+     * SQL texts that ran at least {@code threshold} times, the usual shape of an N+1
+     * (the same parameterized select once per row of a previous result)
+     */
+    public Map<String, Integer> repeated(int threshold) {
+        return bySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+}
@@ -0,0 +1,67 @@
+package com.api.pako.controller;
+
+import com.api.pako.dto.ApiResponse;
+import com.api.pako.dto.LocationBatchRequest;
+import com.api.pako.dto.LocationPingRequest;
+import com.api.pako.service.CourierLocationService;
+import jakarta.validation.Valid;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Kurye konum bildirimi
+ * Uygulama ~5 saniyede bir ping gönderir; WebSocket üzerinden /app/courier/location de kullanılabilir
+ */
+@RestController
+@RequestMapping("/api/v1/courier/location")
+public class CourierLocationController {
+
+    private final CourierLocationService courierLocationService;
+
+    public CourierLocationController(CourierLocationService courierLocationService) {
+        this.courierLocationService = courierLocationService;
+    }
+
+    /**
+     * Tek konum bildir
+     * POST /api/v1/courier/location
+     */
+    @PostMapping
+    public ApiResponse<Void> reportLocation(
+            Authentication authentication,
+            @Valid @RequestBody LocationPingRequest request) {
+
+        courierLocationService.record(extractCourierId(authentication), request);
+        return ApiResponse.ok(null, "Konum alındı");
+    }
+
+    /**
+     * Toplu konum bildir
+     * POST /api/v1/courier/location/batch
+     */
+    @PostMapping("/batch")
+    public ApiResponse<Integer> reportLocations(
+            Authentication authentication,
+            @Valid @RequestBody LocationBatchRequest request) {
+
+        courierLocationService.recordAll(extractCourierId(authentication), request.getPings());
+        return ApiResponse.ok(request.getPings().size(), "Konumlar alındı");
+    }
+
+    private Long extractCourierId(Authentication authentication) {
+        // Principal is userId (Long) set by JwtAuthenticationFilter
+        Object principal = authentication.getPrincipal();
+
+        if (principal instanceof Long) {
+            return (Long) principal;
+        } else if (principal instanceof Number) {
+            return ((Number) principal).longValue();
+        }
+
+        throw new IllegalStateException("Expected principal to be userId (Long), but got: " +
+                                       (principal != null ? principal.getClass() : "null"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.api.pako.controller;
+
+import com.api.pako.dto.LocationBatchRequest;
+import com.api.pako.dto.LocationPingRequest;
+import com.api.pako.service.CourierLocationService;
+import jakarta.validation.Valid;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+/**
+ * WebSocket (STOMP) üzerinden konum bildirimi.
+ * Kurye kimliği /ws handshake'inde JWT ile doğrulanan oturumdan alınır; oturum kurye
+ * rolünde değilse (ör. işletme token'ı) ping reddedilir.
+ * <p>
+ * SEND /app/courier/location        -> tek ping
+ * SEND /app/courier/location/batch  -> {"pings": [...]}
+ */
+@Controller
+public class CourierLocationMessageController {
+
+    private static final String COURIER_ROLE = "ROLE_COURIER";
+
+    private final CourierLocationService courierLocationService;
+
+    public CourierLocationMessageController(CourierLocationService courierLocationService) {
+        this.courierLocationService = courierLocationService;
+    }
+
+    @MessageMapping("/courier/location")
+    public void reportLocation(Principal principal, @Valid @Payload LocationPingRequest request) {
+        courierLocationService.record(extractCourierId(principal), request);
+    }
+
+    @MessageMapping("/courier/location/batch")
+    public void reportLocations(Principal principal, @Valid @Payload LocationBatchRequest request) {
+        courierLocationService.recordAll(extractCourierId(principal), request.getPings());
+    }
+
+    private Long extractCourierId(Principal principal) {
+        if (!(principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof Number userId)) {
+            throw new IllegalStateException("WebSocket oturumunda kurye kimliği bulunamadı");
+        }
+        boolean courier = authentication.getAuthorities().stream()
+                .anyMatch(authority -> COURIER_ROLE.equals(authority.getAuthority()));
+        if (!courier) {
+            throw new AccessDeniedException("Konum yalnızca kurye oturumundan bildirilebilir");
+        }
+        return userId.longValue();
+    }
+}
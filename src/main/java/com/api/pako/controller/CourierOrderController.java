@@ -1,18 +1,15 @@
 package com.api.pako.controller;
 
+import com.api.pako.business.dto.OrderResponse;
 import com.api.pako.dto.ApiResponse;
-import com.api.pako.exception.InvalidOrderOperationException;
-import com.api.pako.exception.OrderNotFoundException;
-import com.api.pako.exception.UnauthorizedAccessException;
-import com.api.pako.model.Order;
-import com.api.pako.model.enums.OrderStatus;
-import com.api.pako.repository.OrderRepository;
+import com.api.pako.dto.OrderStatusResponse;
+import com.api.pako.service.CourierOrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.math.BigDecimal;
 
 @Slf4j
 @RestController
@@ -20,33 +17,28 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class CourierOrderController {
 
-    private final OrderRepository orderRepository;
+    private final CourierOrderService courierOrderService;
 
     /**
      * Get order details
      */
     @GetMapping("/{orderId}")
-    public ApiResponse<Order> getOrder(
+    public ApiResponse<OrderResponse> getOrder(
             Authentication authentication,
             @PathVariable Long orderId) {
 
         Long courierId = extractCourierId(authentication);
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Sipariş bulunamadı"));
-
-        // Verify courier owns this order - TODO: move this logic to service layer
-        if (order.getCourier() == null || !order.getCourier().getId().equals(courierId)) {
-            throw new RuntimeException("Bu sipariş size atanmamış");
-        }
+        OrderResponse order = courierOrderService.getOrder(courierId, orderId);
 
         return ApiResponse.ok(order, "Sipariş detayları");
     }
 
     /**
      * Pickup order (mark as PICKED_UP)
+     * Repeating the call for an order that is already PICKED_UP returns the same result
      */
     @PostMapping(value = "/{orderId}/pickup", consumes = {"*/*"})
-    public ApiResponse<Order> pickupOrder(
+    public ApiResponse<OrderStatusResponse> pickupOrder(
             Authentication authentication,
             @PathVariable Long orderId,
             @RequestParam(required = false) String notes) {
@@ -54,108 +46,32 @@ public class CourierOrderController {
         Long courierId = extractCourierId(authentication);
         log.info("Pickup request - Courier: {}, Order: {}, Notes: {}", courierId, orderId, notes);
 
-        // Order'ı bul
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> {
-                    log.error("Pickup failed - Order {} not found", orderId);
-                    return new OrderNotFoundException(orderId);
-                });
-
-        log.debug("Order found - ID: {}, Status: {}, CourierId: {}",
-                    order.getId(), order.getStatus(),
-                    order.getCourier() != null ? order.getCourier().getId() : "NULL");
-
-        // Courier kontrolü (detaylı logging)
-        if (order.getCourier() == null) {
-            log.error("Pickup failed - Order {} has no courier assigned! Order status: {}",
-                        orderId, order.getStatus());
-            throw new UnauthorizedAccessException(
-                "Bu sipariş henüz bir kuryeye atanmamış. Lütfen önce siparişi kabul edin."
-            );
-        }
-
-        if (!order.getCourier().getId().equals(courierId)) {
-            log.error("Pickup failed - Order {} belongs to courier {} but requested by courier {}",
-                        orderId, order.getCourier().getId(), courierId);
-            throw new UnauthorizedAccessException(
-                String.format("Bu sipariş size ait değil. Sipariş kurye %d'ye atanmış.",
-                             order.getCourier().getId())
-            );
-        }
-
-        // Status kontrolü
-        if (order.getStatus() != OrderStatus.ASSIGNED) {
-            log.error("Pickup failed - Order {} has invalid status: {}. Expected: ASSIGNED",
-                        orderId, order.getStatus());
-            throw new InvalidOrderOperationException(
-                String.format("Bu sipariş pickup yapılamaz. Mevcut durum: %s, Beklenen: ASSIGNED",
-                             order.getStatus())
-            );
-        }
+        OrderStatusResponse response = courierOrderService.pickup(courierId, orderId, notes);
 
-        // Pickup yap
-        order.setStatus(OrderStatus.PICKED_UP);
-        order.setUpdatedAt(LocalDateTime.now());
-        if (notes != null && !notes.isBlank()) {
-            order.setCourierNotes(notes);
-        }
-
-        orderRepository.save(order);
-        log.info("Pickup successful - Order {} picked up by courier {}", orderId, courierId);
-
-        return ApiResponse.ok(order, "Sipariş alındı (PICKED_UP)");
+        return ApiResponse.ok(response, "Sipariş alındı (PICKED_UP)");
     }
 
     /**
      * Start delivery (mark as IN_TRANSIT)
      */
     @PostMapping("/{orderId}/start-delivery")
-    public ApiResponse<Order> startDelivery(
+    public ApiResponse<OrderStatusResponse> startDelivery(
             Authentication authentication,
             @PathVariable Long orderId) {
 
         Long courierId = extractCourierId(authentication);
         log.info("Start delivery request - Courier: {}, Order: {}", courierId, orderId);
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> {
-                    log.error("Start delivery failed - Order {} not found", orderId);
-                    return new OrderNotFoundException(orderId);
-                });
-
-        log.debug("Order found - ID: {}, Status: {}, CourierId: {}",
-                    order.getId(), order.getStatus(),
-                    order.getCourier() != null ? order.getCourier().getId() : "NULL");
-
-        if (order.getCourier() == null || !order.getCourier().getId().equals(courierId)) {
-            log.error("Start delivery failed - Order {} courier mismatch. Expected: {}, Got: {}",
-                        orderId, order.getCourier() != null ? order.getCourier().getId() : "NULL", courierId);
-            throw new UnauthorizedAccessException("Bu sipariş size ait değil");
-        }
-
-        if (order.getStatus() != OrderStatus.PICKED_UP) {
-            log.error("Start delivery failed - Order {} invalid status: {}. Expected: PICKED_UP",
-                        orderId, order.getStatus());
-            throw new InvalidOrderOperationException(
-                String.format("Teslimat başlatılamaz. Mevcut durum: %s, Beklenen: PICKED_UP",
-                             order.getStatus())
-            );
-        }
+        OrderStatusResponse response = courierOrderService.startDelivery(courierId, orderId);
 
-        order.setStatus(OrderStatus.IN_TRANSIT);
-        order.setUpdatedAt(LocalDateTime.now());
-        orderRepository.save(order);
-
-        log.info("Start delivery successful - Order {} now IN_TRANSIT by courier {}", orderId, courierId);
-
-        return ApiResponse.ok(order, "Teslimat başladı (IN_TRANSIT)");
+        return ApiResponse.ok(response, "Teslimat başladı (IN_TRANSIT)");
     }
 
     /**
      * Complete delivery (mark as DELIVERED)
      */
     @PostMapping(value = "/{orderId}/complete", consumes = {"*/*"})
-    public ApiResponse<Order> completeDelivery(
+    public ApiResponse<OrderStatusResponse> completeDelivery(
             Authentication authentication,
             @PathVariable Long orderId,
             @RequestParam(required = false) String notes,
@@ -165,48 +81,10 @@ public class CourierOrderController {
         log.info("Complete delivery request - Courier: {}, Order: {}, Notes: {}, Amount: {}",
                    courierId, orderId, notes, collectionAmount);
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> {
-                    log.error("Complete delivery failed - Order {} not found", orderId);
-                    return new OrderNotFoundException(orderId);
-                });
-
-        log.debug("Order found - ID: {}, Status: {}, CourierId: {}",
-                    order.getId(), order.getStatus(),
-                    order.getCourier() != null ? order.getCourier().getId() : "NULL");
-
-        if (order.getCourier() == null || !order.getCourier().getId().equals(courierId)) {
-            log.error("Complete delivery failed - Order {} courier mismatch. Expected: {}, Got: {}",
-                        orderId, order.getCourier() != null ? order.getCourier().getId() : "NULL", courierId);
-            throw new UnauthorizedAccessException("Bu sipariş size ait değil");
-        }
-
-        if (order.getStatus() != OrderStatus.IN_TRANSIT) {
-            log.error("Complete delivery failed - Order {} invalid status: {}. Expected: IN_TRANSIT",
-                        orderId, order.getStatus());
-            throw new InvalidOrderOperationException(
-                String.format("Teslimat tamamlanamaz. Mevcut durum: %s, Beklenen: IN_TRANSIT",
-                             order.getStatus())
-            );
-        }
-
-        order.setStatus(OrderStatus.DELIVERED);
-        order.setUpdatedAt(LocalDateTime.now());
-
-        if (notes != null && !notes.isBlank()) {
-            order.setCourierNotes(notes);
-            log.debug("Added courier notes to order {}", orderId);
-        }
+        OrderStatusResponse response = courierOrderService.complete(courierId, orderId, notes,
+                collectionAmount != null ? BigDecimal.valueOf(collectionAmount) : null);
 
-        if (collectionAmount != null) {
-            order.setCollectionAmount(java.math.BigDecimal.valueOf(collectionAmount));
-            log.debug("Set collection amount {} for order {}", collectionAmount, orderId);
-        }
-
-        orderRepository.save(order);
-        log.info("Complete delivery successful - Order {} delivered by courier {}", orderId, courierId);
-
-        return ApiResponse.ok(order, "Sipariş teslim edildi (DELIVERED)");
+        return ApiResponse.ok(response, "Sipariş teslim edildi (DELIVERED)");
     }
 
     private Long extractCourierId(Authentication authentication) {
@@ -222,4 +100,3 @@ public class CourierOrderController {
                                        (principal != null ? principal.getClass() : "null"));
     }
 }
-
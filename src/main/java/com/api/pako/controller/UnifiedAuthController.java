@@ -1,6 +1,8 @@
 package com.api.pako.controller;
 
 import com.api.pako.dto.ApiResponse;
+import com.api.pako.dto.RefreshTokenRequest;
+import com.api.pako.dto.TokenRefreshResponse;
 import com.api.pako.dto.UnifiedLoginRequest;
 import com.api.pako.dto.UnifiedLoginResponse;
 import com.api.pako.service.UnifiedAuthService;
@@ -31,5 +33,28 @@ public class UnifiedAuthController {
         UnifiedLoginResponse response = unifiedAuthService.login(request);
         return ApiResponse.ok(response, "Login successful");
     }
+
+    @PostMapping("/refresh")
+    @Operation(
+        summary = "Refresh access token",
+        description = "Exchanges a refresh token for a new access token. The refresh token is rotated: "
+                + "use the returned one next time; reusing an old one revokes the whole session."
+    )
+    public ApiResponse<TokenRefreshResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        TokenRefreshResponse response = unifiedAuthService.refresh(request.getRefreshToken());
+        return ApiResponse.ok(response, "Token refreshed");
+    }
+
+    @PostMapping("/logout")
+    @Operation(
+        summary = "Logout",
+        description = "Revokes the refresh token session and the access token sent in the Authorization header"
+    )
+    public ApiResponse<Void> logout(@Valid @RequestBody RefreshTokenRequest request,
+                                    @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        unifiedAuthService.logout(request.getRefreshToken(), accessToken);
+        return ApiResponse.noContent("Logged out");
+    }
 }
 
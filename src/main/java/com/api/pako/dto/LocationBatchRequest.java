@@ -0,0 +1,24 @@
+package com.api.pako.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Toplu konum bildirimi - uygulama bağlantı yokken biriktirdiği ping'leri tek seferde gönderir
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class LocationBatchRequest {
+
+    @NotEmpty(message = "En az bir konum gereklidir")
+    @Size(max = 100, message = "Tek seferde en fazla 100 konum gönderilebilir")
+    @Valid
+    private List<LocationPingRequest> pings;
+}
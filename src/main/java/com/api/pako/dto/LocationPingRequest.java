@@ -0,0 +1,36 @@
+package com.api.pako.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Kurye konum bildirimi (ping)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationPingRequest {
+
+    @NotNull(message = "Enlem gereklidir")
+    @DecimalMin(value = "-90.0", message = "Enlem -90 ile 90 arasında olmalıdır")
+    @DecimalMax(value = "90.0", message = "Enlem -90 ile 90 arasında olmalıdır")
+    private Double latitude;
+
+    @NotNull(message = "Boylam gereklidir")
+    @DecimalMin(value = "-180.0", message = "Boylam -180 ile 180 arasında olmalıdır")
+    @DecimalMax(value = "180.0", message = "Boylam -180 ile 180 arasında olmalıdır")
+    private Double longitude;
+
+    /**
+     * Cihazda ölçüldüğü an; boşsa ya da cihaz saati ileri olduğu için gelecekteyse sunucu zamanı kullanılır
+     */
+    private OffsetDateTime recordedAt;
+}
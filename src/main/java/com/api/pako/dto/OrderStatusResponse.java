@@ -0,0 +1,11 @@
+package com.api.pako.dto;
+
+import com.api.pako.model.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order state after a courier status transition
+ */
+public record OrderStatusResponse(Long orderId, OrderStatus status, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,22 @@
+package com.api.pako.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * New access token and the refresh token that replaces the one presented.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenRefreshResponse {
+
+    private String token;
+    private String refreshToken;
+    // Access token lifetime in seconds
+    private long expiresIn;
+
+}
@@ -8,7 +8,8 @@ import lombok.Setter;
 
 /**
  * Unified login response for all user types.
- * Contains JWT token with role information embedded.
+ * Contains a short-lived JWT access token with role information embedded,
+ * and a refresh token to renew it via /api/v1/auth/refresh.
  */
 @Setter
 @Getter
@@ -17,6 +18,9 @@ import lombok.Setter;
 public class UnifiedLoginResponse {
 
     private String token;
+    private String refreshToken;
+    // Access token lifetime in seconds
+    private long expiresIn;
     private Long userId;
     private String email;
     private String name;
@@ -0,0 +1,9 @@
+package com.api.pako.event;
+
+import com.api.pako.model.enums.AssignmentStatus;
+
+/**
+ * Published when a pending assignment is accepted, rejected or timed out
+ */
+public record AssignmentClosedEvent(Long assignmentId, Long orderId, Long courierId, AssignmentStatus status) {
+}
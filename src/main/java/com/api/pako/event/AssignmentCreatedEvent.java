@@ -0,0 +1,9 @@
+package com.api.pako.event;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published when a new order assignment (offer to a courier) is saved
+ */
+public record AssignmentCreatedEvent(Long assignmentId, Long orderId, Long courierId, OffsetDateTime timeoutAt) {
+}
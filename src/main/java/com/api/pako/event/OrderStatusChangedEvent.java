@@ -0,0 +1,12 @@
+package com.api.pako.event;
+
+import com.api.pako.model.enums.OrderStatus;
+
+/**
+ * Published inside the transaction that creates an order or changes its status
+ *
+ * @param previousStatus null when the order was just created
+ */
+public record OrderStatusChangedEvent(Long orderId, Long businessId, Long courierId,
+                                      OrderStatus previousStatus, OrderStatus status) {
+}
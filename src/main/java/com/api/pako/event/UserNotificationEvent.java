@@ -0,0 +1,11 @@
+package com.api.pako.event;
+
+/**
+ * A WebSocket message for one user, delivered by the notification dispatcher after the
+ * publishing transaction commits.
+ *
+ * @param coalesceKey messages of the same user with the same key replace each other while
+ *                    still queued (e.g. status updates of one order); null to always deliver
+ */
+public record UserNotificationEvent(String user, String destination, Object payload, String coalesceKey) {
+}
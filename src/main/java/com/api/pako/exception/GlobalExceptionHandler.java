@@ -3,6 +3,7 @@ package com.api.pako.exception;
 import com.api.pako.dto.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -96,6 +97,29 @@ public class GlobalExceptionHandler {
                 .body(errorResponse);
     }
 
+    /**
+     * Handle login rejected under load; clients should retry after a short pause.
+     */
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorResponse> handleLoginThrottled(
+            LoginThrottledException ex,
+            HttpServletRequest request) {
+
+        log.warn("Login throttled: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                503,
+                "Service Unavailable",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     /**
      * Handle order not found exception.
      */
@@ -0,0 +1,11 @@
+package com.api.pako.exception;
+
+/**
+ * Exception thrown when a login is rejected because password checks are saturated
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+}
@@ -17,7 +17,8 @@ import java.time.OffsetDateTime;
 public class OnDutyCourier {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "on_duty_couriers_id_gen")
+    @SequenceGenerator(name = "on_duty_couriers_id_gen", sequenceName = "on_duty_couriers_id_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
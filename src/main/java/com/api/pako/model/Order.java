@@ -25,7 +25,8 @@ import java.time.LocalDateTime;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_gen")
+    @SequenceGenerator(name = "orders_id_gen", sequenceName = "orders_id_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -17,7 +17,8 @@ import java.time.OffsetDateTime;
 public class OrderAssignment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_assignments_id_gen")
+    @SequenceGenerator(name = "order_assignments_id_gen", sequenceName = "order_assignments_id_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
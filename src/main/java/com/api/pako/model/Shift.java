@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class Shift {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shifts_shift_id_gen")
+    @SequenceGenerator(name = "shifts_shift_id_gen", sequenceName = "shifts_shift_id_seq", allocationSize = 50)
     @Column(name = "shift_id")
     @EqualsAndHashCode.Include
     private Long shiftId;
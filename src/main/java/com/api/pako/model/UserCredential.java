@@ -0,0 +1,10 @@
+package com.api.pako.model;
+
+import com.api.pako.model.enums.UserType;
+
+/**
+ * Row of the {@code user_credentials} view: what login needs from a courier or business
+ */
+public record UserCredential(UserType userType, Long id, String email, String name,
+                             String passwordHash, String status, boolean canLogin) {
+}
@@ -2,8 +2,12 @@ package com.api.pako.repository;
 
 import com.api.pako.model.Courier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -44,5 +48,18 @@ public interface CourierRepository extends JpaRepository<Courier, Long> {
      * @return true if exists, false otherwise
      */
     boolean existsByPhone(String phone);
+
+    /**
+     * Set status and on-duty timestamp without loading the courier.
+     *
+     * @return number of updated rows (0 when the courier does not exist)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Courier c SET c.status = :status, c.onDutySince = :onDutySince, c.updatedAt = :now " +
+            "WHERE c.id = :courierId")
+    int updateDutyState(@Param("courierId") Long courierId,
+                        @Param("status") Courier.CourierStatus status,
+                        @Param("onDutySince") LocalDateTime onDutySince,
+                        @Param("now") LocalDateTime now);
 }
 
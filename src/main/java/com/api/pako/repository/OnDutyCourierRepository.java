@@ -2,20 +2,144 @@ package com.api.pako.repository;
 
 import com.api.pako.model.OnDutyCourier;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OnDutyCourierRepository extends JpaRepository<OnDutyCourier, Long> {
 
+    /**
+     * Last known position of a courier
+     */
+    interface CourierPosition {
+        Long getCourierId();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
+
+    /**
+     * Courier claimed by one of the claim queries, read from the UPDATE's RETURNING columns.
+     * A projection rather than the entity: a managed OnDutyCourier in the persistence context
+     * would otherwise be returned as is, with its pre-UPDATE values.
+     */
+    interface ClaimedCourier {
+        Long getCourierId();
+
+        Long getShiftId();
+    }
+
     Optional<OnDutyCourier> findByCourierId(Long courierId);
 
     List<OnDutyCourier> findAllByOrderByOnDutySinceAsc();
 
     void deleteByCourierId(Long courierId);
 
+    // Move an on-duty courier to the tail of the FIFO queue; returns 0 if the courier is not on duty
+    @Modifying
+    @Query("UPDATE OnDutyCourier od SET od.onDutySince = :now, od.updatedAt = :now WHERE od.courierId = :courierId")
+    int moveToTail(@Param("courierId") Long courierId, @Param("now") OffsetDateTime now);
+
     boolean existsByCourierId(Long courierId);
-}
 
+    /**
+     * Atomically claim the courier at the head of the FIFO queue and move it to the tail.
+     * Rows locked by concurrent claims are skipped, so parallel assignments each get a
+     * different courier in a single round trip. The row lock is held until the caller's
+     * transaction ends.
+     *
+     * @param excludedCourierId Courier to skip (e.g. the one who just timed out), may be null
+     * @return Claimed courier, empty if no courier is free
+     */
+    @Query(value = """
+            UPDATE on_duty_couriers
+               SET on_duty_since = clock_timestamp(),
+                   updated_at = clock_timestamp()
+             WHERE id = (SELECT id
+                           FROM on_duty_couriers
+                          WHERE courier_id <> COALESCE(CAST(:excludedCourierId AS BIGINT), -1)
+                          ORDER BY on_duty_since ASC
+                          LIMIT 1
+                            FOR UPDATE SKIP LOCKED)
+            RETURNING courier_id AS "courierId", shift_id AS "shiftId"
+            """, nativeQuery = true)
+    Optional<ClaimedCourier> claimNextCourier(@Param("excludedCourierId") Long excludedCourierId);
+
+    /**
+     * Atomically claim the free on-duty courier closest to the given point and move it to the tail.
+     * Uses the GiST index on couriers' current position (KNN {@code <->} ordering), so the nearest
+     * row is found without scanning every on-duty courier. Couriers without a known position are
+     * never returned.
+     *
+     * @param latitude Pickup latitude
+     * @param longitude Pickup longitude
+     * @param excludedCourierId Courier to skip (e.g. the one who just timed out), may be null
+     * @return Claimed courier, empty if no located courier is free
+     */
+    @Query(value = """
+            UPDATE on_duty_couriers
+               SET on_duty_since = clock_timestamp(),
+                   updated_at = clock_timestamp()
+             WHERE id = (SELECT od.id
+                           FROM couriers c
+                           JOIN on_duty_couriers od ON od.courier_id = c.id
+                          WHERE c.current_latitude IS NOT NULL
+                            AND c.current_longitude IS NOT NULL
+                            AND od.courier_id <> COALESCE(CAST(:excludedCourierId AS BIGINT), -1)
+                          ORDER BY point(c.current_longitude, c.current_latitude) <-> point(:longitude, :latitude)
+                          LIMIT 1
+                            FOR UPDATE OF od SKIP LOCKED)
+            RETURNING courier_id AS "courierId", shift_id AS "shiftId"
+            """, nativeQuery = true)
+    Optional<ClaimedCourier> claimNearestCourier(@Param("latitude") double latitude,
+                                                @Param("longitude") double longitude,
+                                                @Param("excludedCourierId") Long excludedCourierId);
+
+    /**
+     * Atomically claim a specific on-duty courier and move it to the tail.
+     * Returns empty if the courier is no longer on duty or is being claimed concurrently.
+     */
+    @Query(value = """
+            UPDATE on_duty_couriers
+               SET on_duty_since = clock_timestamp(),
+                   updated_at = clock_timestamp()
+             WHERE id = (SELECT id
+                           FROM on_duty_couriers
+                          WHERE courier_id = :courierId
+                            FOR UPDATE SKIP LOCKED)
+            RETURNING courier_id AS "courierId", shift_id AS "shiftId"
+            """, nativeQuery = true)
+    Optional<ClaimedCourier> claimCourier(@Param("courierId") Long courierId);
+
+    /**
+     * Positions of all on-duty couriers that have reported a location
+     */
+    @Query(value = """
+            SELECT od.courier_id AS "courierId",
+                   c.current_latitude AS "latitude",
+                   c.current_longitude AS "longitude"
+              FROM on_duty_couriers od
+              JOIN couriers c ON c.id = od.courier_id
+             WHERE c.current_latitude IS NOT NULL
+               AND c.current_longitude IS NOT NULL
+            """, nativeQuery = true)
+    List<CourierPosition> findOnDutyPositions();
+
+    @Query(value = """
+            SELECT c.id AS "courierId",
+                   c.current_latitude AS "latitude",
+                   c.current_longitude AS "longitude"
+              FROM couriers c
+             WHERE c.id = :courierId
+               AND c.current_latitude IS NOT NULL
+               AND c.current_longitude IS NOT NULL
+            """, nativeQuery = true)
+    Optional<CourierPosition> findCourierPosition(@Param("courierId") Long courierId);
+}
@@ -3,6 +3,7 @@ package com.api.pako.repository;
 import com.api.pako.model.OrderAssignment;
 import com.api.pako.model.enums.AssignmentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,11 +23,107 @@ public interface OrderAssignmentRepository extends JpaRepository<OrderAssignment
 
     Optional<OrderAssignment> findFirstByOrderIdAndStatusOrderByAssignedAtDesc(Long orderId, AssignmentStatus status);
 
+    Optional<OrderAssignment> findFirstByOrderIdOrderByAssignedAtDesc(Long orderId);
+
     @Query("SELECT a FROM OrderAssignment a WHERE a.status = 'PENDING' AND a.timeoutAt <= :now")
     List<OrderAssignment> findTimedOutAssignments(OffsetDateTime now);
 
     List<OrderAssignment> findByStatusAndTimeoutAtBefore(AssignmentStatus status, OffsetDateTime now);
 
+    List<OrderAssignment> findByStatus(AssignmentStatus status);
+
+    // Mark a pending, overdue assignment as timed out; returns 0 if it was already answered or expired
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderAssignment a SET a.status = com.api.pako.model.enums.AssignmentStatus.TIMEOUT, " +
+           "a.responseAt = :now, a.rejectionReason = :reason, a.updatedAt = :now " +
+           "WHERE a.id = :id AND a.status = com.api.pako.model.enums.AssignmentStatus.PENDING " +
+           "AND a.timeoutAt <= :now")
+    int markTimedOut(@Param("id") Long id, @Param("now") OffsetDateTime now, @Param("reason") String reason);
+
+    /**
+     * Assignment closed by {@link #markOverdueTimedOut}, read from the UPDATE's RETURNING columns.
+     * A projection rather than the entity: {@code @Modifying} only allows an update count, and a
+     * managed OrderAssignment in the persistence context would be returned with its pre-UPDATE values.
+     */
+    interface TimedOutAssignment {
+        Long getId();
+
+        Long getOrderId();
+
+        Long getCourierId();
+    }
+
+    /**
+     * Mark up to {@code limit} overdue pending assignments as timed out in one statement.
+     * Rows locked by a concurrent accept/reject or another node's sweep are skipped.
+     *
+     * @return The assignments this call timed out
+     */
+    @Query(value = """
+            UPDATE order_assignments
+               SET status = 'TIMEOUT',
+                   response_at = :now,
+                   rejection_reason = :reason,
+                   updated_at = :now
+             WHERE id IN (SELECT id
+                            FROM order_assignments
+                           WHERE status = 'PENDING'
+                             AND timeout_at <= :now
+                           ORDER BY timeout_at
+                           LIMIT :limit
+                             FOR UPDATE SKIP LOCKED)
+            RETURNING id AS "id", order_id AS "orderId", courier_id AS "courierId"
+            """, nativeQuery = true)
+    List<TimedOutAssignment> markOverdueTimedOut(@Param("now") OffsetDateTime now,
+                                                 @Param("reason") String reason,
+                                                 @Param("limit") int limit);
+
+    /**
+     * Claim PENDING orders that have no pending assignment now and either had one time out
+     * (reassignment found no courier, failed, or never ran because the node stopped after the
+     * bulk close) or were created at least {@code graceSeconds} ago (the in-memory dispatch
+     * queue was lost with its node, or no courier was free at creation). Orders attempted least recently come first, and the claim stamps the attempt time, so
+     * successive calls rotate through all waiting orders. Rows locked by another node are skipped.
+     * Not {@code @Modifying} for the same reason as {@link #markOverdueTimedOut}: ids come from RETURNING.
+     *
+     * @return Ids of the claimed orders
+     */
+    @Query(value = """
+            UPDATE orders
+               SET last_reassign_attempt_at = :now
+             WHERE id IN (SELECT o.id
+                            FROM orders o
+                           WHERE o.status = 'PENDING'
+                             AND NOT EXISTS (SELECT 1 FROM order_assignments a
+                                              WHERE a.order_id = o.id AND a.status = 'PENDING')
+                             AND (o.created_at <= LOCALTIMESTAMP - make_interval(secs => :graceSeconds)
+                                  OR EXISTS (SELECT 1 FROM order_assignments a
+                                              WHERE a.order_id = o.id AND a.status = 'TIMEOUT'))
+                           ORDER BY o.last_reassign_attempt_at NULLS FIRST, o.id
+                           LIMIT :limit
+                             FOR UPDATE OF o SKIP LOCKED)
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> claimOrdersAwaitingAssignment(@Param("now") OffsetDateTime now,
+                                             @Param("graceSeconds") int graceSeconds,
+                                             @Param("limit") int limit);
+
+    /**
+     * Lock the order row if the order is PENDING without a pending assignment. Empty when it was
+     * assigned, cancelled or accepted meanwhile, or when another transaction is assigning it.
+     */
+    @Query(value = """
+            SELECT o.id
+              FROM orders o
+             WHERE o.id = :orderId
+               AND o.status = 'PENDING'
+               AND NOT EXISTS (SELECT 1 FROM order_assignments a WHERE a.order_id = o.id AND a.status = 'PENDING')
+               FOR UPDATE OF o SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<Long> lockOrderAwaitingAssignment(@Param("orderId") Long orderId);
+
+    boolean existsByOrderId(Long orderId);
+
     // Check if order already has a pending assignment (to prevent duplicates)
     boolean existsByOrderIdAndStatus(Long orderId, AssignmentStatus status);
 
@@ -14,7 +14,7 @@ import java.util.Optional;
  * Repository for Order entity
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
     /**
      * Find order by order number
@@ -31,21 +31,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     List<Order> findByBusinessIdAndStatus(Long businessId, OrderStatus status);
 
-    /**
-     * Find orders by business, ordered by creation date descending
-     */
-    List<Order> findByBusinessIdOrderByCreatedAtDesc(Long businessId);
-
-    /**
-     * Find orders by business and status, ordered by priority and creation date
-     */
-    @Query("SELECT o FROM Order o WHERE o.business.id = :businessId AND o.status = :status " +
-           "ORDER BY o.priority DESC, o.createdAt ASC")
-    List<Order> findByBusinessIdAndStatusOrderByPriorityAndCreatedAt(
-            @Param("businessId") Long businessId,
-            @Param("status") OrderStatus status
-    );
-
     /**
      * Find pending orders for a business
      */
@@ -78,4 +63,3 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     List<Order> findByCourierIdAndStatus(Long courierId, OrderStatus status);
 }
-
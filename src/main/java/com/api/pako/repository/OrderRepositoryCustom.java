@@ -0,0 +1,80 @@
+package com.api.pako.repository;
+
+import com.api.pako.business.dto.OrderResponse;
+import com.api.pako.business.dto.OrderSummary;
+import com.api.pako.model.enums.OrderPriority;
+import com.api.pako.model.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom Order queries that Spring Data cannot derive
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Filters and keyset position for {@link #findSummaries(SummaryQuery)}.
+     * Everything except businessId and limit is optional.
+     *
+     * @param from           created_at lower bound, inclusive
+     * @param to             created_at upper bound, exclusive
+     * @param afterCreatedAt created_at of the last row on the previous page
+     * @param afterId        id of the last row on the previous page
+     */
+    record SummaryQuery(Long businessId,
+                        OrderStatus status,
+                        OrderPriority priority,
+                        LocalDateTime from,
+                        LocalDateTime to,
+                        LocalDateTime afterCreatedAt,
+                        Long afterId,
+                        int limit) {
+    }
+
+    /**
+     * Business orders newest first, ordered by (created_at, id) descending.
+     * Reads continue after the keyset position, so deep pages cost the same as the first one.
+     */
+    List<OrderSummary> findSummaries(SummaryQuery query);
+
+    /**
+     * Full order view with business and courier names, read in one statement
+     * without loading the Order entity or its associations.
+     */
+    Optional<OrderResponse> findResponseById(Long orderId);
+
+    /**
+     * Full order views of a business, at most {@code limit}, in one statement.
+     * Without a status newest first; with a status by priority, then oldest first.
+     */
+    List<OrderResponse> findResponsesByBusiness(Long businessId, OrderStatus status, int limit);
+
+    /**
+     * Order counts of a business per status, read from the trigger-maintained
+     * business_order_stats table (V21) instead of counting orders.
+     * Statuses without orders are absent from the map.
+     */
+    Map<OrderStatus, Long> countByStatus(Long businessId);
+
+    /**
+     * Order status, owner and courier as currently stored
+     */
+    record StatusSnapshot(OrderStatus status, Long businessId, Long courierId, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * Move a courier's order from one status to another with a single conditional UPDATE.
+     * Courier notes and collection amount are only written when not null.
+     *
+     * @return the row after the update, or empty when no row matched
+     * (unknown order, another courier's order, or not in {@code from})
+     */
+    Optional<StatusSnapshot> transitionStatus(Long orderId, Long courierId, OrderStatus from, OrderStatus to,
+                                              String courierNotes, BigDecimal collectionAmount);
+
+    Optional<StatusSnapshot> findStatusSnapshot(Long orderId);
+}
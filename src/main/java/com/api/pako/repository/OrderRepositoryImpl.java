@@ -0,0 +1,172 @@
+package com.api.pako.repository;
+
+import com.api.pako.business.dto.OrderResponse;
+import com.api.pako.business.dto.OrderSummary;
+import com.api.pako.model.enums.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link OrderRepositoryCustom}
+ */
+class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    private static final String SUMMARY_SELECT = """
+            SELECT new com.api.pako.business.dto.OrderSummary(
+                   o.id, o.orderNumber, o.status, o.priority, o.endCustomerName, o.deliveryAddress,
+                   o.paymentType, o.deliveryFee, c.id, c.name, o.createdAt)
+              FROM Order o
+              LEFT JOIN o.courier c
+             WHERE o.business.id = :businessId
+            """;
+
+    // Sipariş, işletme adı ve kurye bilgisi tek SELECT ile; entity ve lazy proxy yüklenmez
+    private static final String RESPONSE_SELECT = """
+            SELECT new com.api.pako.business.dto.OrderResponse(
+                   o.id, o.orderNumber, o.status, o.priority,
+                   b.id, b.name, o.businessContactPerson, o.businessPhone,
+                   c.id, c.name, c.phone,
+                   o.pickupAddress, o.pickupAddressDescription, o.pickupContactPerson,
+                   o.deliveryAddress, o.deliveryAddressDescription,
+                   o.endCustomerName, o.endCustomerPhone,
+                   o.packageDescription, o.packageWeight, o.packageCount,
+                   o.paymentType, o.deliveryFee, o.collectionAmount,
+                   o.businessNotes, o.courierNotes,
+                   o.scheduledPickupTime, o.estimatedDeliveryTime, o.orderDate, o.createdAt, o.updatedAt)
+              FROM Order o
+              LEFT JOIN o.business b
+              LEFT JOIN o.courier c
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    OrderRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<StatusSnapshot> transitionStatus(Long orderId, Long courierId, OrderStatus from, OrderStatus to,
+                                                     String courierNotes, BigDecimal collectionAmount) {
+        return jdbcTemplate.query("""
+                        UPDATE orders
+                           SET status = CAST(? AS order_status),
+                               courier_notes = COALESCE(CAST(? AS TEXT), courier_notes),
+                               collection_amount = COALESCE(CAST(? AS NUMERIC), collection_amount),
+                               updated_at = ?
+                         WHERE id = ? AND courier_id = ? AND status = CAST(? AS order_status)
+                        RETURNING status::text, business_id, courier_id, updated_at
+                        """,
+                OrderRepositoryImpl::mapStatusSnapshot,
+                to.name(), courierNotes, collectionAmount, Timestamp.valueOf(LocalDateTime.now()),
+                orderId, courierId, from.name()).stream().findFirst();
+    }
+
+    @Override
+    public Optional<StatusSnapshot> findStatusSnapshot(Long orderId) {
+        return jdbcTemplate.query(
+                "SELECT status::text, business_id, courier_id, updated_at FROM orders WHERE id = ?",
+                OrderRepositoryImpl::mapStatusSnapshot, orderId).stream().findFirst();
+    }
+
+    private static StatusSnapshot mapStatusSnapshot(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp updatedAt = rs.getTimestamp(4);
+        return new StatusSnapshot(
+                OrderStatus.valueOf(rs.getString(1)),
+                rs.getObject(2, Long.class),
+                rs.getObject(3, Long.class),
+                updatedAt != null ? updatedAt.toLocalDateTime() : null);
+    }
+
+    @Override
+    public Map<OrderStatus, Long> countByStatus(Long businessId) {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        jdbcTemplate.query(
+                "SELECT status::text, order_count FROM business_order_stats WHERE business_id = ? AND order_count > 0",
+                rs -> {
+                    counts.put(OrderStatus.valueOf(rs.getString(1)), rs.getLong(2));
+                },
+                businessId);
+        return counts;
+    }
+
+    @Override
+    public Optional<OrderResponse> findResponseById(Long orderId) {
+        return entityManager.createQuery(RESPONSE_SELECT + " WHERE o.id = :orderId", OrderResponse.class)
+                .setParameter("orderId", orderId)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public List<OrderResponse> findResponsesByBusiness(Long businessId, OrderStatus status, int limit) {
+        String jpql = RESPONSE_SELECT + (status != null
+                ? " WHERE o.business.id = :businessId AND o.status = :status ORDER BY o.priority DESC, o.createdAt ASC"
+                : " WHERE o.business.id = :businessId ORDER BY o.createdAt DESC");
+        TypedQuery<OrderResponse> query = entityManager.createQuery(jpql, OrderResponse.class)
+                .setParameter("businessId", businessId)
+                .setMaxResults(limit);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<OrderSummary> findSummaries(SummaryQuery query) {
+        // Yalnızca verilen filtreler eklenir; planner (business_id, [status,] created_at, id) index'ini kullanır
+        StringBuilder jpql = new StringBuilder(SUMMARY_SELECT);
+        if (query.status() != null) {
+            jpql.append(" AND o.status = :status");
+        }
+        if (query.priority() != null) {
+            jpql.append(" AND o.priority = :priority");
+        }
+        if (query.from() != null) {
+            jpql.append(" AND o.createdAt >= :from");
+        }
+        if (query.to() != null) {
+            jpql.append(" AND o.createdAt < :to");
+        }
+        if (query.afterCreatedAt() != null) {
+            // İlk koşul gereksiz görünür ama index'te imlecin konumundan başlayan bir aralık taraması sağlar;
+            // OR tek başına index koşulu olamaz ve imleçten önceki her satır taranırdı
+            jpql.append(" AND o.createdAt <= :afterCreatedAt"
+                    + " AND (o.createdAt < :afterCreatedAt OR (o.createdAt = :afterCreatedAt AND o.id < :afterId))");
+        }
+        jpql.append(" ORDER BY o.createdAt DESC, o.id DESC");
+
+        TypedQuery<OrderSummary> typedQuery = entityManager.createQuery(jpql.toString(), OrderSummary.class)
+                .setParameter("businessId", query.businessId())
+                .setMaxResults(query.limit());
+        if (query.status() != null) {
+            typedQuery.setParameter("status", query.status());
+        }
+        if (query.priority() != null) {
+            typedQuery.setParameter("priority", query.priority());
+        }
+        if (query.from() != null) {
+            typedQuery.setParameter("from", query.from());
+        }
+        if (query.to() != null) {
+            typedQuery.setParameter("to", query.to());
+        }
+        if (query.afterCreatedAt() != null) {
+            typedQuery.setParameter("afterCreatedAt", query.afterCreatedAt());
+            typedQuery.setParameter("afterId", query.afterId());
+        }
+        return typedQuery.getResultList();
+    }
+}
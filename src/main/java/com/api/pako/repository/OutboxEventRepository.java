@@ -0,0 +1,50 @@
+package com.api.pako.repository;
+
+import com.api.pako.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventRepositoryCustom {
+
+    /**
+     * Takes the transaction-scoped relay lock; only the holder may publish, so batches go out
+     * one after another across every node and per-aggregate order survives.
+     *
+     * @return false if another relay holds the lock
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockRelay(@Param("key") long key);
+
+    /**
+     * Oldest unpublished events, locked for the current transaction.
+     */
+    @Query(value = """
+            SELECT * FROM outbox_events
+             WHERE published_at IS NULL
+             ORDER BY id
+             LIMIT :limit
+               FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> lockUnpublished(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") OffsetDateTime publishedAt);
+
+    long countByPublishedAtIsNull();
+
+    Optional<OutboxEvent> findFirstByPublishedAtIsNullOrderByIdAsc();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") OffsetDateTime before);
+}
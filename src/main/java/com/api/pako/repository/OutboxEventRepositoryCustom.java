@@ -0,0 +1,17 @@
+package com.api.pako.repository;
+
+import com.api.pako.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Custom outbox writes that Spring Data cannot derive
+ */
+public interface OutboxEventRepositoryCustom {
+
+    /**
+     * Insert events with one JDBC batch in the caller's transaction.
+     * Ids are IDENTITY, so saveAll would issue one statement per event.
+     */
+    void insertAll(List<OutboxEvent> events);
+}
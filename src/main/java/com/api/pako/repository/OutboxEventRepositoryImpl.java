@@ -0,0 +1,36 @@
+package com.api.pako.repository;
+
+import com.api.pako.model.OutboxEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link OutboxEventRepositoryCustom}
+ */
+class OutboxEventRepositoryImpl implements OutboxEventRepositoryCustom {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload)
+            VALUES (?, ?, ?, CAST(? AS jsonb))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    OutboxEventRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getAggregateType());
+            ps.setLong(2, event.getAggregateId());
+            ps.setString(3, event.getEventType());
+            ps.setString(4, event.getPayload());
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.api.pako.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Ids (jti) of access tokens revoked before they expire.
+ */
+@Repository
+public class RevokedAccessTokenRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RevokedAccessTokenRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(String jti, Instant expiresAt) {
+        jdbcTemplate.update("""
+                INSERT INTO revoked_access_tokens (jti, expires_at) VALUES (?, ?)
+                ON CONFLICT (jti) DO NOTHING
+                """, jti, Timestamp.from(expiresAt));
+    }
+
+    public boolean exists(String jti) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM revoked_access_tokens WHERE jti = ?)", Boolean.class, jti);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    public List<String> findUnexpired(Instant now) {
+        return jdbcTemplate.queryForList("SELECT jti FROM revoked_access_tokens WHERE expires_at > ?",
+                String.class, Timestamp.from(now));
+    }
+
+    public int deleteExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM revoked_access_tokens WHERE expires_at <= ?", Timestamp.from(now));
+    }
+}
@@ -0,0 +1,82 @@
+package com.api.pako.repository;
+
+import com.api.pako.model.UserCredential;
+import com.api.pako.model.enums.UserType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Login lookups over the {@code user_credentials} view (couriers and businesses).
+ */
+@Repository
+public class UserCredentialRepository {
+
+    // Aynı e-posta iki tabloda varsa eskisi gibi kurye önceliklidir
+    private static final String FIND_BY_EMAIL_SQL = """
+            SELECT user_type, id, email, name, password_hash, status, can_login
+            FROM user_credentials
+            WHERE email = ?
+            ORDER BY user_type = 'COURIER' DESC
+            LIMIT 1
+            """;
+
+    private static final String FIND_BY_USER_SQL = """
+            SELECT user_type, id, email, name, password_hash, status, can_login
+            FROM user_credentials
+            WHERE user_type = ? AND id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserCredentialRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<UserCredential> findByEmail(String email) {
+        return jdbcTemplate.query(FIND_BY_EMAIL_SQL, UserCredentialRepository::map, email).stream().findFirst();
+    }
+
+    public Optional<UserCredential> findByUser(UserType userType, Long id) {
+        return jdbcTemplate.query(FIND_BY_USER_SQL, UserCredentialRepository::map, userType.name(), id)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Replace the stored hash, e.g. after a successful login with an outdated encoding
+     */
+    public int updatePasswordHash(UserType userType, Long id, String passwordHash) {
+        return jdbcTemplate.update("UPDATE " + table(userType) + " SET password_hash = ? WHERE id = ?",
+                passwordHash, id);
+    }
+
+    public int recordBusinessLogin(Long businessId, LocalDateTime at) {
+        return jdbcTemplate.update("UPDATE businesses SET last_login_at = ? WHERE id = ?",
+                Timestamp.valueOf(at), businessId);
+    }
+
+    private static UserCredential map(ResultSet rs, int rowNum) throws SQLException {
+        return new UserCredential(
+                UserType.valueOf(rs.getString("user_type")),
+                rs.getLong("id"),
+                rs.getString("email"),
+                rs.getString("name"),
+                rs.getString("password_hash"),
+                rs.getString("status"),
+                rs.getBoolean("can_login"));
+    }
+
+    private static String table(UserType userType) {
+        return switch (userType) {
+            case COURIER -> "couriers";
+            case BUSINESS -> "businesses";
+            case ADMIN -> throw new IllegalArgumentException("Admins have no credential table");
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.api.pako.security;
+
+import com.api.pako.repository.RevokedAccessTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access tokens, checked by {@link JwtAuthenticationFilter} on every request.
+ * <p>
+ * Each node keeps a Bloom filter of the revoked, not yet expired token ids, rebuilt from
+ * {@code revoked_access_tokens} every {@code security.revocation.sync-interval-ms}. A miss
+ * (almost every request) needs no database access; only a hit is confirmed against the
+ * table, because a Bloom filter can report false positives. A token revoked on another
+ * node is therefore accepted here for at most one sync interval.
+ */
+@Slf4j
+@Component
+public class AccessTokenRevocations {
+
+    private final RevokedAccessTokenRepository repository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final Duration syncInterval;
+    private final Counter falsePositives;
+    // Bu node'da iptal edilen ama henüz bir yeniden oluşturmaya girmemiş olabilecek id'ler
+    private final Map<String, Instant> recentlyRevoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public AccessTokenRevocations(RevokedAccessTokenRepository repository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.revocation.expected-entries:100000}") int expectedEntries,
+                                  @Value("${security.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${security.revocation.sync-interval-ms:5000}") long syncIntervalMs) {
+        this.repository = repository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncInterval = Duration.ofMillis(syncIntervalMs);
+        this.falsePositives = Counter.builder("auth.revocation.false-positives")
+                .description("Bloom filter hits that were not revoked tokens")
+                .register(meterRegistry);
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        if (repository.exists(jti)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revoke the token until it expires; takes effect on this node at once, on the others after a sync
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        repository.insert(jti, expiresAt);
+        recentlyRevoked.put(jti, Instant.now());
+        filter.put(jti);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:5000}",
+               initialDelayString = "${security.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        Instant now = Instant.now();
+        BloomFilter rebuilt = new BloomFilter(expectedEntries, falsePositiveRate);
+        var revoked = repository.findUnexpired(now);
+        revoked.forEach(rebuilt::put);
+        // Okumadan sonra commit edilen yerel iptaller bir sonraki senkronda da kaybolmasın
+        recentlyRevoked.entrySet().removeIf(e -> e.getValue().isBefore(now.minus(syncInterval.multipliedBy(2))));
+        recentlyRevoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        log.debug("Revocation filter rebuilt with {} tokens", revoked.size());
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval-ms:3600000}")
+    public void purge() {
+        int deleted = repository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired access token revocations", deleted);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.api.pako.security;
+
+import com.api.pako.dto.ErrorResponse;
+import com.api.pako.service.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Makes retried POSTs safe for clients that send an {@code Idempotency-Key} header.
+ * <p>
+ * The first request with a key executes and its response is stored for the TTL; a retry
+ * with the same key and body gets the stored response back ({@code Idempotent-Replayed: true})
+ * without reaching the controller or the database. Duplicates arriving while the first one is
+ * still running wait for it instead of executing in parallel. Keys are scoped to the caller,
+ * so two users cannot collide on the same key.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Geçici hatalar saklanmaz, istemci aynı anahtarla tekrar deneyebilir
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(408, 409, 425, 429);
+
+    private final IdempotencyStore store;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+    private final List<String> paths;
+    private final Duration waitTimeout;
+    private final int maxBodyBytes;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             JsonMapper jsonMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${idempotency.paths:/api/v1/business/orders,/api/v1/business/orders/batch,"
+                                     + "/api/v1/courier/assignments/*/accept,/api/v1/courier/assignments/*/reject,"
+                                     + "/api/v1/courier/orders/*/pickup,/api/v1/courier/orders/*/start-delivery,"
+                                     + "/api/v1/courier/orders/*/complete}") List<String> paths,
+                             @Value("${idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+                             @Value("${idempotency.max-body-bytes:262144}") int maxBodyBytes) {
+        this.store = store;
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.paths = paths.stream().map(String::trim).filter(path -> !path.isEmpty()).toList();
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        BufferedRequest bufferedRequest = new BufferedRequest(request);
+        String key = scope(request) + ":" + request.getRequestURI() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(bufferedRequest);
+
+        IdempotencyStore.Claim claim = store.claim(key, fingerprint, waitTimeout);
+        switch (claim.status()) {
+            case REPLAY -> replay(response, claim.response());
+            case IN_PROGRESS -> {
+                count("in_progress");
+                response.setHeader("Retry-After", "1");
+                writeError(request, response, HttpStatus.CONFLICT,
+                        "A request with this " + HEADER + " is still being processed");
+            }
+            case MISMATCH -> {
+                count("mismatch");
+                writeError(request, response, HttpStatus.UNPROCESSABLE_CONTENT,
+                        HEADER + " was already used for a different request");
+            }
+            case OWNER -> execute(bufferedRequest, response, filterChain, key, fingerprint);
+        }
+    }
+
+    private void execute(BufferedRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String key, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            byte[] body = wrapper.getContentAsByteArray();
+            if (status < 500 && !TRANSIENT_STATUSES.contains(status) && body.length <= maxBodyBytes) {
+                store.complete(key, fingerprint, new IdempotencyStore.StoredResponse(status, wrapper.getContentType(), body));
+                stored = true;
+            }
+            count("executed");
+        } finally {
+            if (!stored) {
+                store.release(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        count("replayed");
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    /**
+     * The authenticated user (role + id, courier and business ids overlap), or the client address
+     */
+    private static String scope(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return "anonymous:" + request.getRemoteAddr();
+        }
+        String roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+        return roles + ":" + authentication.getPrincipal();
+    }
+
+    private static String fingerprint(BufferedRequest request) {
+        StringBuilder source = new StringBuilder();
+        if (request.isFormBody()) {
+            // Form gövdesi parametre olarak okunur, sırası önemsiz olsun
+            Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+            parameters.forEach((name, values) -> source.append(name).append('=')
+                    .append(String.join(",", values)).append('&'));
+        } else {
+            source.append(request.getQueryString()).append('\n')
+                    .append(new String(request.body, StandardCharsets.UTF_8));
+        }
+        return TokenHashes.sha256(source.toString());
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response,
+                            HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ErrorResponse error = new ErrorResponse(status.value(), status.getReasonPhrase(), message,
+                request.getRequestURI());
+        response.getWriter().write(jsonMapper.writeValueAsString(error));
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+
+    /**
+     * Reads the body once so it can be both fingerprinted and handed to the controller.
+     * Form posts are left to the container, which parses them into parameters.
+     */
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = isForm(request) ? new byte[0] : request.getInputStream().readAllBytes();
+        }
+
+        boolean isFormBody() {
+            return isForm((HttpServletRequest) getRequest());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            if (isFormBody()) {
+                throw new IllegalStateException("Form body is exposed through request parameters");
+            }
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return isFormBody() ? super.getContentLength() : body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return getContentLength();
+        }
+
+        private static boolean isForm(HttpServletRequest request) {
+            String contentType = request.getContentType();
+            if (contentType == null) {
+                return false;
+            }
+            String type = contentType.toLowerCase();
+            return type.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                    || type.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+        }
+    }
+}
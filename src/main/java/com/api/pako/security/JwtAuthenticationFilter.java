@@ -19,10 +19,14 @@ import java.util.List;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
     private final JwtTokenProvider jwtTokenProvider;
+    private final AccessTokenRevocations revocations;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, AccessTokenRevocations revocations) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.revocations = revocations;
     }
 
     @Override
@@ -32,27 +36,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String header = request.getHeader("Authorization");
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
-            try {
-                if (jwtTokenProvider.validateToken(token)) {
-                    Long userId = jwtTokenProvider.getUserIdFromToken(token);
-                    String role = jwtTokenProvider.getRoleFromToken(token);
-                    List<GrantedAuthority> authorities = role != null
-                            ? List.of(new SimpleGrantedAuthority("ROLE_" + role))
-                            : Collections.emptyList();
-
-                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                            userId,
-                            null,
-                            authorities
-                    );
-                    auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                }
-            } catch (Exception ex) {
-                // Token parse/validation failure → leave context empty; Security will return 401/403
-            }
+            // Single (cached) parse; an invalid or revoked token leaves the context empty → Security returns 401/403
+            jwtTokenProvider.resolve(token)
+                    .filter(claims -> !revocations.isRevoked(claims.tokenId()))
+                    .ifPresent(claims -> authenticate(request, claims));
         }
         filterChain.doFilter(request, response);
     }
-}
 
+    private static void authenticate(HttpServletRequest request, TokenClaims claims) {
+        String role = claims.role();
+        List<GrantedAuthority> authorities = role != null
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + role))
+                : Collections.emptyList();
+
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                claims.userId(),
+                null,
+                authorities
+        );
+        auth.setDetails(DETAILS_SOURCE.buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+}
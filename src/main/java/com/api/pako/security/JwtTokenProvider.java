@@ -1,24 +1,59 @@
 package com.api.pako.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and verifies access tokens.
+ * <p>
+ * The signing key and parser are built once. Verified claims are cached by SHA-256 of the
+ * token until the token expires, so the filter and the controllers that read the same
+ * token during one request (and the following requests of the same client) verify the
+ * signature only once. Invalid tokens are never cached.
+ * <p>
+ * Access tokens are short-lived and carry an id ({@code jti}) so they can be revoked;
+ * clients renew them with a refresh token instead of logging in again.
+ */
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${jwt.expiration.hours}")
-    private long jwtExpirationHours;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Duration accessTokenTtl;
+    private final Cache<String, TokenClaims> verified;
+
+    public JwtTokenProvider(@Value("${jwt.secret}") String jwtSecret,
+                            @Value("${jwt.expiration.minutes:15}") long accessTokenTtlMinutes,
+                            @Value("${jwt.cache.max-size:50000}") long cacheMaxSize) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.accessTokenTtl = Duration.ofMinutes(accessTokenTtlMinutes);
+        this.verified = cacheMaxSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(cacheMaxSize)
+                        .expireAfter(Expiry.creating((String hash, TokenClaims claims) ->
+                                Duration.between(Instant.now(), claims.expiresAt())))
+                        .build()
+                : null;
+    }
 
     public String generateToken(Long courierId, String email) {
         return generateToken(courierId, email, "COURIER");
@@ -31,55 +66,90 @@ public class JwtTokenProvider {
         claims.put("role", role);
 
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationHours * 60 * 60 * 1000);
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        Date expiryDate = new Date(now.getTime() + accessTokenTtl.toMillis());
 
         return Jwts.builder()
                 .claims().add(claims)
                 .and()
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(key)
+                .signWith(signingKey)
                 .compact();
     }
 
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
+    /**
+     * Verify the token and return its claims, or empty when it is invalid or expired
+     */
+    public Optional<TokenClaims> resolve(String token) {
+        try {
+            return Optional.of(parseToken(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Verify the token and return its claims
+     *
+     * @throws JwtException when the token is invalid or expired
+     */
+    public TokenClaims parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        if (verified == null) {
+            return verify(token);
+        }
+        String hash = TokenHashes.sha256(token);
+        TokenClaims claims = verified.getIfPresent(hash);
+        if (claims != null) {
+            // Cache girdisi süre dolumundan hemen önce okunmuş olabilir
+            if (claims.expiresAt().isAfter(Instant.now())) {
+                return claims;
+            }
+            verified.invalidate(hash);
+        }
+        claims = verify(token);
+        verified.put(hash, claims);
+        return claims;
+    }
+
     public Long getCourierIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return parseToken(token).userId();
     }
 
     public Long getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return parseToken(token).userId();
     }
 
     public String getRoleFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("role", String.class);
+        return parseToken(token).role();
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("email", String.class);
+        return parseToken(token).email();
     }
 
     public boolean validateToken(String token) {
-        try {
-            getAllClaimsFromToken(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return resolve(token).isPresent();
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        return Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private TokenClaims verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        return new TokenClaims(
+                claims.get("userId", Long.class),
+                claims.get("email", String.class),
+                claims.get("role", String.class),
+                claims.getId(),
+                claims.getExpiration().toInstant());
     }
 }
-
@@ -0,0 +1,88 @@
+package com.api.pako.security;
+
+import com.api.pako.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs password hash checks with bounded concurrency.
+ * <p>
+ * A hash check is pure CPU work, so running more of them than there are cores only makes
+ * every login slower. Callers wait at most {@code security.password.acquire-timeout-ms} for
+ * a slot and are then rejected with {@link LoginThrottledException} (503) instead of piling
+ * up behind each other during a login storm.
+ */
+@Component
+public class PasswordVerifier {
+
+    /**
+     * Outcome of a check; {@code upgradedHash} is set when the stored hash should be replaced
+     */
+    public record Result(boolean matches, String upgradedHash) {
+    }
+
+    private static final Result MISMATCH = new Result(false, null);
+
+    private final PasswordEncoder passwordEncoder;
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final Counter shed;
+    private final Timer checks;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            MeterRegistry meterRegistry,
+                            @Value("${security.password.max-concurrency:0}") int maxConcurrency,
+                            @Value("${security.password.acquire-timeout-ms:250}") long acquireTimeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.permits = new Semaphore(maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors());
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.shed = Counter.builder("auth.password.checks.shed")
+                .description("Password checks rejected because all slots were busy")
+                .register(meterRegistry);
+        this.checks = Timer.builder("auth.password.checks")
+                .description("Password hash checks, including rehashing")
+                .register(meterRegistry);
+    }
+
+    public Result verify(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return MISMATCH;
+        }
+        acquire();
+        try {
+            return checks.record(() -> check(rawPassword, encodedPassword));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Result check(String rawPassword, String encodedPassword) {
+        if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+            return MISMATCH;
+        }
+        // Eski formattaki veya düşük maliyetli hash'i, elimizde düz şifre varken yenile
+        String upgraded = passwordEncoder.upgradeEncoding(encodedPassword)
+                ? passwordEncoder.encode(rawPassword)
+                : null;
+        return new Result(true, upgraded);
+    }
+
+    private void acquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        shed.increment();
+        throw new LoginThrottledException("Too many login attempts in progress. Please retry shortly.");
+    }
+}
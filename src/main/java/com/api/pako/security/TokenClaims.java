@@ -0,0 +1,9 @@
+package com.api.pako.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a verified access token, read in one parse
+ */
+public record TokenClaims(Long userId, String email, String role, String tokenId, Instant expiresAt) {
+}
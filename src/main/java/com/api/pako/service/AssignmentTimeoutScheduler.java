@@ -0,0 +1,139 @@
+package com.api.pako.service;
+
+import com.api.pako.event.AssignmentClosedEvent;
+import com.api.pako.event.AssignmentCreatedEvent;
+import com.api.pako.model.OrderAssignment;
+import com.api.pako.model.enums.AssignmentStatus;
+import com.api.pako.repository.OrderAssignmentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires assignment timeouts at their exact due time instead of polling the table.
+ * <p>
+ * Every PENDING assignment gets a one-shot timer keyed by its id; the timer is armed
+ * after the creating transaction commits and cancelled when the courier accepts or
+ * rejects. The timer thread only hands off to a virtual thread, which runs
+ * {@link OrderAssignmentService#expireAssignment(Long)} in its own transaction.
+ * Orders created together time out together (a bulk create arms up to 500 timers for
+ * nearly the same instant), so at most {@code order.assignment.timeout.max-concurrency}
+ * expirations run at once; the rest wait for a permit without holding a connection.
+ * Timers are rebuilt from the database on startup; the low-frequency
+ * {@link AssignmentTimeoutSweeper} covers anything lost in between.
+ */
+@Slf4j
+@Component
+public class AssignmentTimeoutScheduler {
+
+    /**
+     * Fire slightly after timeoutAt so the conditional update sees the row as due
+     */
+    private static final long FIRE_SLACK_MS = 100;
+
+    private final OrderAssignmentService orderAssignmentService;
+    private final OrderAssignmentRepository orderAssignmentRepository;
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final Map<Long, ScheduledFuture<?>> timers = new ConcurrentHashMap<>();
+
+    public AssignmentTimeoutScheduler(OrderAssignmentService orderAssignmentService,
+                                      OrderAssignmentRepository orderAssignmentRepository,
+                                      @Value("${order.assignment.timeout.max-concurrency:4}") int maxConcurrency) {
+        this.orderAssignmentService = orderAssignmentService;
+        this.orderAssignmentRepository = orderAssignmentRepository;
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "assignment-timeout");
+            t.setDaemon(true);
+            return t;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAssignmentCreated(AssignmentCreatedEvent event) {
+        schedule(event.assignmentId(), event.timeoutAt());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAssignmentClosed(AssignmentClosedEvent event) {
+        cancel(event.assignmentId());
+    }
+
+    /**
+     * Açılışta bekleyen atamalar için zamanlayıcıları yeniden kur
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildTimers() {
+        List<OrderAssignment> pending = orderAssignmentRepository.findByStatus(AssignmentStatus.PENDING);
+        pending.forEach(a -> schedule(a.getId(), a.getTimeoutAt()));
+        log.info("Armed {} assignment timeout timers", pending.size());
+    }
+
+    public void schedule(Long assignmentId, OffsetDateTime timeoutAt) {
+        long delayMs = Math.max(0,
+                Duration.between(OffsetDateTime.now(ZoneOffset.UTC), timeoutAt).toMillis()) + FIRE_SLACK_MS;
+
+        ScheduledFuture<?> future = timer.schedule(() -> fire(assignmentId), delayMs, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = timers.put(assignmentId, future);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    public void cancel(Long assignmentId) {
+        ScheduledFuture<?> future = timers.remove(assignmentId);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Number of armed timers
+     */
+    public int pendingCount() {
+        return timers.size();
+    }
+
+    private void fire(Long assignmentId) {
+        timers.remove(assignmentId);
+        workers.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                orderAssignmentService.expireAssignment(assignmentId);
+            } catch (Exception e) {
+                // Sweep bir sonraki turda tekrar dener
+                log.error("Error handling timeout for assignment {}: {}", assignmentId, e.getMessage());
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,154 @@
+package com.api.pako.service;
+
+import com.api.pako.repository.OrderAssignmentRepository.TimedOutAssignment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Safety-net sweep for assignment timeouts missed by {@link AssignmentTimeoutScheduler}.
+ * <p>
+ * Overdue assignments are closed in chunks of {@code order.assignment.timeout.sweep.batch-size}
+ * by a single UPDATE each ({@link OrderAssignmentService#expireOverdueAssignments(int)}).
+ * Their orders are then reassigned in parallel on virtual threads (bounded by
+ * {@code order.assignment.timeout.sweep.max-concurrency}), each in its own short transaction
+ * that locks the order first.
+ * <p>
+ * The close commits before the reassignments run, so an order whose reassignment failed, found
+ * no courier, or never ran (the node stopped in between) is left without a pending assignment.
+ * Every run therefore also retries up to one batch of such orders, least recently tried first,
+ * so all of them get another attempt even while more than a batch is waiting. The same pass
+ * picks up orders that never got an assignment (dispatch queue lost with its node, or no courier
+ * at creation) once they are {@code order.assignment.retry.unassigned-after-seconds} old.
+ */
+@Slf4j
+@Component
+public class AssignmentTimeoutSweeper {
+
+    private final OrderAssignmentService orderAssignmentService;
+    private final int maxConcurrency;
+    private final int batchSize;
+
+    private final Counter processedCounter;
+    private final Counter reassignedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public AssignmentTimeoutSweeper(OrderAssignmentService orderAssignmentService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${order.assignment.timeout.sweep.max-concurrency:8}") int maxConcurrency,
+                                    @Value("${order.assignment.timeout.sweep.batch-size:500}") int batchSize) {
+        this.orderAssignmentService = orderAssignmentService;
+        this.maxConcurrency = maxConcurrency;
+        this.batchSize = Math.max(1, batchSize);
+        this.processedCounter = meterRegistry.counter("assignment.timeout.sweep.assignments", "outcome", "processed");
+        this.reassignedCounter = meterRegistry.counter("assignment.timeout.sweep.assignments", "outcome", "reassigned");
+        this.retriedCounter = meterRegistry.counter("assignment.timeout.sweep.assignments", "outcome", "retried");
+        this.failedCounter = meterRegistry.counter("assignment.timeout.sweep.assignments", "outcome", "failed");
+        this.batchTimer = meterRegistry.timer("assignment.timeout.sweep.batch");
+    }
+
+    /**
+     * Result of one sweep batch
+     */
+    public record BatchResult(int processed, int reassigned, int failed) {
+    }
+
+    @Scheduled(fixedDelayString = "${order.assignment.timeout.sweep-interval-ms:300000}")
+    public void checkTimeouts() {
+        // Tam dolu bir parti geldiyse geride kalan olabilir
+        while (sweep().processed() == batchSize) {
+            log.debug("Timeout sweep batch was full, sweeping again");
+        }
+        retryAwaitingOrders();
+    }
+
+    public BatchResult sweep() {
+        long start = System.nanoTime();
+        List<TimedOutAssignment> expired = orderAssignmentService.expireOverdueAssignments(batchSize);
+        if (expired.isEmpty()) {
+            return new BatchResult(0, 0, 0);
+        }
+        processedCounter.increment(expired.size());
+
+        Set<Long> orderIds = expired.stream()
+                .map(TimedOutAssignment::getOrderId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        BatchResult result = reassignAll(expired.size(), orderIds);
+
+        long elapsedNanos = System.nanoTime() - start;
+        batchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("Timeout sweep handled {} orders in {} ms: processed={}, reassigned={}, failed={}",
+                orderIds.size(), elapsedNanos / 1_000_000,
+                result.processed(), result.reassigned(), result.failed());
+        return result;
+    }
+
+    /**
+     * Give orders that timed out earlier and still have no pending assignment another attempt
+     */
+    public BatchResult retryAwaitingOrders() {
+        List<Long> orderIds = orderAssignmentService.claimOrdersAwaitingAssignment(batchSize);
+        if (orderIds.isEmpty()) {
+            return new BatchResult(0, 0, 0);
+        }
+        retriedCounter.increment(orderIds.size());
+
+        BatchResult result = reassignAll(orderIds.size(), orderIds);
+        if (result.reassigned() > 0 || result.failed() > 0) {
+            log.info("Retried {} orders awaiting reassignment: reassigned={}, failed={}",
+                    orderIds.size(), result.reassigned(), result.failed());
+        }
+        return result;
+    }
+
+    private BatchResult reassignAll(int processed, Collection<Long> orderIds) {
+        AtomicInteger reassigned = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore permits = new Semaphore(maxConcurrency);
+
+        // close() tüm görevlerin bitmesini bekler
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long orderId : orderIds) {
+                executor.execute(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        reassign(orderId, reassigned, failed);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        return new BatchResult(processed, reassigned.get(), failed.get());
+    }
+
+    private void reassign(Long orderId, AtomicInteger reassigned, AtomicInteger failed) {
+        try {
+            if (orderAssignmentService.reassignAwaitingOrder(orderId) == OrderAssignmentService.TimeoutOutcome.REASSIGNED) {
+                reassigned.incrementAndGet();
+                reassignedCounter.increment();
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            failedCounter.increment();
+            log.error("Error reassigning order {} after timeout: {}", orderId, e.getMessage());
+        }
+    }
+}
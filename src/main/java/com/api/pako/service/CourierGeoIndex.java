@@ -0,0 +1,340 @@
+package com.api.pako.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of on-duty courier positions for sub-millisecond proximity lookups.
+ * <p>
+ * The plane is cut into square cells of {@code dispatch.geo.cell-size-deg} degrees; cells are
+ * hashed into a fixed power-of-two array of buckets, so the index is unbounded geographically
+ * and never resizes. A bucket may hold couriers of several colliding cells; every entry keeps
+ * its own cell so scans only pick up the cell they asked for. Each bucket is guarded by its
+ * own monitor, so readers and writers of different buckets never contend. A courier moving
+ * between buckets may be briefly invisible to a concurrent query.
+ * <p>
+ * Queries write results into caller-supplied buffers and allocate nothing. Distances are in
+ * meters using an equirectangular approximation around the query point, which is accurate
+ * to well under 1% at city scale.
+ */
+@Component
+public class CourierGeoIndex {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final int ANY_CELL = Integer.MIN_VALUE;
+
+    private final double cellSizeDeg;
+    private final Bucket[] buckets;
+    private final int bucketMask;
+
+    /** courierId -> bucket index; only touched by writers */
+    private final Map<Long, Integer> bucketByCourier = new ConcurrentHashMap<>();
+    /** Serialises writes of the same courier without blocking readers */
+    private final Object[] writeLocks = newLocks(64);
+
+    public CourierGeoIndex(@Value("${dispatch.geo.cell-size-deg:0.01}") double cellSizeDeg,
+                           @Value("${dispatch.geo.buckets:4096}") int bucketCount) {
+        if (cellSizeDeg <= 0) {
+            throw new IllegalArgumentException("cellSizeDeg must be positive");
+        }
+        this.cellSizeDeg = cellSizeDeg;
+        int size = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.buckets = new Bucket[size];
+        this.bucketMask = size - 1;
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * Insert a courier or move it to a new position
+     */
+    public void update(long courierId, double latitude, double longitude) {
+        int x = cellX(longitude);
+        int y = cellY(latitude);
+        int target = bucketIndex(x, y);
+        // Aynı kurye için yazmalar sıralı olsun
+        synchronized (lockFor(courierId)) {
+            Integer current = bucketByCourier.get(courierId);
+            if (current != null && current != target) {
+                Bucket from = buckets[current];
+                synchronized (from) {
+                    from.remove(courierId);
+                }
+            }
+            Bucket to = buckets[target];
+            synchronized (to) {
+                to.put(courierId, latitude, longitude, x, y);
+            }
+            bucketByCourier.put(courierId, target);
+        }
+    }
+
+    public boolean remove(long courierId) {
+        synchronized (lockFor(courierId)) {
+            Integer current = bucketByCourier.remove(courierId);
+            if (current == null) {
+                return false;
+            }
+            Bucket bucket = buckets[current];
+            synchronized (bucket) {
+                bucket.remove(courierId);
+            }
+            return true;
+        }
+    }
+
+    public boolean contains(long courierId) {
+        return bucketByCourier.containsKey(courierId);
+    }
+
+    public int size() {
+        return bucketByCourier.size();
+    }
+
+    public void clear() {
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                bucket.size = 0;
+            }
+        }
+        bucketByCourier.clear();
+    }
+
+    /**
+     * Find the k couriers nearest to the given point, closest first.
+     * k is the length of {@code outIds}; {@code outDistances} must be at least as long.
+     *
+     * @param excludedCourierId Courier to skip, or -1
+     * @param maxDistanceMeters Ignore couriers farther than this
+     * @return Number of results written
+     */
+    public int nearest(double latitude, double longitude, long excludedCourierId, double maxDistanceMeters,
+                       long[] outIds, double[] outDistances) {
+        int k = outIds.length;
+        if (k == 0) {
+            return 0;
+        }
+        double lonScale = Math.cos(Math.toRadians(latitude));
+        double cellMeters = cellSizeDeg * METERS_PER_DEGREE * lonScale;
+        int cx = cellX(longitude);
+        int cy = cellY(latitude);
+        int found = 0;
+
+        for (int ring = 0; ; ring++) {
+            if ((2L * ring + 1) * (2L * ring + 1) >= buckets.length) {
+                // Halka tüm bucket'ları kapsıyor: geri kalanı tek seferde tara
+                found = 0;
+                for (Bucket bucket : buckets) {
+                    found = scanNearest(bucket, ANY_CELL, ANY_CELL, latitude, longitude, lonScale, excludedCourierId,
+                            maxDistanceMeters, outIds, outDistances, found);
+                }
+                return found;
+            }
+            found = scanRing(cx, cy, ring, latitude, longitude, lonScale, excludedCourierId,
+                    maxDistanceMeters, outIds, outDistances, found);
+
+            // Halka dışındaki her nokta en az ring * cellMeters uzakta
+            double outsideBound = ring * cellMeters;
+            if (outsideBound > maxDistanceMeters || (found == k && outDistances[k - 1] <= outsideBound)) {
+                return found;
+            }
+        }
+    }
+
+    /**
+     * Find couriers within the given radius, in no particular order.
+     * Stops once {@code outIds} is full.
+     *
+     * @return Number of results written
+     */
+    public int withinRadius(double latitude, double longitude, double radiusMeters,
+                            long[] outIds, double[] outDistances) {
+        double lonScale = Math.cos(Math.toRadians(latitude));
+        double cellMeters = cellSizeDeg * METERS_PER_DEGREE * lonScale;
+        int rings = (int) Math.ceil(radiusMeters / cellMeters);
+        int cx = cellX(longitude);
+        int cy = cellY(latitude);
+        int found = 0;
+
+        if ((2L * rings + 1) * (2L * rings + 1) >= buckets.length) {
+            for (Bucket bucket : buckets) {
+                found = scanRadius(bucket, ANY_CELL, ANY_CELL, latitude, longitude, lonScale, radiusMeters,
+                        outIds, outDistances, found);
+            }
+            return found;
+        }
+        for (int y = cy - rings; y <= cy + rings && found < outIds.length; y++) {
+            for (int x = cx - rings; x <= cx + rings && found < outIds.length; x++) {
+                found = scanRadius(buckets[bucketIndex(x, y)], x, y, latitude, longitude, lonScale, radiusMeters,
+                        outIds, outDistances, found);
+            }
+        }
+        return found;
+    }
+
+    private int scanRing(int cx, int cy, int ring, double latitude, double longitude, double lonScale,
+                         long excludedCourierId, double maxDistanceMeters,
+                         long[] outIds, double[] outDistances, int found) {
+        if (ring == 0) {
+            return scanCell(cx, cy, latitude, longitude, lonScale,
+                    excludedCourierId, maxDistanceMeters, outIds, outDistances, found);
+        }
+        for (int d = -ring; d <= ring; d++) {
+            found = scanCell(cx + d, cy - ring, latitude, longitude, lonScale,
+                    excludedCourierId, maxDistanceMeters, outIds, outDistances, found);
+            found = scanCell(cx + d, cy + ring, latitude, longitude, lonScale,
+                    excludedCourierId, maxDistanceMeters, outIds, outDistances, found);
+        }
+        for (int d = -ring + 1; d <= ring - 1; d++) {
+            found = scanCell(cx - ring, cy + d, latitude, longitude, lonScale,
+                    excludedCourierId, maxDistanceMeters, outIds, outDistances, found);
+            found = scanCell(cx + ring, cy + d, latitude, longitude, lonScale,
+                    excludedCourierId, maxDistanceMeters, outIds, outDistances, found);
+        }
+        return found;
+    }
+
+    private int scanCell(int x, int y, double latitude, double longitude, double lonScale,
+                         long excludedCourierId, double maxDistanceMeters,
+                         long[] outIds, double[] outDistances, int found) {
+        return scanNearest(buckets[bucketIndex(x, y)], x, y, latitude, longitude, lonScale, excludedCourierId,
+                maxDistanceMeters, outIds, outDistances, found);
+    }
+
+    /**
+     * Scan the entries of one cell (or the whole bucket with {@link #ANY_CELL}) into the
+     * sorted k-nearest buffers. Filtering by cell means a bucket shared by colliding cells
+     * never yields the same courier twice.
+     */
+    private int scanNearest(Bucket bucket, int x, int y, double latitude, double longitude, double lonScale,
+                            long excludedCourierId, double maxDistanceMeters,
+                            long[] outIds, double[] outDistances, int found) {
+        int k = outIds.length;
+        synchronized (bucket) {
+            for (int i = 0; i < bucket.size; i++) {
+                long id = bucket.ids[i];
+                if (id == excludedCourierId || !bucket.inCell(i, x, y)) {
+                    continue;
+                }
+                double distance = distance(latitude, longitude, lonScale, bucket.lats[i], bucket.lons[i]);
+                if (distance > maxDistanceMeters || (found == k && distance >= outDistances[k - 1])) {
+                    continue;
+                }
+                // Sıralı ekleme; k küçük olduğundan heap'ten hızlı
+                int pos = found < k ? found++ : k - 1;
+                while (pos > 0 && outDistances[pos - 1] > distance) {
+                    outIds[pos] = outIds[pos - 1];
+                    outDistances[pos] = outDistances[pos - 1];
+                    pos--;
+                }
+                outIds[pos] = id;
+                outDistances[pos] = distance;
+            }
+        }
+        return found;
+    }
+
+    private int scanRadius(Bucket bucket, int x, int y, double latitude, double longitude, double lonScale, double radiusMeters,
+                           long[] outIds, double[] outDistances, int found) {
+        synchronized (bucket) {
+            for (int i = 0; i < bucket.size && found < outIds.length; i++) {
+                if (!bucket.inCell(i, x, y)) {
+                    continue;
+                }
+                double distance = distance(latitude, longitude, lonScale, bucket.lats[i], bucket.lons[i]);
+                if (distance <= radiusMeters) {
+                    outIds[found] = bucket.ids[i];
+                    outDistances[found] = distance;
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static double distance(double lat1, double lon1, double lonScale, double lat2, double lon2) {
+        double dx = (lon2 - lon1) * lonScale;
+        double dy = lat2 - lat1;
+        return Math.sqrt(dx * dx + dy * dy) * METERS_PER_DEGREE;
+    }
+
+    private int cellX(double longitude) {
+        return (int) Math.floor(longitude / cellSizeDeg);
+    }
+
+    private int cellY(double latitude) {
+        return (int) Math.floor(latitude / cellSizeDeg);
+    }
+
+    private int bucketIndex(int x, int y) {
+        int h = x * 0x9E3779B1 ^ y * 0x85EBCA77;
+        return (h ^ (h >>> 16)) & bucketMask;
+    }
+
+    private Object lockFor(long courierId) {
+        return writeLocks[(int) (courierId ^ (courierId >>> 32)) & (writeLocks.length - 1)];
+    }
+
+    private static Object[] newLocks(int count) {
+        Object[] locks = new Object[count];
+        Arrays.setAll(locks, i -> new Object());
+        return locks;
+    }
+
+    /**
+     * Couriers of one bucket in parallel arrays; grows by doubling, never shrinks
+     */
+    private static final class Bucket {
+        long[] ids = new long[4];
+        double[] lats = new double[4];
+        double[] lons = new double[4];
+        int[] cellXs = new int[4];
+        int[] cellYs = new int[4];
+        int size;
+
+        boolean inCell(int i, int x, int y) {
+            return x == ANY_CELL || (cellXs[i] == x && cellYs[i] == y);
+        }
+
+        void put(long id, double lat, double lon, int x, int y) {
+            int i = 0;
+            while (i < size && ids[i] != id) {
+                i++;
+            }
+            if (i == size) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    lats = Arrays.copyOf(lats, size * 2);
+                    lons = Arrays.copyOf(lons, size * 2);
+                    cellXs = Arrays.copyOf(cellXs, size * 2);
+                    cellYs = Arrays.copyOf(cellYs, size * 2);
+                }
+                ids[i] = id;
+                size++;
+            }
+            lats[i] = lat;
+            lons[i] = lon;
+            cellXs[i] = x;
+            cellYs[i] = y;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    lats[i] = lats[size];
+                    lons[i] = lons[size];
+                    cellXs[i] = cellXs[size];
+                    cellYs[i] = cellYs[size];
+                    return;
+                }
+            }
+        }
+    }
+}
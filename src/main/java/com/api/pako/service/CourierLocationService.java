@@ -0,0 +1,162 @@
+package com.api.pako.service;
+
+import com.api.pako.dto.LocationPingRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kurye konum ping'lerini alır.
+ * <p>
+ * Son konum bellekte tutulur ve vardiyadaki kuryeler için {@link CourierGeoIndex} anında
+ * güncellenir. Veritabanına her ping yazılmaz: iki flush arasında gelen ping'ler kurye
+ * başına tek satıra indirgenir ve {@code courier.location.flush-interval-ms} aralıklarla
+ * JDBC batch ile couriers tablosuna yazılır. Vardiyada olmayan kuryelerin konumu yazıldıktan
+ * sonra bellekten atılır.
+ */
+@Slf4j
+@Service
+public class CourierLocationService {
+
+    /**
+     * Last reported position of a courier
+     */
+    public record Position(double latitude, double longitude, OffsetDateTime recordedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OnDutyCourierSet onDutyCouriers;
+    private final CourierGeoIndex geoIndex;
+    private final int batchSize;
+    private final Counter pingCounter;
+    private final Counter staleCounter;
+
+    private final Map<Long, Position> latest = new ConcurrentHashMap<>();
+    /** Son konumu henüz veritabanına yazılmamış kuryeler; yazılan değer her zaman {@link #latest}'ten okunur */
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public CourierLocationService(JdbcTemplate jdbcTemplate,
+                                  OnDutyCourierSet onDutyCouriers,
+                                  CourierGeoIndex geoIndex,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${courier.location.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.onDutyCouriers = onDutyCouriers;
+        this.geoIndex = geoIndex;
+        this.batchSize = batchSize;
+        this.pingCounter = meterRegistry.counter("courier.location.pings");
+        this.staleCounter = meterRegistry.counter("courier.location.pings.stale");
+    }
+
+    /**
+     * Tek bir ping'i kaydet. Son bilinen konumdan eski ping'ler yok sayılır.
+     * Gelecek tarihli ping'ler sunucu zamanına çekilir; aksi halde sonraki gerçek ping'lerin
+     * hepsi eski sayılırdı.
+     */
+    public void record(Long courierId, LocationPingRequest ping) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime recordedAt = ping.getRecordedAt() != null && ping.getRecordedAt().isBefore(now)
+                ? ping.getRecordedAt()
+                : now;
+        Position candidate = new Position(ping.getLatitude(), ping.getLongitude(), recordedAt);
+
+        Position current = latest.merge(courierId, candidate,
+                (old, incoming) -> incoming.recordedAt().isBefore(old.recordedAt()) ? old : incoming);
+        pingCounter.increment();
+        if (current != candidate) {
+            staleCounter.increment();
+            return;
+        }
+
+        dirty.add(courierId);
+        if (onDutyCouriers.contains(courierId)) {
+            geoIndex.update(courierId, candidate.latitude(), candidate.longitude());
+        }
+    }
+
+    public void recordAll(Long courierId, List<LocationPingRequest> pings) {
+        for (LocationPingRequest ping : pings) {
+            record(courierId, ping);
+        }
+    }
+
+    public Optional<Position> getLatest(Long courierId) {
+        return Optional.ofNullable(latest.get(courierId));
+    }
+
+    /**
+     * Vardiyadan çıkan kuryenin konumunu bellekten at. Henüz yazılmamışsa bir sonraki
+     * flush yazar ve sonra atar.
+     */
+    public void forget(Long courierId) {
+        Position position = latest.get(courierId);
+        if (position != null && !dirty.contains(courierId)) {
+            latest.remove(courierId, position);
+        }
+    }
+
+    /**
+     * Biriken konumları couriers tablosuna yaz
+     *
+     * @return Number of couriers written
+     */
+    @Scheduled(fixedDelayString = "${courier.location.flush-interval-ms:3000}")
+    public int flush() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        // Önce işaret kaldırılır, sonra konum okunur: arada gelen ping yeniden işaretlenir
+        // ve bir sonraki turda yazılır, daha eski bir konum asla yazılmaz
+        List<Map.Entry<Long, Position>> pending = new ArrayList<>(dirty.size());
+        for (Long courierId : dirty) {
+            dirty.remove(courierId);
+            Position position = latest.get(courierId);
+            if (position != null) {
+                pending.add(Map.entry(courierId, position));
+            }
+        }
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(
+                "UPDATE couriers SET current_latitude = ?, current_longitude = ? WHERE id = ?",
+                pending, batchSize, (ps, entry) -> {
+                    ps.setDouble(1, entry.getValue().latitude());
+                    ps.setDouble(2, entry.getValue().longitude());
+                    ps.setLong(3, entry.getKey());
+                });
+
+        // Vardiyada olmayan kuryelerin yazılmış konumu tutulmaz; yeni ping geldiyse (değer değiştiyse) kalır
+        for (Map.Entry<Long, Position> entry : pending) {
+            if (!onDutyCouriers.contains(entry.getKey())) {
+                latest.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        log.debug("Flushed {} courier positions", pending.size());
+        return pending.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Could not flush courier positions on shutdown: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.api.pako.service;
+
+import com.api.pako.business.dto.OrderResponse;
+import com.api.pako.dto.OrderStatusResponse;
+import com.api.pako.event.OrderStatusChangedEvent;
+import com.api.pako.exception.InvalidOrderOperationException;
+import com.api.pako.exception.OrderNotFoundException;
+import com.api.pako.exception.UnauthorizedAccessException;
+import com.api.pako.model.enums.OrderStatus;
+import com.api.pako.repository.OrderRepository;
+import com.api.pako.repository.OrderRepositoryCustom.StatusSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Kuryenin sipariş üzerindeki durum geçişleri (pickup → start-delivery → complete).
+ * <p>
+ * Her geçiş tek bir koşullu UPDATE'tir (id, kurye ve beklenen durum WHERE'de); başarılı
+ * yolda sipariş okunmaz. Hiç satır güncellenmezse nedeni ayrıca okunur. Sipariş zaten
+ * hedef durumdaysa istek tekrar (ağ hatası sonrası retry) kabul edilir ve aynı sonuç döner,
+ * olay ikinci kez yayınlanmaz.
+ */
+@Service
+@Slf4j
+public class CourierOrderService {
+
+    private enum Transition {
+        PICKUP(OrderStatus.ASSIGNED, OrderStatus.PICKED_UP, "Bu sipariş pickup yapılamaz"),
+        START_DELIVERY(OrderStatus.PICKED_UP, OrderStatus.IN_TRANSIT, "Teslimat başlatılamaz"),
+        COMPLETE(OrderStatus.IN_TRANSIT, OrderStatus.DELIVERED, "Teslimat tamamlanamaz");
+
+        final OrderStatus from;
+        final OrderStatus to;
+        final String rejection;
+
+        Transition(OrderStatus from, OrderStatus to, String rejection) {
+            this.from = from;
+            this.to = to;
+            this.rejection = rejection;
+        }
+    }
+
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CourierOrderService(OrderRepository orderRepository, ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Order details for the assigned courier, read as a DTO in one statement
+     */
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(Long courierId, Long orderId) {
+        OrderResponse order = orderRepository.findResponseById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        if (!courierId.equals(order.getCourierId())) {
+            throw new UnauthorizedAccessException("Bu sipariş size atanmamış");
+        }
+        return order;
+    }
+
+    @Transactional
+    public OrderStatusResponse pickup(Long courierId, Long orderId, String notes) {
+        return transition(Transition.PICKUP, courierId, orderId, blankToNull(notes), null);
+    }
+
+    @Transactional
+    public OrderStatusResponse startDelivery(Long courierId, Long orderId) {
+        return transition(Transition.START_DELIVERY, courierId, orderId, null, null);
+    }
+
+    @Transactional
+    public OrderStatusResponse complete(Long courierId, Long orderId, String notes, BigDecimal collectionAmount) {
+        return transition(Transition.COMPLETE, courierId, orderId, blankToNull(notes), collectionAmount);
+    }
+
+    private OrderStatusResponse transition(Transition transition, Long courierId, Long orderId,
+                                           String notes, BigDecimal collectionAmount) {
+        Optional<StatusSnapshot> updated = orderRepository.transitionStatus(
+                orderId, courierId, transition.from, transition.to, notes, collectionAmount);
+        if (updated.isPresent()) {
+            StatusSnapshot order = updated.get();
+            // Outbox kaydı aynı transaction içinde yazılır
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, order.businessId(), courierId,
+                    transition.from, transition.to));
+            log.info("{} successful - Order {} now {} by courier {}", transition, orderId, transition.to, courierId);
+            return new OrderStatusResponse(orderId, order.status(), order.updatedAt());
+        }
+
+        // Güncellenmedi: nedenini bul
+        StatusSnapshot current = orderRepository.findStatusSnapshot(orderId)
+                .orElseThrow(() -> {
+                    log.error("{} failed - Order {} not found", transition, orderId);
+                    return new OrderNotFoundException(orderId);
+                });
+        if (current.courierId() == null) {
+            log.error("{} failed - Order {} has no courier assigned, status: {}", transition, orderId, current.status());
+            throw new UnauthorizedAccessException(
+                    "Bu sipariş henüz bir kuryeye atanmamış. Lütfen önce siparişi kabul edin.");
+        }
+        if (!current.courierId().equals(courierId)) {
+            log.error("{} failed - Order {} belongs to courier {} but requested by courier {}",
+                    transition, orderId, current.courierId(), courierId);
+            throw new UnauthorizedAccessException("Bu sipariş size ait değil");
+        }
+        if (current.status() == transition.to) {
+            log.info("{} repeated - Order {} already {}", transition, orderId, transition.to);
+            return new OrderStatusResponse(orderId, current.status(), current.updatedAt());
+        }
+        log.error("{} failed - Order {} invalid status: {}. Expected: {}",
+                transition, orderId, current.status(), transition.from);
+        throw new InvalidOrderOperationException(String.format("%s. Mevcut durum: %s, Beklenen: %s",
+                transition.rejection, current.status(), transition.from));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,49 @@
+package com.api.pako.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process set of the ids of on-duty couriers.
+ * <p>
+ * Only membership is kept here; dispatch order lives in the on_duty_couriers table, where
+ * couriers are claimed and moved to the tail ({@code FOR UPDATE SKIP LOCKED}).
+ * {@link OnDutyService} keeps the set in sync (on/off duty, periodic resync from the table) and
+ * {@link CourierLocationService} uses it to tell on-duty couriers apart on every ping
+ * without a database round trip.
+ */
+@Component
+public class OnDutyCourierSet {
+
+    private final Set<Long> courierIds = ConcurrentHashMap.newKeySet();
+
+    public void add(Long courierId) {
+        courierIds.add(courierId);
+    }
+
+    public boolean remove(Long courierId) {
+        return courierIds.remove(courierId);
+    }
+
+    public boolean contains(Long courierId) {
+        return courierIds.contains(courierId);
+    }
+
+    public int size() {
+        return courierIds.size();
+    }
+
+    /**
+     * Replace the contents, e.g. when rebuilding from the database. Couriers present before
+     * and after stay members throughout.
+     */
+    public void reset(Collection<Long> onDutyCourierIds) {
+        Set<Long> current = new HashSet<>(onDutyCourierIds);
+        courierIds.retainAll(current);
+        courierIds.addAll(current);
+    }
+}
@@ -2,20 +2,38 @@ package com.api.pako.service;
 
 import com.api.pako.model.OnDutyCourier;
 import com.api.pako.repository.OnDutyCourierRepository;
+import com.api.pako.repository.OnDutyCourierRepository.ClaimedCourier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
 
+@Slf4j
 @Service
 public class OnDutyService {
 
     private final OnDutyCourierRepository onDutyCourierRepository;
-
-    public OnDutyService(OnDutyCourierRepository onDutyCourierRepository) {
+    private final OnDutyCourierSet onDutyCouriers;
+    private final CourierGeoIndex geoIndex;
+    private final CourierLocationService courierLocationService;
+
+    public OnDutyService(OnDutyCourierRepository onDutyCourierRepository,
+                         OnDutyCourierSet onDutyCouriers,
+                         CourierGeoIndex geoIndex,
+                         CourierLocationService courierLocationService) {
         this.onDutyCourierRepository = onDutyCourierRepository;
+        this.onDutyCouriers = onDutyCouriers;
+        this.geoIndex = geoIndex;
+        this.courierLocationService = courierLocationService;
     }
 
     public List<OnDutyCourier> getAllActiveOrdered() {
@@ -43,22 +61,58 @@ public class OnDutyService {
         entry.setOnDutySince(now);
         entry.setUpdatedAt(now);
 
-        return onDutyCourierRepository.save(entry);
+        OnDutyCourier saved = onDutyCourierRepository.save(entry);
+        // Bellekteki son ping veritabanındakinden daha güncel olabilir
+        Optional<CourierLocationService.Position> latest = courierLocationService.getLatest(courierId);
+        Optional<OnDutyCourierRepository.CourierPosition> stored = latest.isPresent()
+                ? Optional.empty()
+                : onDutyCourierRepository.findCourierPosition(courierId);
+        afterCommit(() -> {
+            onDutyCouriers.add(courierId);
+            latest.ifPresent(p -> geoIndex.update(courierId, p.latitude(), p.longitude()));
+            stored.ifPresent(p -> geoIndex.update(courierId, p.getLatitude(), p.getLongitude()));
+        });
+        return saved;
     }
 
     @Transactional
     public void removeOnDuty(Long courierId) {
         onDutyCourierRepository.deleteByCourierId(courierId);
+        afterCommit(() -> {
+            onDutyCouriers.remove(courierId);
+            geoIndex.remove(courierId);
+            courierLocationService.forget(courierId);
+        });
     }
 
     /**
-     * FIFO kuyruğundan bir sonraki kuryeyi al (order assignment için)
+     * Sıradaki kuryeyi atomik olarak sahiplen ve kuyruğun sonuna taşı.
+     * Eşzamanlı atamalar SKIP LOCKED sayesinde farklı kuryeler alır; satır kilidi
+     * çağıran transaction bitene kadar tutulur.
+     *
+     * @param excludedCourierId Atlanacak kurye (örn. az önce timeout olan), null olabilir
      */
-    public OnDutyCourier getNextInQueue() {
-        return onDutyCourierRepository.findAllByOrderByOnDutySinceAsc()
-                .stream()
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Aktif kurye yok"));
+    @Transactional
+    public Optional<ClaimedCourier> claimNextCourier(Long excludedCourierId) {
+        return onDutyCourierRepository.claimNextCourier(excludedCourierId);
+    }
+
+    /**
+     * Belirli bir kuryeyi boştaysa atomik olarak sahiplen ve kuyruğun sonuna taşı.
+     * Başka bir atama aynı kuryeyi kilitlemişse boş döner.
+     */
+    @Transactional
+    public Optional<ClaimedCourier> claimCourier(Long courierId) {
+        return onDutyCourierRepository.claimCourier(courierId);
+    }
+
+    /**
+     * Verilen noktaya en yakın boştaki kuryeyi atomik olarak sahiplen ve kuyruğun sonuna taşı.
+     * Konumu bilinmeyen kuryeler dikkate alınmaz.
+     */
+    @Transactional
+    public Optional<ClaimedCourier> claimNearestCourier(double latitude, double longitude, Long excludedCourierId) {
+        return onDutyCourierRepository.claimNearestCourier(latitude, longitude, excludedCourierId);
     }
 
     /**
@@ -69,17 +123,52 @@ public class OnDutyService {
     }
 
     /**
-     * Kurye'yi FIFO kuyruğunun sonuna taşı (assignment sonrası)
+     * Kurye'yi FIFO kuyruğunun sonuna taşı (assignment sonrası), tek UPDATE ile
+     *
+     * @return Kurye on-duty değilse false
      */
     @Transactional
-    public void moveToEndOfQueue(Long courierId) {
-        OnDutyCourier entry = onDutyCourierRepository
-                .findByCourierId(courierId)
-                .orElseThrow(() -> new RuntimeException("Kurye on-duty değil"));
-
-        entry.setOnDutySince(OffsetDateTime.now(ZoneOffset.UTC));
-        entry.setUpdatedAt(OffsetDateTime.now(ZoneOffset.UTC));
-        onDutyCourierRepository.save(entry);
+    public boolean moveToEndOfQueue(Long courierId) {
+        return onDutyCourierRepository.moveToTail(courierId, OffsetDateTime.now(ZoneOffset.UTC)) > 0;
     }
-}
 
+    /**
+     * Bellek içi on-duty kümesini ve konum indeksini on_duty_couriers tablosundan yeniden oluştur.
+     * Uygulama açılışında ve periyodik olarak (başka node'ların yaptığı değişiklikleri yakalamak için) çalışır.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dispatch.queue.resync-interval-ms:300000}",
+               initialDelayString = "${dispatch.queue.resync-interval-ms:300000}")
+    public void rebuildQueue() {
+        List<Long> courierIds = onDutyCourierRepository.findAllByOrderByOnDutySinceAsc()
+                .stream()
+                .map(OnDutyCourier::getCourierId)
+                .toList();
+        onDutyCouriers.reset(courierIds);
+
+        List<OnDutyCourierRepository.CourierPosition> positions = onDutyCourierRepository.findOnDutyPositions();
+        geoIndex.clear();
+        positions.forEach(p -> geoIndex.update(p.getCourierId(), p.getLatitude(), p.getLongitude()));
+        // Henüz yazılmamış ping'ler veritabanındaki konumu ezer
+        courierIds.forEach(id -> courierLocationService.getLatest(id)
+                .ifPresent(p -> geoIndex.update(id, p.latitude(), p.longitude())));
+        log.info("On-duty set rebuilt with {} couriers ({} with known position)",
+                courierIds.size(), positions.size());
+    }
+
+    /**
+     * Bellek içi güncellemeyi transaction commit'inden sonra uygula; rollback olursa değişmez
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
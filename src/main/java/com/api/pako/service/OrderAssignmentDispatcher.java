@@ -0,0 +1,65 @@
+package com.api.pako.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Assigns couriers to new orders off the request thread.
+ * <p>
+ * Each order is assigned on its own virtual thread and in its own transaction; at most
+ * {@code order.assignment.async.max-concurrency} assignments run at once so a large batch
+ * cannot exhaust the connection pool. Orders that cannot be assigned stay PENDING, exactly
+ * as with inline assignment.
+ * <p>
+ * The queue lives only in memory. Orders it loses (the node stopped) or could not assign are
+ * picked up by {@link AssignmentTimeoutSweeper} once they are
+ * {@code order.assignment.retry.unassigned-after-seconds} old; both paths lock the order row
+ * first, so they never open two assignments for one order.
+ */
+@Slf4j
+@Component
+public class OrderAssignmentDispatcher {
+
+    private final OrderAssignmentService orderAssignmentService;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public OrderAssignmentDispatcher(OrderAssignmentService orderAssignmentService,
+                                     @Value("${order.assignment.async.max-concurrency:4}") int maxConcurrency) {
+        this.orderAssignmentService = orderAssignmentService;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    /**
+     * Queue the given orders for assignment, in order
+     */
+    public void enqueue(List<Long> orderIds) {
+        for (Long orderId : orderIds) {
+            executor.execute(() -> assign(orderId));
+        }
+        log.info("Queued {} orders for asynchronous assignment", orderIds.size());
+    }
+
+    private void assign(Long orderId) {
+        permits.acquireUninterruptibly();
+        try {
+            orderAssignmentService.assignQueuedOrder(orderId);
+        } catch (Exception e) {
+            log.warn("Failed to auto-assign order {}: {}", orderId, e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,19 +1,24 @@
 package com.api.pako.service;
 
+import com.api.pako.event.AssignmentClosedEvent;
+import com.api.pako.event.AssignmentCreatedEvent;
+import com.api.pako.event.OrderStatusChangedEvent;
 import com.api.pako.exception.*;
 import com.api.pako.model.Courier;
-import com.api.pako.model.OnDutyCourier;
 import com.api.pako.model.Order;
 import com.api.pako.model.OrderAssignment;
 import com.api.pako.model.enums.AssignmentStatus;
 import com.api.pako.model.enums.AssignmentType;
 import com.api.pako.model.enums.OrderStatus;
 import com.api.pako.repository.CourierRepository;
+import com.api.pako.repository.OnDutyCourierRepository.ClaimedCourier;
 import com.api.pako.repository.OrderAssignmentRepository;
+import com.api.pako.repository.OrderAssignmentRepository.TimedOutAssignment;
 import com.api.pako.repository.OrderRepository;
+import com.api.pako.service.assignment.AssignmentStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,27 +32,37 @@ import java.util.Map;
 @Service
 public class OrderAssignmentService {
 
+    private static final String TIMEOUT_REASON = "Yanıt süresi doldu (4 dakika içinde yanıt verilmedi)";
 
     @Value("${order.assignment.timeout.minutes:2}")
     private int assignmentTimeoutMinutes;
 
+    @Value("${order.assignment.retry.unassigned-after-seconds:60}")
+    private int unassignedRetryAfterSeconds;
+
     private final OnDutyService onDutyService;
     private final OrderRepository orderRepository;
     private final OrderAssignmentRepository orderAssignmentRepository;
     private final WebSocketNotificationService notificationService;
     private final CourierRepository courierRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AssignmentStrategy assignmentStrategy;
 
     public OrderAssignmentService(
             OnDutyService onDutyService,
             OrderRepository orderRepository,
             OrderAssignmentRepository orderAssignmentRepository,
             WebSocketNotificationService notificationService,
-            CourierRepository courierRepository) {
+            CourierRepository courierRepository,
+            ApplicationEventPublisher eventPublisher,
+            AssignmentStrategy assignmentStrategy) {
         this.onDutyService = onDutyService;
         this.orderRepository = orderRepository;
         this.orderAssignmentRepository = orderAssignmentRepository;
         this.notificationService = notificationService;
         this.courierRepository = courierRepository;
+        this.eventPublisher = eventPublisher;
+        this.assignmentStrategy = assignmentStrategy;
     }
 
     /**
@@ -69,45 +84,36 @@ public class OrderAssignmentService {
                     .orElseThrow(() -> new BusinessException("Beklenmeyen durum: Pending assignment bulunamadı"));
         }
 
-        // Eğer REASSIGNMENT ise, son timeout olan kuryeyi kontrol et
+        // Eğer REASSIGNMENT ise, siparişi son reddeden / timeout olan kuryeyi atla
+        Long previousCourierId = null;
         if (assignmentType == AssignmentType.REASSIGNMENT) {
-            Long lastTimedOutCourierId = orderAssignmentRepository
-                .findByOrderIdAndStatusOrderByAssignedAtDesc(orderId, AssignmentStatus.TIMEOUT)
-                .stream()
-                .findFirst()
+            previousCourierId = orderAssignmentRepository
+                .findFirstByOrderIdOrderByAssignedAtDesc(orderId)
                 .map(OrderAssignment::getCourierId)
                 .orElse(null);
-
-            if (lastTimedOutCourierId != null) {
-                long totalOnDutyCouriers = onDutyService.countOnDutyCouriers();
-                if (totalOnDutyCouriers <= 1) {
-                    log.warn("Cannot reassign order {}: only 1 courier on-duty (courier {}). " +
-                              "Order will remain unassigned until more couriers are available or current courier accepts.",
-                              orderId, lastTimedOutCourierId);
-                    throw new BusinessException("Şu anda yeterli kurye yok. Sipariş beklemede kalacak.");
-                }
-            }
         }
 
-        // 1. FIFO'dan en eski on-duty kurye
-        OnDutyCourier nextCourier;
-        try {
-            nextCourier = onDutyService.getNextInQueue();
-        } catch (RuntimeException e) {
-            log.error("No courier available for order {}: {}", orderId, e.getMessage());
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new BusinessException("Sipariş bulunamadı"));
+
+        // 1. Stratejiye göre (FIFO / en yakın) kuryeyi atomik olarak sahiplen (SKIP LOCKED)
+        ClaimedCourier nextCourier = assignmentStrategy.claimCourier(order, previousCourierId).orElse(null);
+        if (nextCourier == null) {
+            if (previousCourierId != null) {
+                log.warn("Cannot reassign order {}: no on-duty courier other than {} is free. " +
+                          "Order will remain unassigned until more couriers are available or current courier accepts.",
+                          orderId, previousCourierId);
+                throw new BusinessException("Şu anda yeterli kurye yok. Sipariş beklemede kalacak.");
+            }
+            log.error("No courier available for order {}", orderId);
             throw new NoCourierAvailableException("Şu anda aktif kurye yok. Lütfen daha sonra tekrar deneyin.");
         }
 
-        log.info("Next courier in queue: {} (on_duty_since: {})",
-                   nextCourier.getCourierId(), nextCourier.getOnDutySince());
+        log.info("Claimed next courier in queue: {} (moved to tail)", nextCourier.getCourierId());
 
         // 2. Order'ı güncelle
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new BusinessException("Sipariş bulunamadı"));
-
-        // Courier entity'yi çek
-        Courier courier = courierRepository.findById(nextCourier.getCourierId())
-                .orElseThrow(() -> new BusinessException("Kurye bulunamadı"));
+        // Sadece FK için referans yeterli; kurye satırı kuyruktan zaten doğrulandı
+        Courier courier = courierRepository.getReferenceById(nextCourier.getCourierId());
 
         order.setStatus(OrderStatus.PENDING);
         order.setCourier(courier);
@@ -126,6 +132,10 @@ public class OrderAssignmentService {
         log.info("Created assignment {}: order {} → courier {} (timeout: {})",
                    savedAssignment.getId(), orderId, nextCourier.getCourierId(), savedAssignment.getTimeoutAt());
 
+        // Commit sonrası timeout zamanlayıcısını kur
+        eventPublisher.publishEvent(new AssignmentCreatedEvent(
+                savedAssignment.getId(), orderId, savedAssignment.getCourierId(), savedAssignment.getTimeoutAt()));
+
         // 4. WebSocket bildirimi gönder (hata olursa assignment yine de oluşturulsun)
         try {
             Map<String, Object> orderDetails = new HashMap<>();
@@ -180,6 +190,8 @@ public class OrderAssignmentService {
         assignment.setStatus(AssignmentStatus.ACCEPTED);
         assignment.setResponseAt(OffsetDateTime.now(ZoneOffset.UTC));
         orderAssignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new AssignmentClosedEvent(
+                assignmentId, assignment.getOrderId(), courierId, AssignmentStatus.ACCEPTED));
 
         // Order'ı ASSIGNED yap ve courier'i set et (kritik!)
         Order order = orderRepository.findById(assignment.getOrderId())
@@ -189,24 +201,25 @@ public class OrderAssignmentService {
                     order.getId(), order.getStatus(),
                     order.getCourier() != null ? order.getCourier().getId() : "NULL");
 
-        // Courier entity'yi getir ve order'a set et
-        Courier courier = courierRepository.findById(courierId)
-                .orElseThrow(() -> new BusinessException("Kurye bulunamadı"));
+        // Courier referansını order'a set et (assignment kaydı kuryeyi zaten doğruladı)
+        Courier courier = courierRepository.getReferenceById(courierId);
 
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(OrderStatus.ASSIGNED);
         order.setCourier(courier); // ← ÖNEMLİ: Courier'i order'a bağla!
         Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(savedOrder.getId(),
+                savedOrder.getBusiness() != null ? savedOrder.getBusiness().getId() : null,
+                courierId, previousStatus, OrderStatus.ASSIGNED));
 
         log.info("After update - Order {}: status={}, courierId={}, courier set successfully",
                    savedOrder.getId(), savedOrder.getStatus(),
                    savedOrder.getCourier() != null ? savedOrder.getCourier().getId() : "NULL");
 
         // Kurye'yi kuyruğun sonuna taşı
-        try {
-            onDutyService.moveToEndOfQueue(courierId);
-        } catch (Exception e) {
-            log.warn("Failed to move courier {} to end of queue: {}", courierId, e.getMessage());
-            // Accept işlemi başarılı, queue pozisyonu güncellenemedi - önemli değil
+        if (!onDutyService.moveToEndOfQueue(courierId)) {
+            // Accept işlemi başarılı, kurye artık on-duty değil - önemli değil
+            log.warn("Courier {} is no longer on duty, queue position not updated", courierId);
         }
 
         log.info("Assignment {} accepted by courier {}", assignmentId, courierId);
@@ -254,6 +267,8 @@ public class OrderAssignmentService {
         assignment.setResponseAt(OffsetDateTime.now(ZoneOffset.UTC));
         assignment.setRejectionReason(reason);
         orderAssignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new AssignmentClosedEvent(
+                assignmentId, assignment.getOrderId(), courierId, AssignmentStatus.REJECTED));
 
         log.info("Assignment {} rejected, reassigning to next courier", assignmentId);
 
@@ -277,50 +292,124 @@ public class OrderAssignmentService {
     }
 
     /**
-     * Timeout kontrolü - Her 30 saniyede çalışır
+     * Outcome of {@link #expireAssignment(Long)} and {@link #reassignAwaitingOrder(Long)}
+     */
+    public enum TimeoutOutcome {
+        /** Atama artık PENDING değil, henüz süresi dolmadı ya da sipariş artık yeniden atama beklemiyor */
+        SKIPPED,
+        /** Timeout işlendi, sipariş yeni kuryeye atandı */
+        REASSIGNED,
+        /** Timeout işlendi, uygun kurye yok - sipariş beklemede */
+        AWAITING_COURIER
+    }
+
+    /**
+     * Tek bir atamayı zaman aşımına uğrat ve siparişi sıradaki kuryeye ata.
+     * Kendi kısa transaction'ında çalışır; AssignmentTimeoutScheduler tarafından çağrılır.
+     * Atama bu arada kabul/red edildiyse ya da başka bir node tarafından işlendiyse
+     * hiçbir şey yapmaz.
      */
-    @Scheduled(fixedDelay = 30000) // 30 seconds
     @Transactional
-    public void checkTimeouts() {
+    public TimeoutOutcome expireAssignment(Long assignmentId) {
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        List<OrderAssignment> timedOutAssignments = orderAssignmentRepository
-                .findByStatusAndTimeoutAtBefore(AssignmentStatus.PENDING, now);
+        int updated = orderAssignmentRepository.markTimedOut(assignmentId, now, TIMEOUT_REASON);
+        if (updated == 0) {
+            log.debug("Assignment {} is no longer pending or not yet due, skipping timeout", assignmentId);
+            return TimeoutOutcome.SKIPPED;
+        }
+
+        OrderAssignment assignment = orderAssignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new AssignmentNotFoundException(assignmentId));
+        onTimedOut(assignment.getId(), assignment.getOrderId(), assignment.getCourierId());
+        return reassignAfterTimeout(assignment.getOrderId());
+    }
+
+    /**
+     * Süresi dolmuş en fazla {@code limit} atamayı tek UPDATE ile kapat (AssignmentTimeoutSweeper).
+     * Kapanış olayları aynı transaction'da yazılır; siparişlerin yeniden atanması çağırana kalır
+     * ({@link #reassignAwaitingOrder(Long)}).
+     *
+     * @return Bu çağrının zaman aşımına uğrattığı atamalar
+     */
+    @Transactional
+    public List<TimedOutAssignment> expireOverdueAssignments(int limit) {
+        List<TimedOutAssignment> expired = orderAssignmentRepository.markOverdueTimedOut(
+                OffsetDateTime.now(ZoneOffset.UTC), TIMEOUT_REASON, limit);
+        expired.forEach(assignment ->
+                onTimedOut(assignment.getId(), assignment.getOrderId(), assignment.getCourierId()));
+        return expired;
+    }
 
-        if (!timedOutAssignments.isEmpty()) {
-            log.info("Found {} timed out assignments", timedOutAssignments.size());
+    /**
+     * Açık ataması olmayan PENDING siparişleri sahiplen (en uzun süredir denenmeyenler önce):
+     * ataması zaman aşımına uğramış olanlar ve oluşturulalı
+     * {@code order.assignment.retry.unassigned-after-seconds} geçmiş olanlar. Toplu kapanıştan
+     * sonraki yeniden atama başarısız olduysa, kurye yoksa ya da node arada durduysa (bellek içi
+     * atama kuyruğu dahil) sipariş burada tekrar bulunur.
+     */
+    @Transactional
+    public List<Long> claimOrdersAwaitingAssignment(int limit) {
+        return orderAssignmentRepository.claimOrdersAwaitingAssignment(
+                OffsetDateTime.now(ZoneOffset.UTC), unassignedRetryAfterSeconds, limit);
+    }
+
+    /**
+     * Açık ataması olmayan siparişi sıradaki kuryeye ata. Sipariş satırı kilitlenir; aynı
+     * siparişi aynı anda işleyen ikinci bir sweep ya da dispatcher onu atlar, böylece iki
+     * atama açılamaz. Hiç ataması olmamış sipariş ilk atamasını (AUTO) alır.
+     */
+    @Transactional
+    public TimeoutOutcome reassignAwaitingOrder(Long orderId) {
+        if (orderAssignmentRepository.lockOrderAwaitingAssignment(orderId).isEmpty()) {
+            log.debug("Order {} no longer awaits assignment or is being assigned, skipping", orderId);
+            return TimeoutOutcome.SKIPPED;
+        }
+        if (!orderAssignmentRepository.existsByOrderId(orderId)) {
+            return tryAssign(orderId, AssignmentType.AUTO);
         }
+        return reassignAfterTimeout(orderId);
+    }
 
-        for (OrderAssignment assignment : timedOutAssignments) {
-            try {
-                log.warn("Assignment {} timed out (courier: {}, order: {})",
-                           assignment.getId(), assignment.getCourierId(), assignment.getOrderId());
-
-                // Assignment'ı timeout yap
-                assignment.setStatus(AssignmentStatus.TIMEOUT);
-                assignment.setResponseAt(now);
-                assignment.setRejectionReason("Yanıt süresi doldu (4 dakika içinde yanıt verilmedi)");
-                orderAssignmentRepository.save(assignment);
-
-                // Kurye'ye bildir
-                notificationService.notifyAssignmentTimeout(
-                    assignment.getCourierId(),
-                    assignment.getId()
-                );
+    /**
+     * Yeni siparişi ata (OrderAssignmentDispatcher). Sweep aynı siparişi o anda işliyorsa
+     * ya da sipariş zaten atanmışsa atlanır.
+     */
+    @Transactional
+    public void assignQueuedOrder(Long orderId) {
+        if (orderAssignmentRepository.lockOrderAwaitingAssignment(orderId).isEmpty()) {
+            log.debug("Order {} no longer awaits assignment or is being assigned, skipping", orderId);
+            return;
+        }
+        assignToNextAvailableCourier(orderId);
+    }
 
-                // Bir sonraki kuryeye ata
-                try {
-                    assignToNextAvailableCourier(assignment.getOrderId(), AssignmentType.REASSIGNMENT);
-                } catch (BusinessException be) {
-                    // Yeterli kurye yok - Order beklemede kalacak
-                    log.warn("Cannot reassign order {}: {}", assignment.getOrderId(), be.getMessage());
-                    // Order status'ünü PENDING tut, kurye boşaldığında veya yeni kurye geldiğinde atanacak
-                }
-
-            } catch (Exception e) {
-                log.error("Error handling timeout for assignment {}: {}",
-                           assignment.getId(), e.getMessage());
-            }
+    /**
+     * Zaman aşımından sonra siparişi bir sonraki kuryeye ata
+     */
+    @Transactional
+    public TimeoutOutcome reassignAfterTimeout(Long orderId) {
+        return tryAssign(orderId, AssignmentType.REASSIGNMENT);
+    }
+
+    private TimeoutOutcome tryAssign(Long orderId, AssignmentType assignmentType) {
+        try {
+            assignToNextAvailableCourier(orderId, assignmentType);
+            return TimeoutOutcome.REASSIGNED;
+        } catch (BusinessException | NoCourierAvailableException e) {
+            // Yeterli kurye yok - Order beklemede kalacak
+            log.warn("Cannot reassign order {}: {}", orderId, e.getMessage());
+            // Order status'ünü PENDING tut, kurye boşaldığında veya yeni kurye geldiğinde atanacak
+            return TimeoutOutcome.AWAITING_COURIER;
         }
     }
-}
 
+    private void onTimedOut(Long assignmentId, Long orderId, Long courierId) {
+        log.warn("Assignment {} timed out (courier: {}, order: {})", assignmentId, courierId, orderId);
+
+        eventPublisher.publishEvent(new AssignmentClosedEvent(
+                assignmentId, orderId, courierId, AssignmentStatus.TIMEOUT));
+
+        // Kurye'ye bildir
+        notificationService.notifyAssignmentTimeout(courierId, assignmentId);
+    }
+}
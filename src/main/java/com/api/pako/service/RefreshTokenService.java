@@ -0,0 +1,111 @@
+package com.api.pako.service;
+
+import com.api.pako.exception.InvalidCredentialsException;
+import com.api.pako.model.RefreshToken;
+import com.api.pako.model.enums.UserType;
+import com.api.pako.repository.RefreshTokenRepository;
+import com.api.pako.security.TokenHashes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens.
+ * <p>
+ * A refresh token can be used once: {@link #rotate} marks it used and issues its successor
+ * in the same family. A token that is presented again after rotation has been copied, so
+ * the whole family is revoked and the legitimate holder has to log in again.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-token.ttl-days:30}") long ttlDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = Duration.ofDays(ttlDays);
+    }
+
+    /**
+     * Start a new token family (login)
+     */
+    @Transactional
+    public String issue(UserType userType, Long userId) {
+        return issue(UUID.randomUUID(), userType, userId);
+    }
+
+    /**
+     * Lock a refresh token that may be rotated, so the caller can check its owner before {@link #rotate}.
+     * Reuse detection revokes the family, and that revocation must survive the rejection.
+     * Runs in the caller's transaction, which keeps the lock until the rotation commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = InvalidCredentialsException.class)
+    public RefreshToken lockForRotation(String rawToken) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        RefreshToken token = refreshTokenRepository.lockByTokenHash(TokenHashes.sha256(rawToken))
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+
+        if (token.getUsedAt() != null && token.getRevokedAt() == null) {
+            int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            log.warn("Refresh token reuse for {} {}; revoked {} tokens of family {}",
+                    token.getUserType(), token.getUserId(), revoked, token.getFamilyId());
+            throw new InvalidCredentialsException("Refresh token has already been used");
+        }
+        if (!token.isActive(now)) {
+            throw new InvalidCredentialsException("Refresh token is expired or revoked");
+        }
+        return token;
+    }
+
+    /**
+     * Mark a token returned by {@link #lockForRotation} used and issue its successor
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String rotate(RefreshToken token) {
+        token.setUsedAt(OffsetDateTime.now(ZoneOffset.UTC));
+        return issue(token.getFamilyId(), token.getUserType(), token.getUserId());
+    }
+
+    /**
+     * Revoke the family of the given token (logout); unknown tokens are ignored
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.lockByTokenHash(TokenHashes.sha256(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(
+                        token.getFamilyId(), OffsetDateTime.now(ZoneOffset.UTC)));
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(OffsetDateTime.now(ZoneOffset.UTC));
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(UUID familyId, UserType userType, Long userId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(TokenHashes.sha256(rawToken), familyId, userType, userId,
+                OffsetDateTime.now(ZoneOffset.UTC).plus(ttl)));
+        return rawToken;
+    }
+}
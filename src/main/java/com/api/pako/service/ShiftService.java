@@ -9,6 +9,8 @@ import com.api.pako.model.enums.ShiftStatus;
 import com.api.pako.repository.CourierRepository;
 import com.api.pako.repository.ShiftRepository;
 import com.api.pako.repository.ShiftTemplateRepository;
+import com.api.pako.service.cache.CourierProfile;
+import com.api.pako.service.cache.ProfileCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,15 +30,18 @@ public class ShiftService {
     private final ShiftTemplateRepository shiftTemplateRepository;
     private final CourierRepository courierRepository;
     private final OnDutyService onDutyService;
+    private final ProfileCache profileCache;
 
     public ShiftService(ShiftRepository shiftRepository,
                        ShiftTemplateRepository shiftTemplateRepository,
                        CourierRepository courierRepository,
-                       OnDutyService onDutyService) {
+                       OnDutyService onDutyService,
+                       ProfileCache profileCache) {
         this.shiftRepository = shiftRepository;
         this.shiftTemplateRepository = shiftTemplateRepository;
         this.courierRepository = courierRepository;
         this.onDutyService = onDutyService;
+        this.profileCache = profileCache;
     }
 
     /**
@@ -170,14 +175,10 @@ public class ShiftService {
         onDutyService.upsertOnDuty(courierId, shiftId);
 
         // Ayrıca courier status'ünü güncelle
-        Courier courier = courierRepository.findById(courierId)
-                .orElseThrow(() -> new BusinessException("Kurye bulunamadı"));
-        courier.setOnDutySince(now);
-        courier.setStatus(Courier.CourierStatus.ONLINE);
-        courierRepository.save(courier);
+        updateCourierDutyState(courierId, Courier.CourierStatus.ONLINE, now);
 
         ShiftDto dto = convertToDTO(savedShift);
-        dto.setCourierName(courier.getName());
+        dto.setCourierName(courierName(courierId));
         return dto;
     }
 
@@ -214,17 +215,27 @@ public class ShiftService {
         onDutyService.removeOnDuty(courierId);
 
         // Courier'ın on_duty_since alanını temizle
-        Courier courier = courierRepository.findById(courierId)
-                .orElseThrow(() -> new BusinessException("Kurye bulunamadı"));
-        courier.setOnDutySince(null);
-        courier.setStatus(Courier.CourierStatus.OFFLINE);
-        courierRepository.save(courier);
+        updateCourierDutyState(courierId, Courier.CourierStatus.OFFLINE, null);
 
         ShiftDto dto = convertToDTO(savedShift);
-        dto.setCourierName(courier.getName());
+        dto.setCourierName(courierName(courierId));
         return dto;
     }
 
+    /**
+     * Kurye durumunu tek UPDATE ile değiştir ve profil cache'ini commit sonrası temizle
+     */
+    private void updateCourierDutyState(Long courierId, Courier.CourierStatus status, LocalDateTime onDutySince) {
+        if (courierRepository.updateDutyState(courierId, status, onDutySince, LocalDateTime.now()) == 0) {
+            throw new BusinessException("Kurye bulunamadı");
+        }
+        profileCache.evictCourierAfterCommit(courierId);
+    }
+
+    private String courierName(Long courierId) {
+        return profileCache.findCourier(courierId).map(CourierProfile::name).orElse(null);
+    }
+
     /**
      * Vardiya rezervasyonunu iptal et
      */
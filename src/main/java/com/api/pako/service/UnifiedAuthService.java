@@ -1,87 +1,120 @@
 package com.api.pako.service;
 
+import com.api.pako.dto.TokenRefreshResponse;
 import com.api.pako.dto.UnifiedLoginRequest;
 import com.api.pako.dto.UnifiedLoginResponse;
 import com.api.pako.exception.InvalidCredentialsException;
-import com.api.pako.model.Business;
-import com.api.pako.model.Courier;
+import com.api.pako.model.RefreshToken;
+import com.api.pako.model.UserCredential;
 import com.api.pako.model.enums.UserType;
-import com.api.pako.repository.BusinessRepository;
-import com.api.pako.repository.CourierRepository;
+import com.api.pako.repository.UserCredentialRepository;
+import com.api.pako.security.AccessTokenRevocations;
 import com.api.pako.security.JwtTokenProvider;
+import com.api.pako.security.PasswordVerifier;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
 
 @Service
 @Transactional
 @Slf4j
 public class UnifiedAuthService {
 
-    private final CourierRepository courierRepository;
-    private final BusinessRepository businessRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UserCredentialRepository credentialRepository;
+    private final PasswordVerifier passwordVerifier;
     private final JwtTokenProvider jwtTokenProvider;
-
-    public UnifiedAuthService(CourierRepository courierRepository, BusinessRepository businessRepository,
-                             PasswordEncoder passwordEncoder, JwtTokenProvider jwtTokenProvider) {
-        this.courierRepository = courierRepository;
-        this.businessRepository = businessRepository;
-        this.passwordEncoder = passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
+    private final AccessTokenRevocations revocations;
+    private final TransactionTemplate transactionTemplate;
+
+    public UnifiedAuthService(UserCredentialRepository credentialRepository, PasswordVerifier passwordVerifier,
+                             JwtTokenProvider jwtTokenProvider, RefreshTokenService refreshTokenService,
+                             AccessTokenRevocations revocations, TransactionTemplate transactionTemplate) {
+        this.credentialRepository = credentialRepository;
+        this.passwordVerifier = passwordVerifier;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.refreshTokenService = refreshTokenService;
+        this.revocations = revocations;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    /**
+     * Runs outside a transaction: the password check may wait for a verification slot and then
+     * spends a bcrypt round, neither of which should hold a pool connection. The lookup takes a
+     * connection for one statement; the writes after a successful check share one short transaction.
+     */
+    @Transactional(propagation = Propagation.NEVER)
     public UnifiedLoginResponse login(UnifiedLoginRequest request) {
         log.info("Unified login attempt for email: {}", request.getEmail());
 
-        Optional<Courier> courierOpt = courierRepository.findByEmail(request.getEmail());
-        if (courierOpt.isPresent()) {
-            return loginCourier(courierOpt.get(), request.getPassword());
-        }
-
-        Optional<Business> businessOpt = businessRepository.findByEmail(request.getEmail());
-        if (businessOpt.isPresent()) {
-            return loginBusiness(businessOpt.get(), request.getPassword());
-        }
+        // Kurye ve işletme tek sorguda aranır (user_credentials view)
+        UserCredential credential = credentialRepository.findByEmail(request.getEmail())
+                .orElseThrow(() -> {
+                    log.warn("Login failed: User not found with email: {}", request.getEmail());
+                    return new InvalidCredentialsException("Invalid email or password");
+                });
 
-        log.warn("Login failed: User not found with email: {}", request.getEmail());
-        throw new InvalidCredentialsException("Invalid email or password");
-    }
-
-    private UnifiedLoginResponse loginCourier(Courier courier, String password) {
-        if (!passwordEncoder.matches(password, courier.getPasswordHash())) {
+        PasswordVerifier.Result result = passwordVerifier.verify(request.getPassword(), credential.passwordHash());
+        if (!result.matches()) {
             throw new InvalidCredentialsException("Invalid email or password");
         }
-        if (courier.getStatus() != Courier.CourierStatus.AVAILABLE) {
-            throw new InvalidCredentialsException("Your courier account is not active");
+        if (!credential.canLogin()) {
+            throw new InvalidCredentialsException(credential.userType() == UserType.COURIER
+                    ? "Your courier account is not active"
+                    : "Your business account is " + credential.status());
         }
 
-        courierRepository.save(courier);
-
-        String token = jwtTokenProvider.generateToken(courier.getId(), courier.getEmail(), "COURIER");
+        String refreshToken = transactionTemplate.execute(status -> {
+            if (result.upgradedHash() != null) {
+                credentialRepository.updatePasswordHash(credential.userType(), credential.id(), result.upgradedHash());
+                log.info("Upgraded password hash of {} {}", credential.userType(), credential.id());
+            }
+            if (credential.userType() == UserType.BUSINESS) {
+                credentialRepository.recordBusinessLogin(credential.id(), LocalDateTime.now());
+            }
+            return refreshTokenService.issue(credential.userType(), credential.id());
+        });
+
+        String token = jwtTokenProvider.generateToken(credential.id(), credential.email(),
+                credential.userType().name());
+
+        return new UnifiedLoginResponse(token, refreshToken, jwtTokenProvider.getAccessTokenTtl().toSeconds(),
+                credential.id(), credential.email(), credential.name(), credential.userType(),
+                credential.status(), "Login successful");
+    }
 
-        return new UnifiedLoginResponse(token, courier.getId(), courier.getEmail(),
-                courier.getName(), UserType.COURIER, courier.getStatus().toString(), "Login successful");
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token.
+     * No password check: the account is only re-checked for being allowed to log in, before
+     * the token is used, so a rejected refresh leaves it untouched.
+     */
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public TokenRefreshResponse refresh(String refreshToken) {
+        RefreshToken current = refreshTokenService.lockForRotation(refreshToken);
+
+        UserCredential credential = credentialRepository.findByUser(current.getUserType(), current.getUserId())
+                .filter(UserCredential::canLogin)
+                .orElseThrow(() -> new InvalidCredentialsException("Account is not active"));
+
+        String successor = refreshTokenService.rotate(current);
+        String token = jwtTokenProvider.generateToken(credential.id(), credential.email(),
+                credential.userType().name());
+        return new TokenRefreshResponse(token, successor, jwtTokenProvider.getAccessTokenTtl().toSeconds());
     }
 
-    private UnifiedLoginResponse loginBusiness(Business business, String password) {
-        if (!passwordEncoder.matches(password, business.getPasswordHash())) {
-            throw new InvalidCredentialsException("Invalid email or password");
+    /**
+     * Revoke the refresh token family and, when given, the access token until it expires
+     */
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken);
+        if (accessToken != null) {
+            jwtTokenProvider.resolve(accessToken)
+                    .filter(claims -> claims.tokenId() != null)
+                    .ifPresent(claims -> revocations.revoke(claims.tokenId(), claims.expiresAt()));
         }
-        if (!business.canLogin()) {
-            throw new InvalidCredentialsException("Your business account is " + business.getStatus());
-        }
-
-        business.recordLogin();
-        businessRepository.save(business);
-
-        String token = jwtTokenProvider.generateToken(business.getId(), business.getEmail(), "BUSINESS");
-
-        return new UnifiedLoginResponse(token, business.getId(), business.getEmail(),
-                business.getName(), UserType.BUSINESS, business.getStatus().toString(), "Login successful");
     }
 }
-
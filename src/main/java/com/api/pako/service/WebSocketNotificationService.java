@@ -1,30 +1,34 @@
 package com.api.pako.service;
 
+import com.api.pako.event.UserNotificationEvent;
 import com.api.pako.model.OrderAssignment;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Builds courier and business WebSocket notifications.
+ * Messages are handed to NotificationDispatcher as events and sent only after the
+ * caller's transaction commits; nothing here blocks on a socket.
+ */
 @Slf4j
 @Service
 public class WebSocketNotificationService {
 
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public WebSocketNotificationService(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public WebSocketNotificationService(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Kurye'ye yeni sipariş ataması bildirimi gönder
      */
     public void notifyNewAssignment(OrderAssignment assignment, Map<String, Object> orderDetails) {
-        String destination = "/queue/courier/" + assignment.getCourierId() + "/assignments";
-
         Map<String, Object> notification = new HashMap<>();
         notification.put("type", "NEW_ASSIGNMENT");
         notification.put("assignmentId", assignment.getId());
@@ -33,26 +37,17 @@ public class WebSocketNotificationService {
         notification.put("timeoutAt", assignment.getTimeoutAt());
         notification.put("orderDetails", orderDetails);
 
-        try {
-            messagingTemplate.convertAndSendToUser(
-                String.valueOf(assignment.getCourierId()),
-                "/queue/assignments",
-                notification
-            );
-            log.info("Sent new assignment notification to courier {}: assignment {}",
-                       assignment.getCourierId(), assignment.getId());
-        } catch (Exception e) {
-            log.error("Failed to send WebSocket notification to courier {}: {}",
-                        assignment.getCourierId(), e.getMessage());
-        }
+        eventPublisher.publishEvent(new UserNotificationEvent(
+                String.valueOf(assignment.getCourierId()), "/queue/assignments", notification, null));
+        log.info("Queued new assignment notification to courier {}: assignment {}",
+                assignment.getCourierId(), assignment.getId());
     }
 
     /**
      * Business'e sipariş durumu bildirimi gönder
+     * Aynı siparişin henüz gönderilmemiş durum güncellemeleri birleştirilir; sadece en sonuncusu gider
      */
     public void notifyBusinessOrderStatus(Long businessId, Long orderId, String status, String message) {
-        String destination = "/queue/business/" + businessId + "/orders";
-
         Map<String, Object> notification = new HashMap<>();
         notification.put("type", "ORDER_STATUS_UPDATE");
         notification.put("orderId", orderId);
@@ -60,42 +55,23 @@ public class WebSocketNotificationService {
         notification.put("message", message);
         notification.put("timestamp", System.currentTimeMillis());
 
-        try {
-            messagingTemplate.convertAndSendToUser(
-                String.valueOf(businessId),
-                "/queue/orders",
-                notification
-            );
-            log.info("Sent order status notification to business {}: order {} - {}",
-                       businessId, orderId, status);
-        } catch (Exception e) {
-            log.error("Failed to send WebSocket notification to business {}: {}",
-                        businessId, e.getMessage());
-        }
+        eventPublisher.publishEvent(new UserNotificationEvent(
+                String.valueOf(businessId), "/queue/orders", notification, "order-status:" + orderId));
+        log.info("Queued order status notification to business {}: order {} - {}",
+                businessId, orderId, status);
     }
 
     /**
      * Timeout bildirimi (atama iptal edildi, yeni kuryeye gidiyor)
      */
     public void notifyAssignmentTimeout(Long courierId, Long assignmentId) {
-        String destination = "/queue/courier/" + courierId + "/assignments";
-
         Map<String, Object> notification = new HashMap<>();
         notification.put("type", "ASSIGNMENT_TIMEOUT");
         notification.put("assignmentId", assignmentId);
         notification.put("message", "Atama zaman aşımına uğradı");
 
-        try {
-            messagingTemplate.convertAndSendToUser(
-                String.valueOf(courierId),
-                "/queue/assignments",
-                notification
-            );
-            log.info("Sent timeout notification to courier {}: assignment {}",
-                       courierId, assignmentId);
-        } catch (Exception e) {
-            log.error("Failed to send timeout notification: {}", e.getMessage());
-        }
+        eventPublisher.publishEvent(new UserNotificationEvent(
+                String.valueOf(courierId), "/queue/assignments", notification, null));
+        log.info("Queued timeout notification to courier {}: assignment {}", courierId, assignmentId);
     }
 }
-
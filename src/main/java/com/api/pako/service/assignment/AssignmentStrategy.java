@@ -0,0 +1,23 @@
+package com.api.pako.service.assignment;
+
+import com.api.pako.model.Order;
+import com.api.pako.repository.OnDutyCourierRepository.ClaimedCourier;
+
+import java.util.Optional;
+
+/**
+ * Decides which on-duty courier receives a new order assignment.
+ * <p>
+ * Implementations must claim the courier atomically (the returned row is locked until the
+ * caller's transaction ends) and move it to the tail of the dispatch queue. The active
+ * strategy is selected with {@code order.assignment.strategy}.
+ */
+public interface AssignmentStrategy {
+
+    /**
+     * @param order Order to assign
+     * @param excludedCourierId Courier to skip (e.g. the one who just timed out), may be null
+     * @return Claimed courier, empty if no courier is free
+     */
+    Optional<ClaimedCourier> claimCourier(Order order, Long excludedCourierId);
+}
@@ -0,0 +1,28 @@
+package com.api.pako.service.assignment;
+
+import com.api.pako.model.Order;
+import com.api.pako.repository.OnDutyCourierRepository.ClaimedCourier;
+import com.api.pako.service.OnDutyService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Varsayılan strateji: en uzun süredir sırada bekleyen kurye (on_duty_since FIFO)
+ */
+@Component
+@ConditionalOnProperty(name = "order.assignment.strategy", havingValue = "fifo", matchIfMissing = true)
+public class FifoAssignmentStrategy implements AssignmentStrategy {
+
+    private final OnDutyService onDutyService;
+
+    public FifoAssignmentStrategy(OnDutyService onDutyService) {
+        this.onDutyService = onDutyService;
+    }
+
+    @Override
+    public Optional<ClaimedCourier> claimCourier(Order order, Long excludedCourierId) {
+        return onDutyService.claimNextCourier(excludedCourierId);
+    }
+}
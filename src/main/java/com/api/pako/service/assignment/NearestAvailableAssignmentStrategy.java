@@ -0,0 +1,72 @@
+package com.api.pako.service.assignment;
+
+import com.api.pako.model.Order;
+import com.api.pako.repository.OnDutyCourierRepository.ClaimedCourier;
+import com.api.pako.service.CourierGeoIndex;
+import com.api.pako.service.OnDutyService;
+import com.api.pako.service.cache.BusinessProfile;
+import com.api.pako.service.cache.ProfileCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * İşletmeye (pickup noktasına) en yakın boştaki kurye. İşletmenin konumu profil cache'inden
+ * okunur, siparişin business ilişkisi yüklenmez.
+ * Adaylar bellek içi {@link CourierGeoIndex}'ten gelir ve mesafe sırasıyla sahiplenilir;
+ * adayların hepsi meşgulse veritabanındaki KNN sorgusuna, işletmenin konumu bilinmiyorsa
+ * ya da konumu bilinen boş kurye yoksa FIFO'ya düşer.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "order.assignment.strategy", havingValue = "nearest")
+public class NearestAvailableAssignmentStrategy implements AssignmentStrategy {
+
+    /** Veritabanına düşmeden önce sırayla denenecek en yakın aday sayısı */
+    private static final int CANDIDATES = 8;
+
+    private final OnDutyService onDutyService;
+    private final CourierGeoIndex geoIndex;
+    private final ProfileCache profileCache;
+
+    public NearestAvailableAssignmentStrategy(OnDutyService onDutyService, CourierGeoIndex geoIndex,
+                                              ProfileCache profileCache) {
+        this.onDutyService = onDutyService;
+        this.geoIndex = geoIndex;
+        this.profileCache = profileCache;
+    }
+
+    @Override
+    public Optional<ClaimedCourier> claimCourier(Order order, Long excludedCourierId) {
+        // getId() proxy'yi başlatmaz
+        BusinessProfile business = order.getBusiness() == null ? null
+                : profileCache.findBusiness(order.getBusiness().getId()).orElse(null);
+        if (business == null || business.latitude() == null || business.longitude() == null) {
+            log.debug("Order {} has no pickup coordinates, falling back to FIFO", order.getId());
+            return onDutyService.claimNextCourier(excludedCourierId);
+        }
+
+        long[] candidateIds = new long[CANDIDATES];
+        double[] distances = new double[CANDIDATES];
+        int candidates = geoIndex.nearest(business.latitude(), business.longitude(),
+                excludedCourierId != null ? excludedCourierId : -1, Double.POSITIVE_INFINITY,
+                candidateIds, distances);
+        for (int i = 0; i < candidates; i++) {
+            Optional<ClaimedCourier> claimed = onDutyService.claimCourier(candidateIds[i]);
+            if (claimed.isPresent()) {
+                log.debug("Order {} claimed courier {} at {} m", order.getId(), candidateIds[i], Math.round(distances[i]));
+                return claimed;
+            }
+        }
+
+        Optional<ClaimedCourier> nearest = onDutyService.claimNearestCourier(
+                business.latitude(), business.longitude(), excludedCourierId);
+        if (nearest.isPresent()) {
+            return nearest;
+        }
+        log.debug("No located courier free for order {}, falling back to FIFO", order.getId());
+        return onDutyService.claimNextCourier(excludedCourierId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.api.pako.service.cache;
+
+import com.api.pako.model.Business;
+
+/**
+ * Read-only snapshot of the business fields the request path needs (no credentials)
+ */
+public record BusinessProfile(Long id, String name, String contactPerson, String phone,
+                              Double latitude, Double longitude, boolean active) {
+
+    public static BusinessProfile of(Business business) {
+        return new BusinessProfile(business.getId(), business.getName(), business.getContactPerson(),
+                business.getPhone(), business.getLatitude(), business.getLongitude(), business.canLogin());
+    }
+}
@@ -0,0 +1,14 @@
+package com.api.pako.service.cache;
+
+import com.api.pako.model.Courier;
+
+/**
+ * Read-only snapshot of the courier fields the request path needs (no credentials)
+ */
+public record CourierProfile(Long id, String name, String email, String phone, Courier.CourierStatus status) {
+
+    public static CourierProfile of(Courier courier) {
+        return new CourierProfile(courier.getId(), courier.getName(), courier.getEmail(),
+                courier.getPhone(), courier.getStatus());
+    }
+}
@@ -0,0 +1,128 @@
+package com.api.pako.service.cache;
+
+import com.api.pako.repository.BusinessRepository;
+import com.api.pako.repository.CourierRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Hot lookups of courier and business profiles on the order/assignment/shift path.
+ * <p>
+ * Courier writers call {@link #evictCourierAfterCommit} when they change a cached field; the
+ * entry is removed from Redis and every node is told over pub/sub to drop its L1 copy.
+ * <p>
+ * Business rows are only changed outside the application (status and activation are set in the
+ * database), so nothing evicts them: a deactivated business can keep creating orders for up to
+ * {@code cache.profile.l2.ttl-seconds} plus {@code cache.profile.l1.ttl-seconds}.
+ */
+@Slf4j
+@Component
+public class ProfileCache implements MessageListener {
+
+    private static final String COURIER = "courier";
+    private static final String BUSINESS = "business";
+
+    private final CourierRepository courierRepository;
+    private final BusinessRepository businessRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final TwoLevelCache<CourierProfile> couriers;
+    private final TwoLevelCache<BusinessProfile> businesses;
+    private final String channel;
+
+    public ProfileCache(CourierRepository courierRepository,
+                        BusinessRepository businessRepository,
+                        ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                        JsonMapper jsonMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${cache.profile.l1.max-size:10000}") long maxSize,
+                        @Value("${cache.profile.l1.ttl-seconds:30}") long localTtlSeconds,
+                        @Value("${cache.profile.l2.enabled:true}") boolean remoteEnabled,
+                        @Value("${cache.profile.l2.ttl-seconds:600}") long remoteTtlSeconds,
+                        @Value("${cache.profile.l2.invalidation-channel:cache:profile-invalidations}") String channel) {
+        this.courierRepository = courierRepository;
+        this.businessRepository = businessRepository;
+        this.redisTemplate = remoteEnabled ? redisTemplateProvider.getIfAvailable() : null;
+        this.channel = channel;
+        Duration localTtl = Duration.ofSeconds(localTtlSeconds);
+        Duration remoteTtl = Duration.ofSeconds(remoteTtlSeconds);
+        this.couriers = new TwoLevelCache<>("courier-profiles", CourierProfile.class, maxSize, localTtl,
+                redisTemplate, jsonMapper, remoteTtl, meterRegistry);
+        this.businesses = new TwoLevelCache<>("business-profiles", BusinessProfile.class, maxSize, localTtl,
+                redisTemplate, jsonMapper, remoteTtl, meterRegistry);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public Optional<CourierProfile> findCourier(Long courierId) {
+        return couriers.get(courierId, id -> courierRepository.findById(id).map(CourierProfile::of));
+    }
+
+    public Optional<BusinessProfile> findBusiness(Long businessId) {
+        return businesses.get(businessId, id -> businessRepository.findById(id).map(BusinessProfile::of));
+    }
+
+    /**
+     * Evict once the surrounding transaction commits, so no node reloads the old row in between
+     */
+    public void evictCourierAfterCommit(Long courierId) {
+        afterCommit(() -> evict(couriers, COURIER, courierId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        try {
+            String kind = body.substring(0, separator);
+            Long id = Long.valueOf(body.substring(separator + 1));
+            if (COURIER.equals(kind)) {
+                couriers.evictLocal(id);
+            } else if (BUSINESS.equals(kind)) {
+                businesses.evictLocal(id);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed cache invalidation on {}: {}", channel, body);
+        }
+    }
+
+    private void evict(TwoLevelCache<?> cache, String kind, Long id) {
+        cache.evict(id);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, kind + ":" + id);
+        } catch (RuntimeException e) {
+            // Diğer node'lar L1 TTL dolunca güncel kaydı görür
+            log.warn("Could not broadcast {} {} invalidation: {}", kind, id, e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
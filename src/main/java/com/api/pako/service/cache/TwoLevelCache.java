@@ -0,0 +1,201 @@
+package com.api.pako.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache keyed by entity id: an in-process Caffeine map (L1) in front of
+ * Redis (L2) in front of the loader.
+ * <p>
+ * L1 entries live only a few seconds, so a node that missed an invalidation converges on
+ * its own. Redis is optional: without a template, or while Redis is unreachable, lookups
+ * go straight from L1 to the loader. L1 statistics are published through Micrometer's
+ * Caffeine binder ({@code cache.gets{cache=..., result=hit|miss}}), L2 lookups as
+ * {@code cache.l2.gets{cache=..., result=hit|miss|error}}.
+ * <p>
+ * Every eviction bumps a version key next to the entry. A reader remembers the version it saw
+ * on its L2 miss and only stores what it loaded if the version is unchanged, so a row read
+ * before the writer committed cannot land in Redis after the writer's eviction.
+ */
+@Slf4j
+public class TwoLevelCache<V> {
+
+    /** Store the loaded value only if no eviction happened since the reader's miss */
+    private static final RedisScript<Long> WRITE_IF_UNCHANGED = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> EVICT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final String name;
+    private final Class<V> type;
+    private final Cache<Long, V> local;
+    private final StringRedisTemplate redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final Duration remoteTtl;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteErrors;
+
+    public TwoLevelCache(String name, Class<V> type, long maxSize, Duration localTtl,
+                         StringRedisTemplate redisTemplate, JsonMapper jsonMapper, Duration remoteTtl,
+                         MeterRegistry meterRegistry) {
+        this.name = name;
+        this.type = type;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.remoteTtl = remoteTtl;
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name);
+        this.remoteHits = remoteCounter(meterRegistry, "hit");
+        this.remoteMisses = remoteCounter(meterRegistry, "miss");
+        this.remoteErrors = remoteCounter(meterRegistry, "error");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the cached value, loading and storing it on a miss in both levels
+     */
+    public Optional<V> get(Long id, Function<Long, Optional<V>> loader) {
+        V value = local.getIfPresent(id);
+        if (value != null) {
+            return Optional.of(value);
+        }
+
+        RemoteEntry<V> remote = readRemote(id);
+        value = remote.value();
+        if (value == null) {
+            Optional<V> loaded = loader.apply(id);
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            value = loaded.get();
+            if (!writeRemote(id, value, remote.version())) {
+                // Yükleme sırasında evict edildi; değer eski olabilir, cache'e yazma
+                return Optional.of(value);
+            }
+        }
+        local.put(id, value);
+        return Optional.of(value);
+    }
+
+    /**
+     * Drop the entry from both levels and invalidate loads that are still in flight
+     */
+    public void evict(Long id) {
+        local.invalidate(id);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(EVICT, List.of(key(id), versionKey(id)), String.valueOf(remoteTtl.toMillis()));
+        } catch (RuntimeException e) {
+            // Redis'teki kopya en geç TTL sonunda düşer
+            log.warn("Could not evict {} from L2 cache {}: {}", id, name, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the entry from this node's L1 only (peer invalidation)
+     */
+    public void evictLocal(Long id) {
+        local.invalidate(id);
+    }
+
+    public void clear() {
+        local.invalidateAll();
+    }
+
+    /**
+     * Entry and its version in one round trip; a null version means Redis was not consulted
+     */
+    private RemoteEntry<V> readRemote(Long id) {
+        if (redisTemplate == null) {
+            return RemoteEntry.none();
+        }
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(key(id), versionKey(id)));
+            String json = values == null ? null : values.get(0);
+            String version = values == null || values.get(1) == null ? "0" : values.get(1);
+            if (json == null) {
+                remoteMisses.increment();
+                return new RemoteEntry<>(null, version);
+            }
+            remoteHits.increment();
+            return new RemoteEntry<>(jsonMapper.readValue(json, type), version);
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.debug("L2 cache {} unavailable for {}: {}", name, id, e.getMessage());
+            return RemoteEntry.none();
+        }
+    }
+
+    /**
+     * @return false if the entry was evicted since {@code version} was read
+     */
+    private boolean writeRemote(Long id, V value, String version) {
+        if (redisTemplate == null || version == null) {
+            return true;
+        }
+        try {
+            Long written = redisTemplate.execute(WRITE_IF_UNCHANGED, List.of(key(id), versionKey(id)),
+                    version, jsonMapper.writeValueAsString(value), String.valueOf(remoteTtl.toMillis()));
+            return written == null || written == 1L;
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            log.debug("Could not store {} in L2 cache {}: {}", id, name, e.getMessage());
+            return true;
+        }
+    }
+
+    private String key(Long id) {
+        return "cache:" + name + ":" + id;
+    }
+
+    private String versionKey(Long id) {
+        return key(id) + ":version";
+    }
+
+    private record RemoteEntry<V>(V value, String version) {
+        static <V> RemoteEntry<V> none() {
+            return new RemoteEntry<>(null, null);
+        }
+    }
+
+    private Counter remoteCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cache.l2.gets")
+                .description("Lookups that reached the Redis level of a two-level cache")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,57 @@
+package com.api.pako.service.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Responses of requests sent with an {@code Idempotency-Key}, kept for a TTL.
+ * <p>
+ * The first request with a key claims it and executes; the others with the same key wait
+ * for its response and replay it. A key reused with a different request is a mismatch.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Response to replay for a key
+     */
+    record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    enum ClaimStatus {
+        /** The caller owns the key and must {@link #complete} or {@link #release} it */
+        OWNER,
+        /** A stored response is available */
+        REPLAY,
+        /** Another request with the key is still running after the wait */
+        IN_PROGRESS,
+        /** The key was used for a different request */
+        MISMATCH
+    }
+
+    record Claim(ClaimStatus status, StoredResponse response) {
+
+        static Claim of(ClaimStatus status) {
+            return new Claim(status, null);
+        }
+
+        static Claim replay(StoredResponse response) {
+            return new Claim(ClaimStatus.REPLAY, response);
+        }
+    }
+
+    /**
+     * Claim the key, or wait up to {@code wait} for the request that holds it
+     *
+     * @param fingerprint hash of the request the key was sent with
+     */
+    Claim claim(String key, String fingerprint, Duration wait);
+
+    /**
+     * Store the owner's response and wake up waiting duplicates
+     */
+    void complete(String key, String fingerprint, StoredResponse response);
+
+    /**
+     * Give the key up without a response (failed request); the next request with it executes again
+     */
+    void release(String key);
+}
@@ -0,0 +1,113 @@
+package com.api.pako.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-node store: duplicates in flight wait on the owner's future.
+ * <p>
+ * Entries are weighed by the bytes they hold (key, fingerprint, stored body) and evicted
+ * beyond {@code idempotency.memory.max-weight-bytes}, so a burst of keyed requests cannot
+ * exhaust the heap. A retry whose key was evicted simply executes again. In-flight entries
+ * weigh nothing until they complete, so size eviction never drops a key while duplicates
+ * are waiting on it; their number is bounded by the requests actually running.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    // Nesne başlıkları ve future için kaba bir pay
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private static final class Entry {
+        final String fingerprint;
+        // null ile tamamlanırsa anahtar bırakılmıştır
+        final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        int weight(String key) {
+            if (!result.isDone()) {
+                // Caffeine sıfır ağırlıklı girdileri boyuttan dolayı atmaz
+                return 0;
+            }
+            StoredResponse response = result.getNow(null);
+            return ENTRY_OVERHEAD_BYTES + 2 * (key.length() + fingerprint.length())
+                    + (response != null ? response.body().length : 0);
+        }
+    }
+
+    private final Cache<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${idempotency.ttl-seconds:3600}") long ttlSeconds,
+                                    @Value("${idempotency.memory.max-weight-bytes:67108864}") long maxWeightBytes) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String key, Entry entry) -> entry.weight(key))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            long now = System.nanoTime();
+            Entry existing = entries.asMap().putIfAbsent(key, new Entry(fingerprint));
+            if (existing == null) {
+                return Claim.of(ClaimStatus.OWNER);
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return Claim.of(ClaimStatus.MISMATCH);
+            }
+            try {
+                StoredResponse response = existing.result.get(Math.max(0, deadline - now), TimeUnit.NANOSECONDS);
+                if (response != null) {
+                    return Claim.replay(response);
+                }
+                // Sahibi başarısız oldu; anahtarı yeniden almayı dene
+            } catch (TimeoutException e) {
+                return Claim.of(ClaimStatus.IN_PROGRESS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Claim.of(ClaimStatus.IN_PROGRESS);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, StoredResponse response) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null) {
+            entry.result.complete(response);
+            // Yeniden yazmak ağırlığı gövdeyle günceller ve TTL'i tamamlanma anından başlatır
+            entries.asMap().replace(key, entry, entry);
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        Entry entry = entries.asMap().remove(key);
+        if (entry != null) {
+            entry.result.complete(null);
+        }
+    }
+
+    long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+}
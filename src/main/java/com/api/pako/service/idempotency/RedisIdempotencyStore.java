@@ -0,0 +1,93 @@
+package com.api.pako.service.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+/**
+ * Cluster-wide store: the key is claimed with SET NX, so a duplicate that lands on another
+ * node also waits for the single execution. Waiting duplicates poll Redis until the owner
+ * stores its response, releases the key or the wait runs out.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "redis")
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    /**
+     * Value stored under a key; response fields are null while the owner is running
+     */
+    record Entry(String fingerprint, Integer status, String contentType, byte[] body) {
+
+        boolean isComplete() {
+            return status != null;
+        }
+    }
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final StringRedisTemplate redisTemplate;
+    private final JsonMapper jsonMapper;
+    private final Duration ttl;
+    private final Duration lease;
+
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate,
+                                 JsonMapper jsonMapper,
+                                 @Value("${idempotency.ttl-seconds:3600}") long ttlSeconds,
+                                 @Value("${idempotency.redis.lease-seconds:60}") long leaseSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.jsonMapper = jsonMapper;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    @Override
+    public Claim claim(String key, String fingerprint, Duration wait) {
+        String redisKey = redisKey(key);
+        String pending = jsonMapper.writeValueAsString(new Entry(fingerprint, null, null, null));
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            // Kısa kira: sahibi çökerse anahtar kendiliğinden serbest kalır
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(redisKey, pending, lease))) {
+                return Claim.of(ClaimStatus.OWNER);
+            }
+            String json = redisTemplate.opsForValue().get(redisKey);
+            if (json != null) {
+                Entry entry = jsonMapper.readValue(json, Entry.class);
+                if (!entry.fingerprint().equals(fingerprint)) {
+                    return Claim.of(ClaimStatus.MISMATCH);
+                }
+                if (entry.isComplete()) {
+                    return Claim.replay(new StoredResponse(entry.status(), entry.contentType(), entry.body()));
+                }
+            }
+            if (System.nanoTime() - deadline > 0) {
+                return Claim.of(ClaimStatus.IN_PROGRESS);
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Claim.of(ClaimStatus.IN_PROGRESS);
+            }
+        }
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, StoredResponse response) {
+        Entry entry = new Entry(fingerprint, response.status(), response.contentType(), response.body());
+        redisTemplate.opsForValue().set(redisKey(key), jsonMapper.writeValueAsString(entry), ttl);
+    }
+
+    @Override
+    public void release(String key) {
+        redisTemplate.delete(redisKey(key));
+    }
+
+    private static String redisKey(String key) {
+        return "idempotency:" + key;
+    }
+}
@@ -0,0 +1,25 @@
+package com.api.pako.service.notification;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-node delivery through the in-memory simple broker.
+ * Only reaches sessions connected to this JVM.
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "local", matchIfMissing = true)
+public class LocalUserNotificationSender implements UserNotificationSender {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public LocalUserNotificationSender(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @Override
+    public void sendToUser(String user, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(user, destination, payload);
+    }
+}
@@ -0,0 +1,193 @@
+package com.api.pako.service.notification;
+
+import com.api.pako.event.UserNotificationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outbound WebSocket notification pipeline.
+ * <p>
+ * Notifications are taken only after the publishing transaction commits, so couriers never hear
+ * about assignments that roll back, and socket writes never hold a database transaction open.
+ * Each user has its own FIFO queue drained by one virtual thread at a time: a burst for one user
+ * is delivered in order by a single task, and queued messages with the same coalesce key are
+ * replaced by the newest one. The total number of queued messages is bounded; when full, new
+ * messages are dropped and counted.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    /**
+     * Queued message; the event is swapped in place when a newer one with the same key arrives.
+     * Only touched inside the map's compute functions.
+     */
+    private static final class Pending {
+        private UserNotificationEvent event;
+        private final long enqueuedAtNanos;
+
+        private Pending(UserNotificationEvent event, long enqueuedAtNanos) {
+            this.event = event;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+    }
+
+    private final UserNotificationSender sender;
+    private final int capacity;
+    private final Semaphore permits;
+
+    /**
+     * An entry exists exactly while a drain task is running for that user
+     */
+    private final Map<String, ArrayDeque<Pending>> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter droppedCounter;
+    private final Counter coalescedCounter;
+    private final Counter failedCounter;
+    private final Timer deliveryTimer;
+
+    public NotificationDispatcher(UserNotificationSender sender,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${websocket.notification.queue-capacity:10000}") int capacity,
+                                  @Value("${websocket.notification.max-concurrency:32}") int maxConcurrency) {
+        this.sender = sender;
+        this.capacity = capacity;
+        this.permits = new Semaphore(maxConcurrency);
+        meterRegistry.gauge("websocket.notification.queue.depth", depth);
+        this.droppedCounter = meterRegistry.counter("websocket.notification.dropped");
+        this.coalescedCounter = meterRegistry.counter("websocket.notification.coalesced");
+        this.failedCounter = meterRegistry.counter("websocket.notification.failed");
+        this.deliveryTimer = meterRegistry.timer("websocket.notification.delivery");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotification(UserNotificationEvent event) {
+        enqueue(event);
+    }
+
+    /**
+     * @return false if the queue is full and the notification was dropped
+     */
+    public boolean enqueue(UserNotificationEvent event) {
+        Pending pending = new Pending(event, System.nanoTime());
+        boolean[] accepted = {true};
+        boolean[] startDrain = {false};
+
+        queues.compute(event.user(), (user, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                startDrain[0] = true;
+            } else if (replace(queue, pending)) {
+                return queue;
+            }
+            if (depth.get() >= capacity) {
+                accepted[0] = false;
+                startDrain[0] = false;
+                return queue.isEmpty() ? null : queue;
+            }
+            queue.addLast(pending);
+            depth.incrementAndGet();
+            return queue;
+        });
+
+        if (!accepted[0]) {
+            droppedCounter.increment();
+            log.warn("Notification queue full ({}), dropping message to user {} at {}",
+                    capacity, event.user(), event.destination());
+            return false;
+        }
+        if (startDrain[0]) {
+            executor.execute(() -> drain(event.user()));
+        }
+        return true;
+    }
+
+    /**
+     * Number of notifications waiting to be sent
+     */
+    public int queueDepth() {
+        return depth.get();
+    }
+
+    private boolean replace(ArrayDeque<Pending> queue, Pending pending) {
+        String key = pending.event.coalesceKey();
+        if (key == null) {
+            return false;
+        }
+        for (Iterator<Pending> it = queue.descendingIterator(); it.hasNext(); ) {
+            Pending queued = it.next();
+            if (Objects.equals(key, queued.event.coalesceKey())) {
+                // Kuyruktaki yeri korunur, içerik en yenisiyle değişir
+                queued.event = pending.event;
+                coalescedCounter.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain(String user) {
+        permits.acquireUninterruptibly();
+        try {
+            Pending next;
+            while ((next = poll(user)) != null) {
+                deliver(next);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Next message of the user; removes the queue (ending the drain) once it is empty
+     */
+    private Pending poll(String user) {
+        Pending[] next = new Pending[1];
+        queues.computeIfPresent(user, (key, queue) -> {
+            next[0] = queue.pollFirst();
+            return next[0] == null ? null : queue;
+        });
+        if (next[0] != null) {
+            depth.decrementAndGet();
+        }
+        return next[0];
+    }
+
+    private void deliver(Pending pending) {
+        UserNotificationEvent event = pending.event;
+        try {
+            sender.sendToUser(event.user(), event.destination(), event.payload());
+            deliveryTimer.record(System.nanoTime() - pending.enqueuedAtNanos, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Failed to send WebSocket notification to user {} at {}: {}",
+                    event.user(), event.destination(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Kuyruktaki mesajlar teslim edilene kadar bekler
+        executor.close();
+    }
+}
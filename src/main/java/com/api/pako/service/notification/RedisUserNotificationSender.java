@@ -0,0 +1,77 @@
+package com.api.pako.service.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Cluster-wide delivery over Redis pub/sub.
+ * <p>
+ * Every node publishes user messages to one channel and every node (the sender included)
+ * subscribes to it; a node hands a message to its local simple broker only when the user
+ * has a session on that node. Redis pub/sub is fire-and-forget, so a node that is
+ * disconnected from Redis misses messages exactly like a dropped WebSocket would.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "redis")
+public class RedisUserNotificationSender implements UserNotificationSender, MessageListener {
+
+    /**
+     * Wire format on the channel
+     */
+    record Envelope(String user, String destination, JsonNode payload) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final JsonMapper jsonMapper;
+    private final String channel;
+
+    public RedisUserNotificationSender(StringRedisTemplate redisTemplate,
+                                       SimpMessagingTemplate messagingTemplate,
+                                       SimpUserRegistry userRegistry,
+                                       JsonMapper jsonMapper,
+                                       @Value("${websocket.broker.redis.channel:ws:user-notifications}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+        this.jsonMapper = jsonMapper;
+        this.channel = channel;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void sendToUser(String user, String destination, Object payload) {
+        Envelope envelope = new Envelope(user, destination, jsonMapper.valueToTree(payload));
+        redisTemplate.convertAndSend(channel, jsonMapper.writeValueAsString(envelope));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Envelope envelope;
+        try {
+            envelope = jsonMapper.readValue(message.getBody(), Envelope.class);
+        } catch (Exception e) {
+            log.warn("Dropping malformed notification on {}: {}", channel, e.getMessage());
+            return;
+        }
+        // Kullanıcı bu node'a bağlı değilse mesaj başka bir node'da teslim edilir
+        if (userRegistry.getUser(envelope.user()) == null) {
+            return;
+        }
+        messagingTemplate.convertAndSendToUser(envelope.user(), envelope.destination(), envelope.payload());
+    }
+}
@@ -0,0 +1,15 @@
+package com.api.pako.service.notification;
+
+/**
+ * Delivers a STOMP message to every WebSocket session of a user, whichever node it is connected to.
+ * The implementation is chosen with {@code websocket.broker.mode}.
+ */
+public interface UserNotificationSender {
+
+    /**
+     * @param user        user name of the STOMP principal (the courier or business id)
+     * @param destination user destination, e.g. {@code /queue/assignments}
+     * @param payload     message body, serialized as JSON
+     */
+    void sendToUser(String user, String destination, Object payload);
+}
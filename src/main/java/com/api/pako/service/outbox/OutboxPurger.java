@@ -0,0 +1,43 @@
+package com.api.pako.service.outbox;
+
+import com.api.pako.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Deletes published outbox rows once they are older than {@code outbox.retention-hours}.
+ * Runs whether or not the relay is enabled, so rows published before the relay was
+ * switched off are still cleaned up.
+ */
+@Slf4j
+@Component
+public class OutboxPurger {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionOperations transactionOperations;
+    private final Duration retention;
+
+    public OutboxPurger(OutboxEventRepository outboxEventRepository,
+                        TransactionOperations transactionOperations,
+                        @Value("${outbox.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionOperations = transactionOperations;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        Integer deleted = transactionOperations.execute(status ->
+                outboxEventRepository.deletePublishedBefore(OffsetDateTime.now(ZoneOffset.UTC).minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published outbox events", deleted);
+        }
+    }
+}
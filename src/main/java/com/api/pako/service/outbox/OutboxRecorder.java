@@ -0,0 +1,119 @@
+package com.api.pako.service.outbox;
+
+import com.api.pako.event.AssignmentClosedEvent;
+import com.api.pako.event.AssignmentCreatedEvent;
+import com.api.pako.event.OrderStatusChangedEvent;
+import com.api.pako.model.OutboxEvent;
+import com.api.pako.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes domain events into the outbox inside the transaction that publishes them.
+ * <p>
+ * Listeners are synchronous, so they run in the caller's transaction. Rows are collected
+ * per transaction and inserted as one JDBC batch just before commit. A bulk order creation
+ * therefore costs one round trip, and the rows commit or roll back with the change itself.
+ * <p>
+ * Only active with {@code outbox.relay.enabled}: without a relay nothing would ever publish
+ * (and so purge) the rows, and the table would only grow.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true")
+public class OutboxRecorder {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JsonMapper jsonMapper;
+
+    public OutboxRecorder(OutboxEventRepository outboxEventRepository, JsonMapper jsonMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", event.orderId());
+        payload.put("businessId", event.businessId());
+        payload.put("courierId", event.courierId());
+        payload.put("previousStatus", event.previousStatus());
+        payload.put("status", event.status());
+        record(OutboxEvent.AGGREGATE_ORDER, event.orderId(),
+                event.previousStatus() == null ? "ORDER_CREATED" : "ORDER_STATUS_CHANGED", payload);
+    }
+
+    @EventListener
+    public void onAssignmentCreated(AssignmentCreatedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("assignmentId", event.assignmentId());
+        payload.put("orderId", event.orderId());
+        payload.put("courierId", event.courierId());
+        payload.put("timeoutAt", event.timeoutAt());
+        record(OutboxEvent.AGGREGATE_ASSIGNMENT, event.assignmentId(), "ASSIGNMENT_CREATED", payload);
+    }
+
+    @EventListener
+    public void onAssignmentClosed(AssignmentClosedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("assignmentId", event.assignmentId());
+        payload.put("orderId", event.orderId());
+        payload.put("courierId", event.courierId());
+        payload.put("status", event.status());
+        record(OutboxEvent.AGGREGATE_ASSIGNMENT, event.assignmentId(), "ASSIGNMENT_" + event.status(), payload);
+    }
+
+    private void record(String aggregateType, Long aggregateId, String eventType, Map<String, Object> payload) {
+        payload.put("eventType", eventType);
+        payload.put("occurredAt", OffsetDateTime.now(ZoneOffset.UTC));
+        OutboxEvent event = new OutboxEvent(aggregateType, aggregateId, eventType, jsonMapper.writeValueAsString(payload));
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Olmaması gerekir; yine de olay kaybolmasın
+            log.warn("{} for {} {} recorded outside a transaction", eventType, aggregateType, aggregateId);
+            outboxEventRepository.insertAll(List.of(event));
+            return;
+        }
+        currentBatch().events.add(event);
+    }
+
+    /**
+     * Batch of the current transaction. Kept as a synchronization (not a bound resource)
+     * so REQUIRES_NEW transactions get their own batch.
+     */
+    private PendingBatch currentBatch() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBatch batch && batch.owner() == this) {
+                return batch;
+            }
+        }
+        PendingBatch batch = new PendingBatch();
+        TransactionSynchronizationManager.registerSynchronization(batch);
+        return batch;
+    }
+
+    private final class PendingBatch implements TransactionSynchronization {
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        private OutboxRecorder owner() {
+            return OutboxRecorder.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            outboxEventRepository.insertAll(events);
+        }
+    }
+}
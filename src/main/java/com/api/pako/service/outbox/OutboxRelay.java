@@ -0,0 +1,147 @@
+package com.api.pako.service.outbox;
+
+import com.api.pako.model.OutboxEvent;
+import com.api.pako.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes outbox rows to Kafka.
+ * <p>
+ * Each batch takes a Postgres advisory lock, so only one relay across all nodes publishes
+ * at a time, then locks the oldest unpublished rows, sends them all, waits for the broker acknowledgements and marks them
+ * published in the same transaction. If a send fails the transaction rolls back and the
+ * batch is retried on the next run, so delivery is at-least-once; consumers de-duplicate
+ * with the {@code event-id} header. The producer is idempotent, which keeps broker-side
+ * retries from duplicating records or reordering records with the same key.
+ * <p>
+ * {@link OutboxRecorder} only exists alongside the relay; published rows are removed by {@link OutboxPurger}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true")
+public class OutboxRelay {
+
+    static final long RELAY_LOCK_KEY = 0x6F7574626F78L; // "outbox"
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+    private final String orderTopic;
+    private final String assignmentTopic;
+    private final Duration sendTimeout;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       TransactionOperations transactionOperations,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.topic.order:courier.order-events}") String orderTopic,
+                       @Value("${outbox.topic.assignment:courier.assignment-events}") String assignmentTopic,
+                       @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = batchSize;
+        this.orderTopic = orderTopic;
+        this.assignmentTopic = assignmentTopic;
+        this.sendTimeout = Duration.ofMillis(sendTimeoutMs);
+        meterRegistry.gauge("outbox.relay.pending", pending);
+        meterRegistry.gauge("outbox.relay.lag.seconds", lagSeconds);
+        this.publishedCounter = meterRegistry.counter("outbox.relay.published");
+        this.failedCounter = meterRegistry.counter("outbox.relay.failed");
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = publishBatch();
+            } while (published == batchSize);
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Outbox relay failed, batch will be retried: {}", e.getMessage());
+        } finally {
+            updateLag();
+        }
+    }
+
+    /**
+     * Publish one batch
+     *
+     * @return number of events published
+     */
+    public int publishBatch() {
+        Integer published = transactionOperations.execute(status -> {
+            if (!outboxEventRepository.tryLockRelay(RELAY_LOCK_KEY)) {
+                return 0;
+            }
+            List<OutboxEvent> batch = outboxEventRepository.lockUnpublished(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            CompletableFuture<?>[] acks = batch.stream()
+                    .map(event -> kafkaTemplate.send(toRecord(event)))
+                    .toArray(CompletableFuture[]::new);
+            try {
+                CompletableFuture.allOf(acks).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+            } catch (Exception e) {
+                throw new IllegalStateException("Kafka did not acknowledge outbox batch", e);
+            }
+            outboxEventRepository.markPublished(batch.stream().map(OutboxEvent::getId).toList(),
+                    OffsetDateTime.now(ZoneOffset.UTC));
+            return batch.size();
+        });
+        int count = published == null ? 0 : published;
+        publishedCounter.increment(count);
+        return count;
+    }
+
+    private ProducerRecord<String, String> toRecord(OutboxEvent event) {
+        String topic = OutboxEvent.AGGREGATE_ORDER.equals(event.getAggregateType()) ? orderTopic : assignmentTopic;
+        // Aynı aggregate'in olayları aynı partition'a düşer; batch'ler tek relay'den sırayla çıktığı için sıra korunur
+        ProducerRecord<String, String> record = new ProducerRecord<>(
+                topic, String.valueOf(event.getAggregateId()), event.getPayload());
+        record.headers().add("event-id", String.valueOf(event.getId()).getBytes(StandardCharsets.UTF_8));
+        record.headers().add("event-type", event.getEventType().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private void updateLag() {
+        try {
+            pending.set(outboxEventRepository.countByPublishedAtIsNull());
+            lagSeconds.set(outboxEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc()
+                    .map(oldest -> Duration.between(oldest.getCreatedAt(), OffsetDateTime.now(ZoneOffset.UTC)).toSeconds())
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.warn("Could not read outbox lag: {}", e.getMessage());
+        }
+    }
+}
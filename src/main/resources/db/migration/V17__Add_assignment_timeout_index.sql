@@ -0,0 +1,15 @@
+-- V17: Support the assignment timeout scheduler
+-- Timers are rebuilt from PENDING assignments on startup and a low-frequency sweep
+-- looks for overdue ones, so index only the rows those queries touch.
+
+CREATE INDEX IF NOT EXISTS idx_order_assignments_pending_timeout
+    ON order_assignments(timeout_at)
+    WHERE status = 'PENDING';
+
+-- Reassignments are stored with the AssignmentType enum name (REASSIGNMENT),
+-- which the original check constraint did not allow.
+ALTER TABLE order_assignments DROP CONSTRAINT IF EXISTS chk_assignment_type;
+ALTER TABLE order_assignments ADD CONSTRAINT chk_assignment_type
+    CHECK (assignment_type IN ('AUTO', 'MANUAL', 'REASSIGN', 'REASSIGNMENT'));
+
+COMMENT ON COLUMN order_assignments.assignment_type IS 'How the assignment was made: AUTO, MANUAL, REASSIGNMENT';
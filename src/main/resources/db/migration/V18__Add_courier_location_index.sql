@@ -0,0 +1,9 @@
+-- V18: Spatial index for proximity-based order assignment
+-- Built-in point type + GiST supports KNN ordering (<->) without requiring the PostGIS extension.
+-- Distances are in degrees, which is close enough for picking the nearest courier within a city.
+
+CREATE INDEX IF NOT EXISTS idx_couriers_current_location
+    ON couriers USING GIST (point(current_longitude, current_latitude))
+    WHERE current_latitude IS NOT NULL AND current_longitude IS NOT NULL;
+
+COMMENT ON INDEX idx_couriers_current_location IS 'KNN index for nearest-available courier assignment';
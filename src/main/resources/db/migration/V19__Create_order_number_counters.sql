@@ -0,0 +1,20 @@
+-- V19: Per-day counters for order numbers (ORD-YYYYMMDD-NNN)
+-- Replaces probing orders.order_number for a free value; application nodes reserve
+-- blocks of numbers with a single upsert, so generation is O(1) and collision-free.
+
+CREATE TABLE IF NOT EXISTS order_number_counters (
+    day DATE PRIMARY KEY,
+    last_value INTEGER NOT NULL
+);
+
+-- Seed from existing orders so new numbers continue after the highest one of each day
+INSERT INTO order_number_counters (day, last_value)
+SELECT to_date(substring(order_number FROM 5 FOR 8), 'YYYYMMDD'),
+       MAX(CAST(substring(order_number FROM 14) AS INTEGER))
+  FROM orders
+ WHERE order_number ~ '^ORD-[0-9]{8}-[0-9]+$'
+ GROUP BY 1
+ON CONFLICT (day) DO NOTHING;
+
+COMMENT ON TABLE order_number_counters IS 'Last reserved order number sequence per day';
+COMMENT ON COLUMN order_number_counters.last_value IS 'Highest sequence reserved so far; numbers may be skipped but never reused';
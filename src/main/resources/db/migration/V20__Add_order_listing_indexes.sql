@@ -0,0 +1,8 @@
+-- V20: Composite indexes for keyset-paginated business order listing
+-- Rows are read newest first by (created_at, id); the status variant serves the most common filter.
+
+CREATE INDEX IF NOT EXISTS idx_orders_business_created
+    ON orders (business_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_orders_business_status_created
+    ON orders (business_id, status, created_at DESC, id DESC);
@@ -0,0 +1,65 @@
+-- V21: Per-business order counters by status
+-- Maintained by triggers on orders so every write path (JPA, JDBC batch, bulk updates)
+-- keeps them exact; statistics reads become a primary-key lookup instead of COUNTs over orders.
+
+CREATE TABLE IF NOT EXISTS business_order_stats (
+    business_id BIGINT NOT NULL REFERENCES businesses(id) ON DELETE CASCADE,
+    status order_status NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (business_id, status)
+);
+
+-- Backfill from existing orders
+INSERT INTO business_order_stats (business_id, status, order_count)
+SELECT business_id, status, COUNT(*)
+  FROM orders
+ WHERE business_id IS NOT NULL
+ GROUP BY business_id, status
+ON CONFLICT (business_id, status) DO UPDATE SET order_count = EXCLUDED.order_count;
+
+CREATE OR REPLACE FUNCTION maintain_business_order_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.business_id IS NOT NULL THEN
+        UPDATE business_order_stats
+           SET order_count = order_count - 1
+         WHERE business_id = OLD.business_id AND status = OLD.status;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.business_id IS NOT NULL THEN
+        INSERT INTO business_order_stats (business_id, status, order_count)
+        VALUES (NEW.business_id, NEW.status, 1)
+        ON CONFLICT (business_id, status) DO UPDATE SET order_count = business_order_stats.order_count + 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION reset_business_order_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    DELETE FROM business_order_stats;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_orders_business_stats ON orders;
+CREATE TRIGGER trg_orders_business_stats
+    AFTER INSERT OR DELETE ON orders
+    FOR EACH ROW
+    EXECUTE FUNCTION maintain_business_order_stats();
+
+-- Hibernate rewrites every column on update; only real moves touch the counters
+DROP TRIGGER IF EXISTS trg_orders_business_stats_update ON orders;
+CREATE TRIGGER trg_orders_business_stats_update
+    AFTER UPDATE OF status, business_id ON orders
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status OR OLD.business_id IS DISTINCT FROM NEW.business_id)
+    EXECUTE FUNCTION maintain_business_order_stats();
+
+DROP TRIGGER IF EXISTS trg_orders_business_stats_truncate ON orders;
+CREATE TRIGGER trg_orders_business_stats_truncate
+    AFTER TRUNCATE ON orders
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION reset_business_order_stats();
+
+COMMENT ON TABLE business_order_stats IS 'Order count per business and status, maintained by triggers on orders';
@@ -0,0 +1,27 @@
+-- V22: Transactional outbox for order and assignment events
+-- Rows are written in the same transaction as the change they describe and published
+-- to Kafka by OutboxRelay; published rows are purged after a retention period.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(30) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMP WITH TIME ZONE
+);
+
+-- The relay only ever scans unpublished rows in id order
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unpublished
+    ON outbox_events (id)
+    WHERE published_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published_at
+    ON outbox_events (published_at)
+    WHERE published_at IS NOT NULL;
+
+COMMENT ON TABLE outbox_events IS 'Order and assignment events waiting to be (or already) published to Kafka';
+COMMENT ON COLUMN outbox_events.aggregate_type IS 'ORDER or ASSIGNMENT; selects the Kafka topic';
+COMMENT ON COLUMN outbox_events.aggregate_id IS 'Order or assignment id; used as the Kafka record key';
+COMMENT ON COLUMN outbox_events.published_at IS 'Set once the broker acknowledged the record; NULL while pending';
@@ -0,0 +1,25 @@
+-- V23: One login lookup across user types
+-- Couriers and businesses keep their own tables; the view exposes only what login needs.
+-- A lookup by email is pushed down into both branches and served by their unique email
+-- indexes (couriers.email, unique_business_email), so it costs one round trip.
+
+CREATE OR REPLACE VIEW user_credentials AS
+SELECT 'COURIER'::VARCHAR(20)                  AS user_type,
+       c.id,
+       c.email,
+       c.name,
+       c.password_hash,
+       c.status::VARCHAR(50)                   AS status,
+       c.status = 'ONLINE'                     AS can_login
+FROM couriers c
+UNION ALL
+SELECT 'BUSINESS'::VARCHAR(20)                 AS user_type,
+       b.id,
+       b.email,
+       b.name,
+       b.password_hash,
+       b.status::VARCHAR(50)                   AS status,
+       b.status = 'ACTIVE' AND COALESCE(b.is_active, FALSE) AS can_login
+FROM businesses b;
+
+COMMENT ON VIEW user_credentials IS 'Login credentials of couriers and businesses, looked up by email';
@@ -0,0 +1,11 @@
+-- V25: Pooled ID sequences for the high-volume tables
+-- IDENTITY ids force Hibernate to send every INSERT on its own to read the generated key, which
+-- disables JDBC batching. The entities now take ids from these sequences in blocks of 50
+-- (pooled-lo: one nextval covers ids [value, value + 49]); the increment must stay equal to
+-- allocationSize on the entity. Plain SQL inserts keep working through the column default:
+-- each nextval reserves a whole block, so ids become sparse but never collide.
+
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_assignments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE on_duty_couriers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE shifts_shift_id_seq INCREMENT BY 50;
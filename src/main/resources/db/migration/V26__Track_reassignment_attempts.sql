@@ -0,0 +1,18 @@
+-- V26: Rotate the timeout sweep's reassignment retries
+-- The sweep retries PENDING orders left without a pending assignment, one batch per run.
+-- Each claim stamps last_reassign_attempt_at and the next run starts with the orders tried
+-- least recently, so orders beyond the first batch are retried too while no courier is free.
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS last_reassign_attempt_at TIMESTAMP WITH TIME ZONE;
+
+-- Candidate scan: only PENDING orders, already in claim order
+CREATE INDEX IF NOT EXISTS idx_orders_pending_reassign_attempt
+    ON orders (last_reassign_attempt_at NULLS FIRST, id)
+    WHERE status = 'PENDING';
+
+-- Per-candidate probes for a timed out and for a still pending assignment
+CREATE INDEX IF NOT EXISTS idx_order_assignments_open_or_timed_out
+    ON order_assignments (order_id, status)
+    WHERE status IN ('PENDING', 'TIMEOUT');
+
+COMMENT ON COLUMN orders.last_reassign_attempt_at IS 'When the timeout sweep last claimed the order for reassignment; NULL if never';
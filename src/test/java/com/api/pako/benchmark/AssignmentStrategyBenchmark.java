@@ -0,0 +1,163 @@
+package com.api.pako.benchmark;
+
+import com.api.pako.INeedCourierApplication;
+import com.api.pako.model.Business;
+import com.api.pako.model.Order;
+import com.api.pako.service.CourierGeoIndex;
+import com.api.pako.service.OnDutyService;
+import com.api.pako.service.assignment.AssignmentStrategy;
+import com.api.pako.service.assignment.FifoAssignmentStrategy;
+import com.api.pako.service.assignment.NearestAvailableAssignmentStrategy;
+import com.api.pako.service.cache.ProfileCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assignment latency of FIFO vs nearest-available with N on-duty couriers spread over Istanbul.
+ * Each invocation claims a courier for a random pickup point and rolls back, so the queue
+ * is identical for every call. Requires Docker (Testcontainers).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AssignmentStrategyBenchmark {
+
+    private static final double MIN_LAT = 40.80;
+    private static final double MAX_LAT = 41.20;
+    private static final double MIN_LON = 28.60;
+    private static final double MAX_LON = 29.40;
+    private static final int BUSINESSES = 200;
+
+    @Param({"10000"})
+    public int onDutyCouriers;
+
+    private PostgreSQLContainer postgres;
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private AssignmentStrategy fifo;
+    private AssignmentStrategy nearest;
+    private List<Long> businessIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer(
+                DockerImageName.parse("postgis/postgis:17-3.6-alpine").asCompatibleSubstituteFor("postgres"));
+        postgres.start();
+
+        context = new SpringApplicationBuilder(INeedCourierApplication.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.docker.compose.enabled=false",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+
+        seed(context.getBean(JdbcTemplate.class));
+        businessIds = context.getBean(JdbcTemplate.class)
+                .queryForList("SELECT id FROM businesses WHERE business_code LIKE 'BENCH-%'", Long.class);
+
+        OnDutyService onDutyService = context.getBean(OnDutyService.class);
+        onDutyService.rebuildQueue();
+        fifo = new FifoAssignmentStrategy(onDutyService);
+        nearest = new NearestAvailableAssignmentStrategy(onDutyService, context.getBean(CourierGeoIndex.class),
+                context.getBean(ProfileCache.class));
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public Object fifo() {
+        return claim(fifo);
+    }
+
+    @Benchmark
+    public Object nearest() {
+        return claim(nearest);
+    }
+
+    private Object claim(AssignmentStrategy strategy) {
+        Order order = randomPickupOrder();
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return strategy.claimCourier(order, null).orElseThrow();
+        });
+    }
+
+    private Order randomPickupOrder() {
+        Business business = new Business();
+        business.setId(businessIds.get(ThreadLocalRandom.current().nextInt(businessIds.size())));
+        Order order = new Order();
+        order.setBusiness(business);
+        return order;
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Object[]> couriers = new ArrayList<>(onDutyCouriers);
+        for (int i = 0; i < onDutyCouriers; i++) {
+            couriers.add(new Object[]{
+                    "Bench Courier " + i, "bench-" + i + "@courier.local", String.format("0500%07d", i),
+                    random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON)});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO couriers (name, email, phone, password_hash, status, current_latitude, current_longitude)
+                VALUES (?, ?, ?, 'x', 'ONLINE', ?, ?)
+                """, couriers);
+
+        Timestamp base = Timestamp.from(Instant.now().minusSeconds(onDutyCouriers));
+        jdbc.update("""
+                INSERT INTO on_duty_couriers (courier_id, on_duty_since, source)
+                SELECT id, ? + (row_number() OVER (ORDER BY id)) * INTERVAL '1 second', 'system'
+                  FROM couriers
+                 WHERE email LIKE 'bench-%@courier.local'
+                """, base);
+        // Pickup noktaları: strateji işletme konumunu profil cache'inden okur
+        List<Object[]> businesses = new ArrayList<>(BUSINESSES);
+        for (int i = 0; i < BUSINESSES; i++) {
+            businesses.add(new Object[]{"BENCH-" + i, "Bench Business " + i, "bench-" + i + "@business.local",
+                    random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON)});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO businesses (business_code, name, contact_person, phone, email, password_hash,
+                                        status, is_active, email_verified, latitude, longitude)
+                VALUES (?, ?, 'Bench', '02160000000', ?, 'x', 'ACTIVE', true, true, ?, ?)
+                """, businesses);
+        jdbc.execute("ANALYZE couriers");
+        jdbc.execute("ANALYZE on_duty_couriers");
+    }
+}
@@ -0,0 +1,170 @@
+package com.api.pako.benchmark;
+
+import com.api.pako.INeedCourierApplication;
+import com.api.pako.business.dto.OrderCreateRequest;
+import com.api.pako.business.service.BusinessOrderService;
+import com.api.pako.model.enums.OrderPriority;
+import com.api.pako.model.enums.PaymentType;
+import com.api.pako.service.OrderAssignmentService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk order creation and the timeout sweep's bulk close, with Hibernate JDBC batching off
+ * ({@code batchSize=1}) and on. Sweep invocations roll back, so every call sees the same data;
+ * created orders commit (order creation runs its own transaction) and are deleted after each iteration.
+ * The JDBC statements Hibernate sent for one invocation are printed at the end of each trial.
+ * Requires Docker (Testcontainers).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BatchWriteBenchmark {
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"500"})
+    public int orders;
+
+    private PostgreSQLContainer postgres;
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private BusinessOrderService orderService;
+    private OrderAssignmentService assignmentService;
+    private Statistics statistics;
+    private Long businessId;
+    private List<OrderCreateRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer(
+                DockerImageName.parse("postgis/postgis:17-3.6-alpine").asCompatibleSubstituteFor("postgres"));
+        postgres.start();
+
+        context = new SpringApplicationBuilder(INeedCourierApplication.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.docker.compose.enabled=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "order.batch.max-size=" + orders,
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+
+        orderService = context.getBean(BusinessOrderService.class);
+        assignmentService = context.getBean(OrderAssignmentService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed(jdbcTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        statistics.clear();
+        createOrders();
+        long createStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        sweep();
+        System.out.printf("%nbatch_size=%d: createOrders(%d) sent %d statements, sweep sent %d%n",
+                batchSize, orders, createStatements, statistics.getPrepareStatementCount());
+
+        context.close();
+        postgres.stop();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCreatedOrders() {
+        jdbcTemplate.update("DELETE FROM orders WHERE business_id = ? AND order_number NOT LIKE 'BENCH-%'", businessId);
+    }
+
+    @Benchmark
+    public Object createOrders() {
+        return orderService.createOrders(requests, businessId);
+    }
+
+    @Benchmark
+    public Object sweep() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return assignmentService.expireOverdueAssignments(orders);
+        });
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        businessId = jdbc.queryForObject("""
+                INSERT INTO businesses (business_code, name, contact_person, phone, email, password_hash,
+                                        status, is_active, email_verified, latitude, longitude)
+                VALUES ('BENCH', 'Bench Business', 'Bench', '02160000000', 'bench@business.local', 'x',
+                        'ACTIVE', true, true, 41.0, 29.0)
+                RETURNING id
+                """, Long.class);
+        Long courierId = jdbc.queryForObject("""
+                INSERT INTO couriers (name, email, phone, password_hash, status)
+                VALUES ('Bench Courier', 'bench@courier.local', '05000000000', 'x', 'ONLINE')
+                RETURNING id
+                """, Long.class);
+
+        // Süresi dolmuş PENDING atamalar (sweep için)
+        jdbc.update("""
+                INSERT INTO orders (order_number, status, business_id, pickup_address, delivery_address,
+                                    delivery_fee, order_date)
+                SELECT 'BENCH-' || n, 'ASSIGNED', ?, 'Bench pickup address', 'Bench delivery address', 10, now()
+                  FROM generate_series(1, ?) AS n
+                """, businessId, orders);
+        jdbc.update("""
+                INSERT INTO order_assignments (order_id, courier_id, assigned_at, status, timeout_at)
+                SELECT id, ?, now() - INTERVAL '10 minutes', 'PENDING', now() - INTERVAL '5 minutes'
+                  FROM orders
+                 WHERE order_number LIKE 'BENCH-%'
+                """, courierId);
+        jdbc.execute("ANALYZE");
+
+        requests = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            OrderCreateRequest request = new OrderCreateRequest();
+            request.setPickupAddress("Caferağa Mah. Moda Cad. No:" + i + " Kadıköy/İstanbul");
+            request.setDeliveryAddress("Sinanpaşa Mah. Ihlamurdere Cad. No:" + i + " Beşiktaş/İstanbul");
+            request.setEndCustomerName("Bench Customer " + i);
+            request.setEndCustomerPhone("+905550000000");
+            request.setPriority(OrderPriority.NORMAL);
+            request.setPaymentType(PaymentType.CASH);
+            request.setDeliveryFee(new BigDecimal("45.00"));
+            requests.add(request);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.api.pako.benchmark;
+
+import com.api.pako.service.CourierGeoIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * k-NN and radius query latency of {@link CourierGeoIndex} with couriers spread over Istanbul.
+ * Run with {@code -prof gc} to confirm queries do not allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourierGeoIndexBenchmark {
+
+    private static final double MIN_LAT = 40.80;
+    private static final double MIN_LON = 28.60;
+    private static final double LAT_SPAN = 0.40;
+    private static final double LON_SPAN = 0.80;
+
+    @Param({"1000", "10000", "100000"})
+    public int couriers;
+
+    private CourierGeoIndex index;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final long[] ids = new long[8];
+    private final double[] distances = new double[8];
+    private final long[] radiusIds = new long[256];
+    private final double[] radiusDistances = new double[256];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new CourierGeoIndex(0.01, 4096);
+        for (int i = 0; i < couriers; i++) {
+            index.update(i, MIN_LAT + random.nextDouble() * LAT_SPAN, MIN_LON + random.nextDouble() * LON_SPAN);
+        }
+    }
+
+    @Benchmark
+    public int nearest8() {
+        return index.nearest(MIN_LAT + random.nextDouble() * LAT_SPAN, MIN_LON + random.nextDouble() * LON_SPAN,
+                -1, Double.POSITIVE_INFINITY, ids, distances);
+    }
+
+    @Benchmark
+    public int within1km() {
+        return index.withinRadius(MIN_LAT + random.nextDouble() * LAT_SPAN, MIN_LON + random.nextDouble() * LON_SPAN,
+                1_000, radiusIds, radiusDistances);
+    }
+
+    @Benchmark
+    public void update() {
+        index.update(random.nextInt(couriers),
+                MIN_LAT + random.nextDouble() * LAT_SPAN, MIN_LON + random.nextDouble() * LON_SPAN);
+    }
+}
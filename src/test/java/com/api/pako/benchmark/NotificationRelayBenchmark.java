@@ -0,0 +1,140 @@
+package com.api.pako.benchmark;
+
+import com.api.pako.INeedCourierApplication;
+import com.api.pako.security.JwtTokenProvider;
+import com.api.pako.service.notification.UserNotificationSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end user notifications per second, local simple broker vs Redis pub/sub relay.
+ * Each invocation sends a burst of notifications and waits until a STOMP client connected
+ * to the node has received all of them, so the score is delivered (not just published)
+ * notifications. Requires Docker (Testcontainers).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class NotificationRelayBenchmark {
+
+    private static final int BURST = 100;
+    private static final String USER = "42";
+
+    @Param({"local", "redis"})
+    public String mode;
+
+    private PostgreSQLContainer postgres;
+    private GenericContainer<?> redis;
+    private ConfigurableApplicationContext context;
+    private StompSession session;
+    private UserNotificationSender sender;
+    private final Semaphore delivered = new Semaphore(0);
+    private final Map<String, Object> payload = Map.of("type", "NEW_ASSIGNMENT", "assignmentId", 1, "orderId", 1);
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres = new PostgreSQLContainer(
+                DockerImageName.parse("postgis/postgis:17-3.6-alpine").asCompatibleSubstituteFor("postgres"));
+        postgres.start();
+        redis = new GenericContainer<>("redis:8.4.0-alpine").withExposedPorts(6379);
+        redis.start();
+
+        context = new SpringApplicationBuilder(INeedCourierApplication.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.data.redis.host=" + redis.getHost(),
+                        "spring.data.redis.port=" + redis.getMappedPort(6379),
+                        "spring.docker.compose.enabled=false",
+                        "websocket.broker.mode=" + mode,
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+        sender = context.getBean(UserNotificationSender.class);
+
+        session = connect(context.getBean(JwtTokenProvider.class).generateToken(Long.valueOf(USER), "bench@business.local"));
+        session.subscribe("/user/queue/assignments", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object frame) {
+                delivered.release();
+            }
+        });
+        // Abonelik aktif olana kadar bekle
+        while (!delivered.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+            sender.sendToUser(USER, "/queue/assignments", payload);
+        }
+        delivered.drainPermits();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.disconnect();
+        context.close();
+        redis.stop();
+        postgres.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void sendAndDeliver() throws InterruptedException {
+        for (int i = 0; i < BURST; i++) {
+            sender.sendToUser(USER, "/queue/assignments", payload);
+        }
+        if (!delivered.tryAcquire(BURST, 10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Notifications were not delivered within 10 s");
+        }
+    }
+
+    private StompSession connect(String token) throws Exception {
+        var stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new JacksonJsonMessageConverter());
+        var headers = new WebSocketHttpHeaders();
+        headers.setBearerAuth(token);
+        var port = context.getEnvironment().getProperty("local.server.port");
+        return stompClient.connectAsync("http://localhost:" + port + "/ws", headers, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,74 @@
+package com.api.pako.benchmark;
+
+import com.api.pako.business.service.OrderNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Order numbers per millisecond on 8 threads by reservation block size. The counter upsert is
+ * replaced by an in-memory counter that sleeps for {@code roundTripMicros}, so the score shows
+ * how much of a database round trip each number still pays for (block size 1 = one per number).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class OrderNumberGeneratorBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int blockSize;
+
+    @Param({"300"})
+    public long roundTripMicros;
+
+    private OrderNumberGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = new OrderNumberGenerator(new CounterJdbcTemplate(roundTripMicros), blockSize);
+    }
+
+    @Benchmark
+    public String next() {
+        return generator.next();
+    }
+
+    /**
+     * Stands in for the order_number_counters upsert
+     */
+    static final class CounterJdbcTemplate extends JdbcTemplate {
+
+        private final AtomicInteger lastValue = new AtomicInteger();
+        private final long roundTripNanos;
+
+        CounterJdbcTemplate(long roundTripMicros) {
+            this.roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            LockSupport.parkNanos(roundTripNanos);
+            return (T) Integer.valueOf(lastValue.addAndGet((Integer) args[1]));
+        }
+    }
+}
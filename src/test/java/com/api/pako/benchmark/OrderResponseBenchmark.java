@@ -0,0 +1,98 @@
+package com.api.pako.benchmark;
+
+import com.api.pako.business.dto.OrderResponse;
+import com.api.pako.business.service.OrderResponseMapper;
+import com.api.pako.dto.ApiResponse;
+import com.api.pako.model.Business;
+import com.api.pako.model.Courier;
+import com.api.pako.model.Order;
+import com.api.pako.model.enums.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a page of orders into the response body: entity → {@link OrderResponse}
+ * mapping, {@link ApiResponse} JSON serialization, and both together as the business order
+ * list endpoint does them. Associations are loaded, so the profile cache is not consulted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderResponseBenchmark {
+
+    @Param({"1", "100"})
+    public int pageSize;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final OrderResponseMapper mapper = new OrderResponseMapper(null);
+    private List<Order> orders;
+    private ApiResponse<List<OrderResponse>> mapped;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Business business = new Business("Kadıköy Pide", "pide@example.com", "02160000000", "hash");
+        business.setId(1L);
+        Courier courier = new Courier();
+        courier.setId(2L);
+        courier.setName("Ayşe Yılmaz");
+        courier.setPhone("05550000000");
+
+        orders = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < pageSize; i++) {
+            Order order = new Order();
+            order.setId((long) i);
+            order.setOrderNumber(String.format("ORD-20260101-%03d", i));
+            order.setStatus(OrderStatus.ASSIGNED);
+            order.setBusiness(business);
+            order.setCourier(courier);
+            order.setPickupAddress("Caferağa Mah. Moda Cad. No:" + i + " Kadıköy/İstanbul");
+            order.setDeliveryAddress("Osmanağa Mah. Söğütlüçeşme Cad. No:" + i + " Kadıköy/İstanbul");
+            order.setEndCustomerName("Mehmet Demir");
+            order.setEndCustomerPhone("05551112233");
+            order.setPackageDescription("2x Kıymalı pide");
+            order.setDeliveryFee(new BigDecimal("45.00"));
+            order.setCollectionAmount(new BigDecimal("320.50"));
+            order.setOrderDate(now);
+            order.setCreatedAt(now);
+            order.setUpdatedAt(now);
+            orders.add(order);
+        }
+        mapped = ApiResponse.ok(map(), "All orders fetched successfully");
+    }
+
+    @Benchmark
+    public List<OrderResponse> map() {
+        return orders.stream().map(mapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return jsonMapper.writeValueAsBytes(mapped);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() {
+        return jsonMapper.writeValueAsBytes(ApiResponse.ok(map(), "All orders fetched successfully"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.api.pako.business.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderCursorTest {
+
+    @Test
+    void encodedCursorDecodesToSamePosition() {
+        // GIVEN
+        var cursor = new OrderCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000), 42L);
+
+        // WHEN
+        var token = cursor.encode();
+
+        // THEN
+        assertThat(token).doesNotContain("|", "=", "+", "/");
+        assertThat(OrderCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> OrderCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderCursor.decode("MjAyNS0wMy0xNA"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
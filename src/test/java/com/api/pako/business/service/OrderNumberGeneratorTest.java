@@ -0,0 +1,69 @@
+package com.api.pako.business.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderNumberGeneratorTest {
+
+    private static final String PREFIX = "ORD-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OrderNumberGenerator underTest =
+            new OrderNumberGenerator(jdbcTemplate, 3);
+
+    @Test
+    void handsOutNumbersFromReservedBlocks() {
+        // GIVEN
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), eq(3))).thenReturn(3, 6);
+
+        // WHEN
+        var numbers = IntStream.range(0, 4).mapToObj(i -> underTest.next()).toList();
+
+        // THEN
+        assertThat(numbers).containsExactly(PREFIX + "001", PREFIX + "002", PREFIX + "003", PREFIX + "004");
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Integer.class), any(), eq(3));
+    }
+
+    @Test
+    void largeRequestReservesOneBlockAndWidensPast999() {
+        // GIVEN
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), eq(5))).thenReturn(1001);
+
+        // WHEN
+        var numbers = underTest.next(5);
+
+        // THEN
+        assertThat(numbers).containsExactly(
+                PREFIX + "997", PREFIX + "998", PREFIX + "999", PREFIX + "1000", PREFIX + "1001");
+    }
+
+    @Test
+    void refusesToReserveInsideATransaction() {
+        // GIVEN
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        try {
+            // WHEN / THEN
+            assertThatIllegalStateException().isThrownBy(underTest::next);
+            verifyNoInteractions(jdbcTemplate);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+}
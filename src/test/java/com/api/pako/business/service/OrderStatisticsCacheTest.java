@@ -0,0 +1,48 @@
+package com.api.pako.business.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatisticsCacheTest {
+
+    @Test
+    void cachedStatisticsAreReusedUntilEvicted() {
+        // GIVEN
+        var underTest = new OrderStatisticsCache(60_000, 100);
+        var loads = new AtomicInteger();
+
+        // WHEN
+        var first = underTest.get(42L, id -> statistics(loads.incrementAndGet()));
+        var second = underTest.get(42L, id -> statistics(loads.incrementAndGet()));
+        underTest.evictAfterCommit(42L);
+        var third = underTest.get(42L, id -> statistics(loads.incrementAndGet()));
+
+        // THEN
+        assertThat(second).isSameAs(first);
+        assertThat(third.getTotalOrders()).isEqualTo(2);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void expiredStatisticsAreReloaded() {
+        // GIVEN
+        var underTest = new OrderStatisticsCache(0, 100);
+        var loads = new AtomicInteger();
+
+        // WHEN
+        underTest.get(42L, id -> statistics(loads.incrementAndGet()));
+        underTest.get(42L, id -> statistics(loads.incrementAndGet()));
+
+        // THEN
+        assertThat(loads).hasValue(2);
+    }
+
+    private static BusinessOrderService.OrderStatistics statistics(long total) {
+        var statistics = new BusinessOrderService.OrderStatistics();
+        statistics.setTotalOrders(total);
+        return statistics;
+    }
+}
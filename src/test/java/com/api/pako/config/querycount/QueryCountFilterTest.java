@@ -0,0 +1,106 @@
+package com.api.pako.config.querycount;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryCountFilterTest {
+
+    private static final String SELECT_COURIER = "select c.* from couriers c where c.id=?";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryCountFilter underTest = new QueryCountFilter(meterRegistry, true, 3);
+    private final DataSource dataSource;
+
+    QueryCountFilterTest() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        when(connection.createStatement()).thenAnswer(invocation -> mock(Statement.class));
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new QueryCountingDataSource(target);
+    }
+
+    @Test
+    void statementsOfRequestAreCountedInHeaderAndMetric() throws Exception {
+        // GIVEN
+        var request = request();
+        var response = new MockHttpServletResponse();
+
+        // WHEN
+        underTest.doFilter(request, response, executing(
+                "select o.* from orders o where o.business_id=?",
+                "update orders set status=? where id=?"));
+
+        // THEN
+        assertThat(response.getHeader(QueryCountFilter.HEADER)).isEqualTo("2");
+        var summary = meterRegistry.get("http.server.requests.queries")
+                .tag("uri", "/api/v1/business/orders").summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.find("http.server.requests.n-plus-one").counter()).isNull();
+    }
+
+    @Test
+    void repeatedStatementIsReportedAsNPlusOne() throws Exception {
+        // GIVEN
+        var request = request();
+        var response = new MockHttpServletResponse();
+
+        // WHEN
+        underTest.doFilter(request, response, executing(
+                "select o.* from orders o where o.business_id=?",
+                SELECT_COURIER, SELECT_COURIER, SELECT_COURIER));
+
+        // THEN
+        assertThat(response.getHeader(QueryCountFilter.HEADER)).isEqualTo("4");
+        assertThat(meterRegistry.get("http.server.requests.n-plus-one")
+                .tag("uri", "/api/v1/business/orders").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void statementsOutsideRequestAreNotCounted() throws Exception {
+        // GIVEN
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("select 1");
+        }
+
+        // WHEN
+        var stats = QueryCounter.stop();
+
+        // THEN
+        assertThat(stats).isEqualTo(QueryStats.EMPTY);
+    }
+
+    private static MockHttpServletRequest request() {
+        var request = new MockHttpServletRequest("GET", "/api/v1/business/orders");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/business/orders");
+        return request;
+    }
+
+    private FilterChain executing(String... statements) {
+        return (request, response) -> {
+            try (Connection connection = dataSource.getConnection()) {
+                for (String sql : statements) {
+                    connection.prepareStatement(sql).executeQuery();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.api.pako.controller;
 
+import com.api.pako.config.querycount.QueryCountFilter;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,7 @@ import org.springframework.boot.testcontainers.service.connection.ServiceConnect
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.assertj.MockMvcTester;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.postgresql.PostgreSQLContainer;
@@ -15,11 +17,13 @@ import org.testcontainers.utility.DockerImageName;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.json.JsonMapper;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @Testcontainers
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
 @AutoConfigureMockMvc
-abstract class AbstractIntegrationTest {
+public abstract class AbstractIntegrationTest {
 
     private static final String IMAGE = "postgis/postgis:17-3.6-alpine";
 
@@ -30,7 +34,7 @@ abstract class AbstractIntegrationTest {
     );
 
     @Autowired
-    MockMvcTester mockMvc;
+    protected MockMvcTester mockMvc;
 
     @Autowired
     private JsonMapper objectMapper;
@@ -45,7 +49,7 @@ abstract class AbstractIntegrationTest {
         POSTGRES.stop();
     }
 
-    PostgreSQLContainer postgres() {
+    protected PostgreSQLContainer postgres() {
         return POSTGRES;
     }
 
@@ -60,4 +64,23 @@ abstract class AbstractIntegrationTest {
     protected final <T> T jsonToDto(JsonNode json, Class<T> target) {
         return objectMapper.treeToValue(json, target);
     }
+
+    /**
+     * SQL statements the request executed, from the X-Query-Count header
+     */
+    protected final int queryCount(MvcTestResult result) {
+        String header = result.getResponse().getHeader(QueryCountFilter.HEADER);
+        assertThat(header).as("%s header (query-count.header.enabled)", QueryCountFilter.HEADER).isNotNull();
+        return Integer.parseInt(header);
+    }
+
+    /**
+     * Fails when the request executed more SQL statements than {@code budget}
+     */
+    protected final void assertWithinQueryBudget(MvcTestResult result, int budget) {
+        var request = result.getRequest();
+        assertThat(queryCount(result))
+                .as("SQL statements of %s %s", request.getMethod(), request.getRequestURI())
+                .isLessThanOrEqualTo(budget);
+    }
 }
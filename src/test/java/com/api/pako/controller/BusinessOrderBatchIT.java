@@ -0,0 +1,113 @@
+package com.api.pako.controller;
+
+import com.api.pako.business.dto.OrderCreateRequest;
+import com.api.pako.model.enums.OrderPriority;
+import com.api.pako.model.enums.PaymentType;
+import com.api.pako.repository.OrderRepository;
+import com.api.pako.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class BusinessOrderBatchIT extends AbstractIntegrationTest {
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/business/orders/batch creates valid items and reports invalid ones")
+    void postToBatchCreatesValidOrders() throws IOException {
+        // GIVEN
+        var token = jwtTokenProvider.generateToken(42L, "keanu@reeves.com"); // matches with test-migrations directory
+        var invalid = validRequest("Ayşe Kaya");
+        invalid.setEndCustomerPhone("12345");
+        var requests = List.of(validRequest("Ahmet Yılmaz"), invalid, validRequest("Mehmet Demir"));
+
+        // WHEN
+        var response = mockMvc
+                .post()
+                .uri("/api/v1/business/orders/batch")
+                .header("Authorization", "Bearer " + token)
+                .content(dtoToJson(requests))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.CREATED);
+        var data = stringToJson(response.getResponse().getContentAsString()).path("data");
+        assertThat(data.path("requested").asInt()).isEqualTo(3);
+        assertThat(data.path("created").asInt()).isEqualTo(2);
+        assertThat(data.path("failed").asInt()).isEqualTo(1);
+
+        var results = data.path("results");
+        assertThat(results.get(0).path("success").asBoolean()).isTrue();
+        assertThat(results.get(1).path("success").asBoolean()).isFalse();
+        assertThat(results.get(1).path("errors").get(0).asString()).startsWith("endCustomerPhone");
+        assertThat(results.get(2).path("order").path("orderNumber").asString()).matches("ORD-\\d{8}-\\d{3,}");
+        assertThat(orderRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/business/orders/statistics counts orders created in bulk")
+    void statisticsIncludeBulkCreatedOrders() throws IOException {
+        // GIVEN
+        var token = jwtTokenProvider.generateToken(42L, "keanu@reeves.com"); // matches with test-migrations directory
+        mockMvc.post()
+                .uri("/api/v1/business/orders/batch")
+                .header("Authorization", "Bearer " + token)
+                .content(dtoToJson(List.of(validRequest("Ahmet Yılmaz"), validRequest("Mehmet Demir"))))
+                .contentType(MediaType.APPLICATION_JSON)
+                .exchange();
+
+        // WHEN
+        var response = mockMvc
+                .get()
+                .uri("/api/v1/business/orders/statistics")
+                .header("Authorization", "Bearer " + token)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.OK);
+        var data = stringToJson(response.getResponse().getContentAsString()).path("data");
+        assertThat(data.path("totalOrders").asLong()).isEqualTo(2);
+        assertThat(data.path("pendingOrders").asLong()).isEqualTo(2);
+        assertThat(data.path("deliveredOrders").asLong()).isZero();
+    }
+
+    private static OrderCreateRequest validRequest(String customerName) {
+        var request = new OrderCreateRequest();
+        request.setPickupAddress("Kadıköy Moda Caddesi No:123, Istanbul");
+        request.setDeliveryAddress("Beşiktaş Barbaros Bulvarı No:45, Istanbul");
+        request.setEndCustomerName(customerName);
+        request.setEndCustomerPhone("+905551234567");
+        request.setPriority(OrderPriority.NORMAL);
+        request.setPaymentType(PaymentType.CASH);
+        request.setDeliveryFee(BigDecimal.valueOf(35.50));
+        return request;
+    }
+}
@@ -0,0 +1,111 @@
+package com.api.pako.controller;
+
+import com.api.pako.business.dto.OrderCreateRequest;
+import com.api.pako.model.enums.OrderPriority;
+import com.api.pako.model.enums.PaymentType;
+import com.api.pako.repository.OrderRepository;
+import com.api.pako.security.JwtTokenProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order creation with more concurrent requests than pool connections. Numbers are reserved
+ * before the insert transaction opens, so no request holds a connection while it needs another.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=5000",
+        "order.number.block-size=2"
+})
+public class BusinessOrderConcurrencyIT extends AbstractIntegrationTest {
+
+    private static final int REQUESTS = 24;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        orderRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Concurrent single and bulk creates beyond the pool size all succeed with distinct numbers")
+    void concurrentCreatesGetDistinctOrderNumbers() throws Exception {
+        // GIVEN
+        var token = jwtTokenProvider.generateToken(42L, "keanu@reeves.com"); // matches with test-migrations directory
+        var start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        // WHEN
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                boolean bulk = i % 4 == 0;
+                String uri = bulk ? "/api/v1/business/orders/batch" : "/api/v1/business/orders";
+                String body = bulk
+                        ? dtoToJson(List.of(orderRequest("Bulk " + i + "a"), orderRequest("Bulk " + i + "b"), orderRequest("Bulk " + i + "c")))
+                        : dtoToJson(orderRequest("Single " + i));
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.post()
+                            .uri(uri)
+                            .header("Authorization", "Bearer " + token)
+                            .content(body)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .exchange()
+                            .getResponse()
+                            .getStatus();
+                }));
+            }
+            start.countDown();
+        }
+
+        // THEN
+        for (Future<Integer> status : statuses) {
+            assertThat(status.get()).isEqualTo(201);
+        }
+        // 6 bulk requests of 3 orders, 18 single ones
+        var numbers = jdbcTemplate.queryForList("SELECT order_number FROM orders", String.class);
+        assertThat(numbers).hasSize(36).doesNotHaveDuplicates().allMatch(number -> number.matches("ORD-\\d{8}-\\d{3,}"));
+    }
+
+    private static OrderCreateRequest orderRequest(String customerName) {
+        var request = new OrderCreateRequest();
+        request.setPickupAddress("Kadıköy Moda Caddesi No:123, Istanbul");
+        request.setDeliveryAddress("Beşiktaş Barbaros Bulvarı No:45, Istanbul");
+        request.setEndCustomerName(customerName);
+        request.setEndCustomerPhone("+905551234567");
+        request.setPriority(OrderPriority.NORMAL);
+        request.setPaymentType(PaymentType.CASH);
+        request.setDeliveryFee(BigDecimal.valueOf(35.50));
+        return request;
+    }
+}
@@ -8,6 +8,7 @@ import com.api.pako.model.enums.PaymentType;
 import com.api.pako.repository.BusinessRepository;
 import com.api.pako.repository.OrderRepository;
 import com.api.pako.security.JwtTokenProvider;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,13 +16,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 
+// L1 girdileri anında düşer: profil aramaları sorgu sayısında görünsün, önbellek N+1'i gizlemesin
+@TestPropertySource(properties = "cache.profile.l1.ttl-seconds=0")
 public class BusinessOrderControllerIT extends AbstractIntegrationTest {
 
     @Autowired
@@ -42,27 +48,26 @@ public class BusinessOrderControllerIT extends AbstractIntegrationTest {
         orderRepository.deleteAll();
     }
 
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        orderRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM couriers WHERE email LIKE 'listing-%@courier.local'");
+    }
+
     @Test
     @DisplayName("POST /api/v1/business/orders creates an order")
     void postToOrdersCreatesAnOrder() throws IOException {
         // GIVEN
         var token = makeToken(42L, "keanu@reeves.com"); // matches with test-migrations directory
 
-        var request = new OrderCreateRequest();
-        request.setPickupAddress("Kadıköy Moda Caddesi No:123, Istanbul");
-        request.setPickupContactPerson("Ali Veli");
-        request.setDeliveryAddress("Beşiktaş Barbaros Bulvarı No:45, Istanbul");
-        request.setEndCustomerName("Ahmet Yılmaz");
-        request.setEndCustomerPhone("+905551234567");
+        var request = orderRequest();
         request.setPackageDescription("2x Pizza Margherita");
         request.setPackageWeight(BigDecimal.valueOf(1.5));
         request.setPackageCount(2);
-        request.setPriority(OrderPriority.NORMAL);
-        request.setPaymentType(PaymentType.CASH);
-        request.setDeliveryFee(BigDecimal.valueOf(35.50));
-        request.setCollectionAmount(BigDecimal.valueOf(0));
         request.setBusinessNotes("Sıcak tutulmalı");
 
+
         var expectedResponse = new OrderResponse();
         expectedResponse.setBusinessContactPerson("Keanu Reeves");
         expectedResponse.setBusinessId(42L);
@@ -76,7 +81,6 @@ public class BusinessOrderControllerIT extends AbstractIntegrationTest {
         expectedResponse.setEndCustomerName("Ahmet Yılmaz");
         expectedResponse.setEndCustomerPhone("+905551234567");
         expectedResponse.setEstimatedDeliveryTime(null);
-        expectedResponse.setOrderId(4L);
         expectedResponse.setPackageCount(2);
         expectedResponse.setPackageDescription("2x Pizza Margherita");
         expectedResponse.setPackageWeight(BigDecimal.valueOf(1.5));
@@ -102,13 +106,185 @@ public class BusinessOrderControllerIT extends AbstractIntegrationTest {
         var json = stringToJson(response.getResponse().getContentAsString());
         var actualDto = jsonToDto(json.path("data"), OrderResponse.class);
         assertThat(actualDto).usingRecursiveComparison()
-                .ignoringFields("createdAt", "orderDate", "updatedAt", "orderNumber")
+                .ignoringFields("orderId", "createdAt", "orderDate", "updatedAt", "orderNumber")
                 .isEqualTo(expectedResponse);
         assertThat(json.path("code").asInt()).isEqualTo(201);
-        assertThat(actualDto.getOrderNumber()).matches("ORD-\\d{8}-\\d{3}");
+        // Ids come from a pooled sequence (V25) and are not consecutive
+        assertThat(actualDto.getOrderId()).isPositive();
+        assertThat(actualDto.getOrderNumber()).matches("ORD-\\d{8}-\\d{3,}");
         assertThat(response).hasStatus(HttpStatus.CREATED);
     }
 
+    @Test
+    @DisplayName("GET /api/v1/business/orders runs the same statements for 1 and 5 orders of different couriers")
+    void getOrdersHasNoNPlusOne() {
+        // GIVEN
+        var token = makeToken(42L, "keanu@reeves.com");
+        createOrder(token);
+        var single = getOrders(token);
+        for (int i = 1; i <= 4; i++) {
+            insertOrderOfNewCourier(i);
+        }
+
+        // WHEN
+        var response = getOrders(token);
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.OK);
+        assertThat(queryCount(response)).isEqualTo(queryCount(single));
+        assertWithinQueryBudget(response, 3);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/business/orders returns at most limit orders, newest first")
+    void getOrdersIsCappedByLimit() throws IOException {
+        // GIVEN
+        var token = makeToken(42L, "keanu@reeves.com");
+        for (int i = 1; i <= 3; i++) {
+            insertOrderOfNewCourier(i);
+        }
+        jdbcTemplate.update("UPDATE orders SET created_at = now() + interval '1 minute' WHERE order_number = 'LISTING-2'");
+
+        // WHEN
+        var response = mockMvc
+                .get()
+                .uri("/api/v1/business/orders?limit=2")
+                .header("Authorization", "Bearer " + token)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.OK);
+        var data = stringToJson(response.getResponse().getContentAsString()).path("data");
+        assertThat(data.size()).isEqualTo(2);
+        assertThat(data.get(0).path("orderNumber").asString()).isEqualTo("LISTING-2");
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/business/orders/{id} returns every field of the order, its business and courier")
+    void getOrderReturnsAllFields() throws IOException {
+        // GIVEN
+        var token = makeToken(42L, "keanu@reeves.com");
+        Long courierId = jdbcTemplate.queryForObject("""
+                INSERT INTO couriers (name, email, phone, password_hash, status)
+                VALUES ('Listing Courier 9', 'listing-9@courier.local', '05000004009', 'x', 'BUSY')
+                RETURNING id
+                """, Long.class);
+        Long orderId = jdbcTemplate.queryForObject("""
+                INSERT INTO orders (order_number, status, priority, business_id, business_contact_person, business_phone,
+                                    courier_id, end_customer_name, end_customer_phone,
+                                    pickup_address, pickup_address_description, pickup_contact_person,
+                                    delivery_address, delivery_address_description,
+                                    package_description, package_weight, package_count, payment_type,
+                                    delivery_fee, collection_amount, courier_notes, business_notes,
+                                    scheduled_pickup_time, estimated_delivery_time, order_date, created_at, updated_at)
+                VALUES ('DETAIL-1', 'IN_TRANSIT', 'URGENT', 42, 'Ali Veli', '05321110000',
+                        ?, 'Ahmet Yılmaz', '+905551234567',
+                        'Moda, Istanbul', 'Kapıda zil yok', 'Ayşe',
+                        'Beşiktaş, Istanbul', '3. kat',
+                        '2x Pizza', 1.50, 2, 'CREDIT_CARD',
+                        35.50, 120.00, 'Yolda', 'Sıcak tutulmalı',
+                        '2025-12-01 10:00:00', '2025-12-01 10:45:00', '2025-12-01 09:30:00',
+                        '2025-12-01 09:30:01', '2025-12-01 10:20:00')
+                RETURNING id
+                """, Long.class, courierId);
+
+        var expected = new OrderResponse();
+        expected.setOrderId(orderId);
+        expected.setOrderNumber("DETAIL-1");
+        expected.setStatus(OrderStatus.IN_TRANSIT);
+        expected.setPriority(OrderPriority.URGENT);
+        expected.setBusinessId(42L);
+        expected.setBusinessName("Jack's Burger");
+        expected.setBusinessContactPerson("Ali Veli");
+        expected.setBusinessPhone("05321110000");
+        expected.setCourierId(courierId);
+        expected.setCourierName("Listing Courier 9");
+        expected.setCourierPhone("05000004009");
+        expected.setPickupAddress("Moda, Istanbul");
+        expected.setPickupAddressDescription("Kapıda zil yok");
+        expected.setPickupContactPerson("Ayşe");
+        expected.setDeliveryAddress("Beşiktaş, Istanbul");
+        expected.setDeliveryAddressDescription("3. kat");
+        expected.setEndCustomerName("Ahmet Yılmaz");
+        expected.setEndCustomerPhone("+905551234567");
+        expected.setPackageDescription("2x Pizza");
+        expected.setPackageWeight(new BigDecimal("1.50"));
+        expected.setPackageCount(2);
+        expected.setPaymentType(PaymentType.CREDIT_CARD);
+        expected.setDeliveryFee(new BigDecimal("35.50"));
+        expected.setCollectionAmount(new BigDecimal("120.00"));
+        expected.setCourierNotes("Yolda");
+        expected.setBusinessNotes("Sıcak tutulmalı");
+        expected.setScheduledPickupTime(LocalDateTime.of(2025, 12, 1, 10, 0));
+        expected.setEstimatedDeliveryTime(LocalDateTime.of(2025, 12, 1, 10, 45));
+        expected.setOrderDate(LocalDateTime.of(2025, 12, 1, 9, 30));
+        expected.setCreatedAt(LocalDateTime.of(2025, 12, 1, 9, 30, 1));
+        expected.setUpdatedAt(LocalDateTime.of(2025, 12, 1, 10, 20));
+
+        // WHEN
+        var response = mockMvc
+                .get()
+                .uri("/api/v1/business/orders/" + orderId)
+                .header("Authorization", "Bearer " + token)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.OK);
+        var actual = jsonToDto(stringToJson(response.getResponse().getContentAsString()).path("data"), OrderResponse.class);
+        assertThat(actual).usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(expected);
+    }
+
+    private void createOrder(String token) {
+        var response = mockMvc
+                .post()
+                .uri("/api/v1/business/orders")
+                .header("Authorization", "Bearer " + token)
+                .content(dtoToJson(orderRequest()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .exchange();
+        assertThat(response).hasStatus(HttpStatus.CREATED);
+    }
+
+    private void insertOrderOfNewCourier(int n) {
+        Long courierId = jdbcTemplate.queryForObject("""
+                INSERT INTO couriers (name, email, phone, password_hash, status)
+                VALUES (?, ?, ?, 'x', 'BUSY')
+                RETURNING id
+                """, Long.class, "Listing Courier " + n, "listing-" + n + "@courier.local", "0500000400" + n);
+        jdbcTemplate.update("""
+                INSERT INTO orders (order_number, status, business_id, courier_id, pickup_address, delivery_address,
+                                    delivery_fee, order_date)
+                VALUES (?, 'ASSIGNED', 42, ?, 'Moda, Istanbul', 'Beşiktaş, Istanbul', 35, now())
+                """, "LISTING-" + n, courierId);
+    }
+
+    private MvcTestResult getOrders(String token) {
+        return mockMvc
+                .get()
+                .uri("/api/v1/business/orders")
+                .header("Authorization", "Bearer " + token)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+    }
+
+    private static OrderCreateRequest orderRequest() {
+        var request = new OrderCreateRequest();
+        request.setPickupAddress("Kadıköy Moda Caddesi No:123, Istanbul");
+        request.setPickupContactPerson("Ali Veli");
+        request.setDeliveryAddress("Beşiktaş Barbaros Bulvarı No:45, Istanbul");
+        request.setEndCustomerName("Ahmet Yılmaz");
+        request.setEndCustomerPhone("+905551234567");
+        request.setPriority(OrderPriority.NORMAL);
+        request.setPaymentType(PaymentType.CASH);
+        request.setDeliveryFee(BigDecimal.valueOf(35.50));
+        request.setCollectionAmount(BigDecimal.valueOf(0));
+        return request;
+    }
+
     private String makeToken(Long userId, String email) {
         return jwtTokenProvider.generateToken(userId, email);
     }
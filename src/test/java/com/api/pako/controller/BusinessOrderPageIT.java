@@ -0,0 +1,109 @@
+package com.api.pako.controller;
+
+import com.api.pako.model.enums.OrderStatus;
+import com.api.pako.repository.OrderRepository;
+import com.api.pako.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class BusinessOrderPageIT extends AbstractIntegrationTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 12, 1, 9, 0);
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        orderRepository.deleteAll();
+
+        // Aynı created_at'e sahip siparişler sayfa sınırına denk gelir; sıralama id ile ayrışmalı
+        for (int i = 0; i < 11; i++) {
+            OrderStatus status = i % 3 == 0 ? OrderStatus.CANCELLED : OrderStatus.PENDING;
+            jdbcTemplate.update("""
+                    INSERT INTO orders (order_number, status, business_id, pickup_address, delivery_address,
+                                        delivery_fee, order_date, created_at)
+                    VALUES (?, CAST(? AS order_status), 42, 'Moda, Istanbul', 'Beşiktaş, Istanbul', 35, ?, ?)
+                    """, "PAGE-" + i, status.name(), Timestamp.valueOf(T0), Timestamp.valueOf(T0.plusMinutes(i / 2)));
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/business/orders/page walks every order once, newest first")
+    void pagesCoverAllOrdersInOrder() throws IOException {
+        // GIVEN
+        var expected = jdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE business_id = 42 ORDER BY created_at DESC, id DESC", Long.class);
+
+        // WHEN
+        var walked = walkPages(null);
+
+        // THEN
+        assertThat(walked).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/business/orders/page with a status filter walks only that status")
+    void pagesWithStatusFilterCoverOnlyThatStatus() throws IOException {
+        // GIVEN
+        var expected = jdbcTemplate.queryForList("""
+                SELECT id FROM orders WHERE business_id = 42 AND status = 'PENDING'
+                 ORDER BY created_at DESC, id DESC
+                """, Long.class);
+
+        // WHEN
+        var walked = walkPages(OrderStatus.PENDING);
+
+        // THEN
+        assertThat(walked).hasSize(7).containsExactlyElementsOf(expected);
+    }
+
+    private List<Long> walkPages(OrderStatus status) throws IOException {
+        var token = jwtTokenProvider.generateToken(42L, "keanu@reeves.com"); // matches with test-migrations directory
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = mockMvc
+                    .get()
+                    .uri("/api/v1/business/orders/page")
+                    .param("limit", "3")
+                    .header("Authorization", "Bearer " + token)
+                    .accept(MediaType.APPLICATION_JSON);
+            if (status != null) {
+                request.param("status", status.name());
+            }
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            var response = request.exchange();
+            assertThat(response).hasStatus(HttpStatus.OK);
+
+            var data = stringToJson(response.getResponse().getContentAsString()).path("data");
+            data.path("items").forEach(item -> ids.add(item.path("orderId").asLong()));
+            cursor = data.path("nextCursor").isNull() ? null : data.path("nextCursor").asString();
+            assertThat(data.path("hasMore").asBoolean()).isEqualTo(cursor != null);
+        } while (cursor != null);
+        return ids;
+    }
+}
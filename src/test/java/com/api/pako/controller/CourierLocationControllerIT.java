@@ -0,0 +1,69 @@
+package com.api.pako.controller;
+
+import com.api.pako.dto.LocationPingRequest;
+import com.api.pako.security.JwtTokenProvider;
+import com.api.pako.service.CourierLocationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Test sırasında flush, vardiyada olmayan kuryenin bellekteki konumunu silmesin
+@TestPropertySource(properties = "courier.location.flush-interval-ms=600000")
+public class CourierLocationControllerIT extends AbstractIntegrationTest {
+
+    @Autowired
+    JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    CourierLocationService courierLocationService;
+
+    @Test
+    @DisplayName("POST /api/v1/courier/location with a business token is rejected with 403")
+    void businessTokenCannotReportLocation() {
+        // GIVEN
+        var token = jwtTokenProvider.generateToken(4242L, "keanu@reeves.com", "BUSINESS");
+
+        // WHEN
+        var response = postPing(token, new LocationPingRequest(41.0, 29.0, null));
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.FORBIDDEN);
+        assertThat(courierLocationService.getLatest(4242L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/courier/location accepts a ping from a fast device clock and clamps it")
+    void pingFromTheFutureIsClamped() {
+        // GIVEN
+        var token = jwtTokenProvider.generateToken(4243L, "location@courier.local");
+        var future = OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(2);
+
+        // WHEN
+        var response = postPing(token, new LocationPingRequest(41.0, 29.0, future));
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.OK);
+        assertThat(courierLocationService.getLatest(4243L))
+                .hasValueSatisfying(position -> assertThat(position.recordedAt()).isBefore(future));
+    }
+
+    private MvcTestResult postPing(String token, LocationPingRequest ping) {
+        return mockMvc
+                .post()
+                .uri("/api/v1/courier/location")
+                .header("Authorization", "Bearer " + token)
+                .content(dtoToJson(ping))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+    }
+}
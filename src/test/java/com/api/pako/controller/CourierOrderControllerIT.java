@@ -0,0 +1,207 @@
+package com.api.pako.controller;
+
+import com.api.pako.business.dto.OrderResponse;
+import com.api.pako.model.enums.OrderStatus;
+import com.api.pako.security.JwtTokenProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
+import tools.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class CourierOrderControllerIT extends AbstractIntegrationTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    JwtTokenProvider jwtTokenProvider;
+
+    private Long courierId;
+    private Long otherCourierId;
+    private int orderSequence;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        jdbcTemplate.update("DELETE FROM orders");
+        courierId = insertCourier("transition-1@courier.local", "05000001001");
+        otherCourierId = insertCourier("transition-2@courier.local", "05000001002");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM couriers WHERE email LIKE 'transition-%@courier.local'");
+    }
+
+    @Test
+    @DisplayName("pickup, start-delivery and complete move the order through its statuses")
+    void transitionsMoveOrderToDelivered() throws IOException {
+        // GIVEN
+        var orderId = insertOrder("ASSIGNED", courierId);
+
+        // WHEN
+        var pickup = post(courierId, "/api/v1/courier/orders/" + orderId + "/pickup", "notes", "Paket sağlam");
+        var startDelivery = post(courierId, "/api/v1/courier/orders/" + orderId + "/start-delivery");
+        var complete = post(courierId, "/api/v1/courier/orders/" + orderId + "/complete",
+                "notes", "Kapıya teslim", "collectionAmount", "120.5");
+
+        // THEN
+        assertThat(pickup).hasStatus(HttpStatus.OK);
+        assertThat(data(pickup).path("status").asString()).isEqualTo("PICKED_UP");
+        assertThat(startDelivery).hasStatus(HttpStatus.OK);
+        assertThat(data(startDelivery).path("status").asString()).isEqualTo("IN_TRANSIT");
+        assertThat(complete).hasStatus(HttpStatus.OK);
+        assertThat(data(complete).path("status").asString()).isEqualTo("DELIVERED");
+
+        var row = jdbcTemplate.queryForMap(
+                "SELECT status::text AS status, courier_notes, collection_amount FROM orders WHERE id = ?", orderId);
+        assertThat(row.get("status")).isEqualTo("DELIVERED");
+        assertThat(row.get("courier_notes")).isEqualTo("Kapıya teslim");
+        assertThat((BigDecimal) row.get("collection_amount")).isEqualByComparingTo("120.5");
+    }
+
+    @Test
+    @DisplayName("repeating pickup returns the same result and changes nothing")
+    void repeatedPickupIsIdempotent() throws IOException {
+        // GIVEN
+        var orderId = insertOrder("ASSIGNED", courierId);
+        var first = post(courierId, "/api/v1/courier/orders/" + orderId + "/pickup", "notes", "Paket sağlam");
+        assertThat(first).hasStatus(HttpStatus.OK);
+
+        // WHEN
+        var repeated = post(courierId, "/api/v1/courier/orders/" + orderId + "/pickup");
+
+        // THEN
+        assertThat(repeated).hasStatus(HttpStatus.OK);
+        assertThat(data(repeated).path("status").asString()).isEqualTo("PICKED_UP");
+        assertThat(data(repeated).path("updatedAt")).isEqualTo(data(first).path("updatedAt"));
+        assertThat(jdbcTemplate.queryForObject("SELECT courier_notes FROM orders WHERE id = ?", String.class, orderId))
+                .isEqualTo("Paket sağlam");
+    }
+
+    @Test
+    @DisplayName("complete on an order that is not IN_TRANSIT is rejected with 400")
+    void completeInWrongStatusIsRejected() {
+        // GIVEN
+        var orderId = insertOrder("ASSIGNED", courierId);
+
+        // WHEN
+        var response = post(courierId, "/api/v1/courier/orders/" + orderId + "/complete");
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.BAD_REQUEST);
+        assertThat(statusOf(orderId)).isEqualTo("ASSIGNED");
+    }
+
+    @Test
+    @DisplayName("pickup by a courier the order is not assigned to is rejected with 403")
+    void pickupByAnotherCourierIsForbidden() {
+        // GIVEN
+        var orderId = insertOrder("ASSIGNED", courierId);
+
+        // WHEN
+        var response = post(otherCourierId, "/api/v1/courier/orders/" + orderId + "/pickup");
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.FORBIDDEN);
+        assertThat(statusOf(orderId)).isEqualTo("ASSIGNED");
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/courier/orders/{id} returns the order to its courier")
+    void getOrderReturnsOrderToItsCourier() throws IOException {
+        // GIVEN
+        var orderId = insertOrder("ASSIGNED", courierId);
+
+        // WHEN
+        var response = get(courierId, "/api/v1/courier/orders/" + orderId);
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.OK);
+        var order = jsonToDto(data(response), OrderResponse.class);
+        assertThat(order.getOrderId()).isEqualTo(orderId);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.ASSIGNED);
+        assertThat(order.getBusinessId()).isEqualTo(42L);
+        assertThat(order.getBusinessName()).isEqualTo("Jack's Burger");
+        assertThat(order.getCourierId()).isEqualTo(courierId);
+        assertThat(order.getCourierName()).isEqualTo("Transition Courier");
+        assertThat(order.getCourierPhone()).isEqualTo("05000001001");
+        assertThat(order.getPickupAddress()).isEqualTo("Moda, Istanbul");
+        assertThat(order.getDeliveryAddress()).isEqualTo("Beşiktaş, Istanbul");
+        assertThat(order.getDeliveryFee()).isEqualByComparingTo("35");
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/courier/orders/{id} of another courier's order is rejected with 403")
+    void getOrderOfAnotherCourierIsForbidden() {
+        // GIVEN
+        var orderId = insertOrder("ASSIGNED", courierId);
+
+        // WHEN
+        var response = get(otherCourierId, "/api/v1/courier/orders/" + orderId);
+
+        // THEN
+        assertThat(response).hasStatus(HttpStatus.FORBIDDEN);
+    }
+
+    private MvcTestResult get(Long courier, String uri) {
+        return mockMvc
+                .get()
+                .uri(uri)
+                .header("Authorization", "Bearer " + jwtTokenProvider.generateToken(courier, "courier@test.local"))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+    }
+
+    private MvcTestResult post(Long courier, String uri, String... params) {
+        var request = mockMvc
+                .post()
+                .uri(uri)
+                .header("Authorization", "Bearer " + jwtTokenProvider.generateToken(courier, "courier@test.local"))
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .accept(MediaType.APPLICATION_JSON);
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        return request.exchange();
+    }
+
+    private JsonNode data(MvcTestResult result) throws IOException {
+        return stringToJson(result.getResponse().getContentAsString()).path("data");
+    }
+
+    private String statusOf(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT status::text FROM orders WHERE id = ?", String.class, orderId);
+    }
+
+    private Long insertCourier(String email, String phone) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO couriers (name, email, phone, password_hash, status)
+                VALUES ('Transition Courier', ?, ?, 'x', 'ONLINE')
+                RETURNING id
+                """, Long.class, email, phone);
+    }
+
+    private Long insertOrder(String status, Long courier) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO orders (order_number, status, business_id, courier_id, pickup_address, delivery_address,
+                                    delivery_fee, order_date)
+                VALUES (?, CAST(? AS order_status), 42, ?, 'Moda, Istanbul', 'Beşiktaş, Istanbul', 35, now())
+                RETURNING id
+                """, Long.class, "TRANSITION-" + ++orderSequence, status, courier);
+    }
+}
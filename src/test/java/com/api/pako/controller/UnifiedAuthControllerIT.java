@@ -1,12 +1,16 @@
 package com.api.pako.controller;
 
+import com.api.pako.dto.RefreshTokenRequest;
 import com.api.pako.dto.UnifiedLoginRequest;
 import com.api.pako.dto.UnifiedLoginResponse;
 import com.api.pako.model.enums.UserType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
 
 import java.io.IOException;
 
@@ -14,6 +18,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 class UnifiedAuthControllerIT extends AbstractIntegrationTest {
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     @DisplayName("POST /api/v1/auth/login successfully logins user")
     void loginBusiness() throws IOException {
@@ -24,6 +31,7 @@ class UnifiedAuthControllerIT extends AbstractIntegrationTest {
 
         // See test-migrations for response content
         var expectedResponse = new UnifiedLoginResponse();
+        expectedResponse.setExpiresIn(3600);
         expectedResponse.setUserId(42L);
         expectedResponse.setEmail(request.getEmail());
         expectedResponse.setName("Jack's Burger");
@@ -45,7 +53,7 @@ class UnifiedAuthControllerIT extends AbstractIntegrationTest {
 
         // THEN
         assertThat(actualDto).usingRecursiveComparison()
-                .ignoringFields("token")
+                .ignoringFields("token", "refreshToken")
                 .isEqualTo(expectedResponse);
         assertThat(actualDto)
                 .extracting("token")
@@ -53,5 +61,42 @@ class UnifiedAuthControllerIT extends AbstractIntegrationTest {
         assertThat(response)
                 .hasStatus(HttpStatus.OK)
                 .hasContentType(MediaType.APPLICATION_JSON_VALUE);
+        // the unprefixed test hash is rewritten in the delegating format on login
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT password_hash FROM businesses WHERE id = 42", String.class)).startsWith("{bcrypt}");
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/auth/refresh rotates the refresh token and revokes the session on reuse")
+    void refreshRotatesAndDetectsReuse() throws IOException {
+        // GIVEN
+        var login = new UnifiedLoginRequest();
+        login.setEmail("keanu@reeves.com");
+        login.setPassword("test123");
+        var loginJson = stringToJson(post("/api/v1/auth/login", dtoToJson(login)).getResponse().getContentAsString());
+        var first = loginJson.path("data").path("refreshToken").asString();
+
+        // WHEN
+        var refreshed = post("/api/v1/auth/refresh", dtoToJson(new RefreshTokenRequest(first)));
+        var second = stringToJson(refreshed.getResponse().getContentAsString())
+                .path("data").path("refreshToken").asString();
+        var reused = post("/api/v1/auth/refresh", dtoToJson(new RefreshTokenRequest(first)));
+        var afterReuse = post("/api/v1/auth/refresh", dtoToJson(new RefreshTokenRequest(second)));
+
+        // THEN
+        assertThat(refreshed).hasStatus(HttpStatus.OK);
+        assertThat(second).isNotBlank().isNotEqualTo(first);
+        assertThat(reused).hasStatus(HttpStatus.UNAUTHORIZED);
+        assertThat(afterReuse).hasStatus(HttpStatus.UNAUTHORIZED);
+    }
+
+    private MvcTestResult post(String uri, String body) {
+        return mockMvc
+                .post()
+                .uri(uri)
+                .content(body)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
     }
-}
\ No newline at end of file
+}
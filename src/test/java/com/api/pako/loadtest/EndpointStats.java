@@ -0,0 +1,83 @@
+package com.api.pako.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters of one endpoint during the measured phase.
+ * Latencies are taken from the request's scheduled start, so a server that falls behind
+ * the target rate shows up in the percentiles instead of silently lowering the rate.
+ */
+final class EndpointStats {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final String endpoint;
+    private final Recorder recorder = new Recorder(MAX_TRACKABLE_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @param queryCount statements the server executed for the request (X-Query-Count), 0 if absent
+     */
+    void record(int status, long latencyNanos, long queryCount) {
+        queries.add(queryCount);
+        recorder.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+    }
+
+    void recordFailure(long latencyNanos) {
+        record(0, latencyNanos, 0);
+    }
+
+    /**
+     * Nothing to work on (e.g. no pending assignment yet); not sent, not counted as a request
+     */
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    Map<String, Object> summary(double measuredSeconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        long count = histogram.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", endpoint);
+        summary.put("requests", count);
+        summary.put("rps", count / measuredSeconds);
+        summary.put("queriesPerRequest", count == 0 ? 0.0 : (double) queries.sum() / count);
+        summary.put("errors", errors.sum());
+        summary.put("skipped", skipped.sum());
+        summary.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        summary.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(histogram.getMaxValue()));
+        Map<String, Long> byStatus = new TreeMap<>();
+        statuses.forEach((status, adder) -> byStatus.put(String.valueOf(status), adder.sum()));
+        summary.put("statuses", byStatus);
+        return summary;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
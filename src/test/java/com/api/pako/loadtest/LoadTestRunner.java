@@ -0,0 +1,405 @@
+package com.api.pako.loadtest;
+
+import com.api.pako.INeedCourierApplication;
+import com.api.pako.business.dto.OrderCreateRequest;
+import com.api.pako.config.querycount.QueryCountFilter;
+import com.api.pako.model.enums.OrderPriority;
+import com.api.pako.model.enums.PaymentType;
+import com.api.pako.security.JwtTokenProvider;
+import com.api.pako.service.OnDutyService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test: boots the application against a Testcontainers Postgres, seeds
+ * businesses, on-duty couriers and reserved shifts, then sends a weighted mix of requests at
+ * a fixed rate (open loop: requests are started on schedule whether or not earlier ones have
+ * returned). Reports p50/p99/p999 per endpoint and the statements the database executed
+ * (pg_stat_statements) during the measured phase. Requires Docker.
+ * <p>
+ * Run with {@code mvn -Ploadtest -DskipTests verify}; settings are system properties:
+ * <ul>
+ *     <li>{@code loadtest.rps} (200), {@code loadtest.duration-seconds} (60),
+ *     {@code loadtest.warmup-seconds} (10)</li>
+ *     <li>{@code loadtest.mix} (create-order=60,accept=15,reject=5,check-in=20)</li>
+ *     <li>{@code loadtest.businesses} (50), {@code loadtest.couriers} (500)</li>
+ *     <li>{@code loadtest.result} (target/loadtest-result.json)</li>
+ * </ul>
+ */
+public final class LoadTestRunner {
+
+    // Harness'in kendi sorguları rapordan bu işaretle ayıklanır
+    private static final String OWN_QUERY = "/* loadtest */ ";
+
+    private static final double MIN_LAT = 40.80;
+    private static final double MAX_LAT = 41.20;
+    private static final double MIN_LON = 28.60;
+    private static final double MAX_LON = 29.40;
+
+    enum Operation {
+        CREATE_ORDER("create-order", "POST /api/v1/business/orders"),
+        ACCEPT("accept", "POST /api/v1/courier/assignments/{id}/accept"),
+        REJECT("reject", "POST /api/v1/courier/assignments/{id}/reject"),
+        CHECK_IN("check-in", "POST /api/v1/courier/shifts/{id}/check-in");
+
+        final String key;
+        final String endpoint;
+
+        Operation(String key, String endpoint) {
+            this.key = key;
+            this.endpoint = endpoint;
+        }
+
+        static Operation of(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation in loadtest.mix: " + key);
+        }
+    }
+
+    record Settings(int rps, int durationSeconds, int warmupSeconds, Map<Operation, Integer> mix,
+                    int businesses, int couriers, Path result) {
+
+        static Settings fromSystemProperties() {
+            Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+            for (String entry : System.getProperty("loadtest.mix", "create-order=60,accept=15,reject=5,check-in=20").split(",")) {
+                String[] parts = entry.trim().split("=");
+                mix.put(Operation.of(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+            return new Settings(
+                    Integer.getInteger("loadtest.rps", 200),
+                    Integer.getInteger("loadtest.duration-seconds", 60),
+                    Integer.getInteger("loadtest.warmup-seconds", 10),
+                    mix,
+                    Integer.getInteger("loadtest.businesses", 50),
+                    Integer.getInteger("loadtest.couriers", 500),
+                    Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json")));
+        }
+
+        int totalWeight() {
+            return mix.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    private record Work(long id, long courierId) {
+    }
+
+    private final Settings settings;
+    private final JdbcTemplate jdbc;
+    private final JsonMapper jsonMapper;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final Map<Long, String> courierTokens = new LinkedHashMap<>();
+    private final List<String> businessTokens = new ArrayList<>();
+    private final Queue<Work> pendingAssignments = new ConcurrentLinkedQueue<>();
+    private final Queue<Work> reservedShifts = new ConcurrentLinkedQueue<>();
+    private long lastAssignmentId;
+
+    private LoadTestRunner(Settings settings, ConfigurableApplicationContext context) {
+        this.settings = settings;
+        this.jdbc = context.getBean(JdbcTemplate.class);
+        this.jsonMapper = context.getBean(JsonMapper.class);
+        this.jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        for (Operation operation : settings.mix().keySet()) {
+            stats.put(operation, new EndpointStats(operation.endpoint));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        try (PostgreSQLContainer postgres = new PostgreSQLContainer(
+                DockerImageName.parse("postgis/postgis:17-3.6-alpine").asCompatibleSubstituteFor("postgres"))
+                .withCommand("postgres", "-c", "fsync=off", "-c", "max_connections=200",
+                        "-c", "shared_preload_libraries=pg_stat_statements")) {
+            postgres.start();
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(INeedCourierApplication.class)
+                    .properties(
+                            "spring.datasource.url=" + postgres.getJdbcUrl(),
+                            "spring.datasource.username=" + postgres.getUsername(),
+                            "spring.datasource.password=" + postgres.getPassword(),
+                            "spring.docker.compose.enabled=false",
+                            "server.port=0",
+                            "logging.level.root=WARN")
+                    .run()) {
+                LoadTestRunner runner = new LoadTestRunner(settings, context);
+                runner.seed();
+                context.getBean(OnDutyService.class).rebuildQueue();
+                runner.run();
+            }
+        }
+    }
+
+    private void seed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Object[]> businesses = new ArrayList<>();
+        for (int i = 0; i < settings.businesses(); i++) {
+            businesses.add(new Object[]{"LOAD" + i, "Load Business " + i, "load-" + i + "@business.local",
+                    random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON)});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO businesses (business_code, name, contact_person, phone, email, password_hash,
+                                        status, is_active, email_verified, latitude, longitude)
+                VALUES (?, ?, 'Load Test', '02160000000', ?, 'x', 'ACTIVE', true, true, ?, ?)
+                """, businesses);
+        jdbc.query("SELECT id, email FROM businesses WHERE email LIKE 'load-%@business.local' ORDER BY id", rs -> {
+            businessTokens.add(jwtTokenProvider.generateToken(rs.getLong(1), rs.getString(2), "BUSINESS"));
+        });
+
+        List<Object[]> couriers = new ArrayList<>();
+        for (int i = 0; i < settings.couriers(); i++) {
+            couriers.add(new Object[]{"Load Courier " + i, "load-" + i + "@courier.local", String.format("0500%07d", i),
+                    random.nextDouble(MIN_LAT, MAX_LAT), random.nextDouble(MIN_LON, MAX_LON)});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO couriers (name, email, phone, password_hash, status, current_latitude, current_longitude)
+                VALUES (?, ?, ?, 'x', 'ONLINE', ?, ?)
+                """, couriers);
+        jdbc.query("SELECT id, email FROM couriers WHERE email LIKE 'load-%@courier.local' ORDER BY id", rs -> {
+            courierTokens.put(rs.getLong(1), jwtTokenProvider.generateToken(rs.getLong(1), rs.getString(2), "COURIER"));
+        });
+        // Başlangıçta herkes görevde: siparişler ilk saniyeden atanabilsin
+        jdbc.update("""
+                INSERT INTO on_duty_couriers (courier_id, on_duty_since, source)
+                SELECT id, ? + (row_number() OVER (ORDER BY id)) * INTERVAL '1 millisecond', 'system'
+                  FROM couriers
+                 WHERE email LIKE 'load-%@courier.local'
+                """, Timestamp.from(Instant.now().minusSeconds(60)));
+
+        // Her check-in bir RESERVED vardiya tüketir
+        int weight = settings.mix().getOrDefault(Operation.CHECK_IN, 0);
+        long checkIns = (long) settings.rps() * (settings.warmupSeconds() + settings.durationSeconds())
+                * weight / settings.totalWeight() + 100;
+        List<Long> courierIds = new ArrayList<>(courierTokens.keySet());
+        List<Object[]> shifts = new ArrayList<>();
+        Instant start = Instant.now().minusSeconds(600);
+        for (long i = 0; i < (weight == 0 ? 0 : checkIns); i++) {
+            shifts.add(new Object[]{courierIds.get((int) (i % courierIds.size())),
+                    Timestamp.from(start), Timestamp.from(start.plusSeconds(8 * 3600))});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO shifts (courier_id, start_time, end_time, shift_role, status)
+                VALUES (?, ?, ?, 'COURIER', 'RESERVED')
+                """, shifts);
+        jdbc.query(OWN_QUERY + "SELECT shift_id, courier_id FROM shifts WHERE status = 'RESERVED' ORDER BY shift_id",
+                rs -> {
+                    reservedShifts.add(new Work(rs.getLong(1), rs.getLong(2)));
+                });
+
+        jdbc.execute("ANALYZE");
+        jdbc.execute("CREATE EXTENSION IF NOT EXISTS pg_stat_statements");
+    }
+
+    private void run() throws IOException {
+        ScheduledExecutorService feeder = Executors.newSingleThreadScheduledExecutor();
+        feeder.scheduleWithFixedDelay(this::pollAssignments, 0, 200, TimeUnit.MILLISECONDS);
+
+        long period = TimeUnit.SECONDS.toNanos(1) / settings.rps();
+        long warmupRequests = (long) settings.rps() * settings.warmupSeconds();
+        long totalRequests = warmupRequests + (long) settings.rps() * settings.durationSeconds();
+        System.out.printf("Load test: %d rps, %ds warm-up + %ds measured, mix %s%n",
+                settings.rps(), settings.warmupSeconds(), settings.durationSeconds(), settings.mix());
+
+        long measuredFrom;
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            measuredFrom = start + warmupRequests * period;
+            for (long i = 0; i < totalRequests; i++) {
+                long scheduled = start + i * period;
+                if (i == warmupRequests) {
+                    jdbc.execute(OWN_QUERY + "SELECT pg_stat_statements_reset()");
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = pick();
+                boolean measured = i >= warmupRequests;
+                requests.submit(() -> execute(operation, scheduled, measured));
+            }
+        } finally {
+            feeder.shutdownNow();
+        }
+        double measuredSeconds = (System.nanoTime() - measuredFrom) / 1e9;
+        report(measuredSeconds);
+    }
+
+    private Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(settings.totalWeight());
+        for (Map.Entry<Operation, Integer> entry : settings.mix().entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void execute(Operation operation, long scheduled, boolean measured) {
+        EndpointStats endpoint = stats.get(operation);
+        HttpRequest request = request(operation);
+        if (request == null) {
+            if (measured) {
+                endpoint.recordSkipped();
+            }
+            return;
+        }
+        try {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            if (measured) {
+                long queryCount = response.headers().firstValueAsLong(QueryCountFilter.HEADER).orElse(0);
+                endpoint.record(response.statusCode(), System.nanoTime() - scheduled, queryCount);
+            }
+        } catch (IOException e) {
+            if (measured) {
+                endpoint.recordFailure(System.nanoTime() - scheduled);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case CREATE_ORDER -> post("/api/v1/business/orders",
+                    businessTokens.get(random.nextInt(businessTokens.size())), orderBody());
+            case ACCEPT -> {
+                Work assignment = pendingAssignments.poll();
+                yield assignment == null ? null : post("/api/v1/courier/assignments/" + assignment.id() + "/accept",
+                        courierTokens.get(assignment.courierId()), "");
+            }
+            case REJECT -> {
+                Work assignment = pendingAssignments.poll();
+                yield assignment == null ? null : post("/api/v1/courier/assignments/" + assignment.id() + "/reject",
+                        courierTokens.get(assignment.courierId()), "{\"reason\":\"Yük testi\"}");
+            }
+            case CHECK_IN -> {
+                Work shift = reservedShifts.poll();
+                yield shift == null ? null : post("/api/v1/courier/shifts/" + shift.id() + "/check-in",
+                        courierTokens.get(shift.courierId()), "");
+            }
+        };
+    }
+
+    private HttpRequest post(String path, String token, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String orderBody() {
+        int n = ThreadLocalRandom.current().nextInt(1, 1000);
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setPickupAddress("Caferağa Mah. Moda Cad. No:" + n + " Kadıköy/İstanbul");
+        request.setDeliveryAddress("Sinanpaşa Mah. Ihlamurdere Cad. No:" + n + " Beşiktaş/İstanbul");
+        request.setEndCustomerName("Yük Testi " + n);
+        request.setEndCustomerPhone("+90555" + String.format("%07d", n));
+        request.setPackageDescription("Load test package");
+        request.setPriority(OrderPriority.NORMAL);
+        request.setPaymentType(PaymentType.CASH);
+        request.setDeliveryFee(new BigDecimal("45.00"));
+        return jsonMapper.writeValueAsString(request);
+    }
+
+    /**
+     * Hand newly created PENDING assignments to the accept/reject operations
+     */
+    private void pollAssignments() {
+        try {
+            jdbc.query(OWN_QUERY + """
+                    SELECT id, courier_id FROM order_assignments
+                     WHERE status = 'PENDING' AND id > ?
+                     ORDER BY id LIMIT 1000
+                    """, rs -> {
+                lastAssignmentId = rs.getLong(1);
+                pendingAssignments.add(new Work(lastAssignmentId, rs.getLong(2)));
+            }, lastAssignmentId);
+        } catch (RuntimeException e) {
+            System.err.println("Could not poll assignments: " + e.getMessage());
+        }
+    }
+
+    private void report(double measuredSeconds) throws IOException {
+        List<Map<String, Object>> endpoints = stats.values().stream()
+                .map(endpoint -> endpoint.summary(measuredSeconds))
+                .toList();
+        long requests = endpoints.stream().mapToLong(endpoint -> (Long) endpoint.get("requests")).sum();
+
+        String ownStatements = "query NOT LIKE '%loadtest%' AND query NOT LIKE '%pg_stat_statements%'";
+        Long statements = jdbc.queryForObject(
+                "SELECT COALESCE(SUM(calls), 0)::bigint FROM pg_stat_statements WHERE " + ownStatements, Long.class);
+        List<Map<String, Object>> topStatements = jdbc.queryForList("""
+                SELECT calls, round(mean_exec_time::numeric, 3) AS mean_ms, left(regexp_replace(query, '\\s+', ' ', 'g'), 160) AS query
+                  FROM pg_stat_statements
+                 WHERE %s
+                 ORDER BY calls DESC
+                 LIMIT 10
+                """.formatted(ownStatements));
+
+        System.out.printf("%n%-50s %9s %8s %7s %7s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "rps", "errors", "skipped", "p50 ms", "p99 ms", "p999 ms", "max ms", "sql/req");
+        for (Map<String, Object> endpoint : endpoints) {
+            System.out.printf("%-50s %9d %8.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %8.1f%n",
+                    endpoint.get("endpoint"), endpoint.get("requests"), endpoint.get("rps"), endpoint.get("errors"),
+                    endpoint.get("skipped"), endpoint.get("p50Ms"), endpoint.get("p99Ms"), endpoint.get("p999Ms"),
+                    endpoint.get("maxMs"), endpoint.get("queriesPerRequest"));
+        }
+        double statementsPerRequest = requests == 0 ? 0 : (double) statements / requests;
+        System.out.printf("%nDatabase: %d statements, %.1f per request%n", statements, statementsPerRequest);
+        topStatements.forEach(row -> System.out.printf("%10s calls %10s ms  %s%n",
+                row.get("calls"), row.get("mean_ms"), row.get("query")));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rps", settings.rps());
+        result.put("durationSeconds", settings.durationSeconds());
+        result.put("mix", settings.mix());
+        result.put("endpoints", endpoints);
+        result.put("statements", statements);
+        result.put("statementsPerRequest", statementsPerRequest);
+        result.put("topStatements", topStatements);
+        Files.createDirectories(settings.result().toAbsolutePath().getParent());
+        Files.writeString(settings.result(), jsonMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+        System.out.println("Results written to " + settings.result());
+    }
+}
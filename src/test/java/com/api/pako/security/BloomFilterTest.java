@@ -0,0 +1,47 @@
+package com.api.pako.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void addedKeysAreAlwaysFound() {
+        // GIVEN
+        var underTest = new BloomFilter(10_000, 0.001);
+        var keys = new String[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            underTest.put(keys[i]);
+        }
+
+        // WHEN / THEN
+        for (String key : keys) {
+            assertThat(underTest.mightContain(key)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        // GIVEN
+        var underTest = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            underTest.put(UUID.randomUUID().toString());
+        }
+
+        // WHEN
+        int hits = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (underTest.mightContain(UUID.randomUUID().toString())) {
+                hits++;
+            }
+        }
+
+        // THEN
+        assertThat(hits).isLessThan(2_000);
+        assertThat(underTest.bitCount()).isLessThan(100_000 * 8L);
+    }
+}
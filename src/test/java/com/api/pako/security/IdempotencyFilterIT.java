@@ -0,0 +1,177 @@
+package com.api.pako.security;
+
+import com.api.pako.business.dto.OrderCreateRequest;
+import com.api.pako.controller.AbstractIntegrationTest;
+import com.api.pako.model.enums.OrderPriority;
+import com.api.pako.model.enums.PaymentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterIT extends AbstractIntegrationTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        jdbcTemplate.update("DELETE FROM orders");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM couriers WHERE email = 'idempotency@courier.local'");
+    }
+
+    @Test
+    @DisplayName("a retried order creation with the same key creates one order and replays the response")
+    void replayedOrderCreationCreatesOneOrder() throws IOException {
+        // GIVEN
+        var body = dtoToJson(orderRequest("Ahmet Yılmaz"));
+        var first = createOrder("order-1", body);
+
+        // WHEN
+        var retry = createOrder("order-1", body);
+
+        // THEN
+        assertThat(first).hasStatus(HttpStatus.CREATED);
+        assertThat(first.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(retry).hasStatus(HttpStatus.CREATED);
+        assertThat(retry.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        assertThat(orderCount()).isOne();
+    }
+
+    @Test
+    @DisplayName("a key reused with a different body is rejected with 422")
+    void keyReusedWithDifferentBodyIsRejected() {
+        // GIVEN
+        assertThat(createOrder("order-2", dtoToJson(orderRequest("Ahmet Yılmaz")))).hasStatus(HttpStatus.CREATED);
+
+        // WHEN
+        var reused = createOrder("order-2", dtoToJson(orderRequest("Mehmet Kaya")));
+
+        // THEN
+        assertThat(reused).hasStatus(HttpStatus.UNPROCESSABLE_CONTENT);
+        assertThat(orderCount()).isOne();
+    }
+
+    @Test
+    @DisplayName("a form-bodied pickup is replayed for the same parameters and rejected for others")
+    void formBodiedPickupIsFingerprinted() {
+        // GIVEN
+        var courierId = insertCourier();
+        var pickup = "/api/v1/courier/orders/" + insertOrder("ASSIGNED", courierId) + "/pickup";
+        assertThat(postForm(courierId, pickup, "pickup-1", "notes=Paket+sa%C4%9Flam")).hasStatus(HttpStatus.OK);
+
+        // WHEN
+        var retry = postForm(courierId, pickup, "pickup-1", "notes=Paket+sa%C4%9Flam");
+        var otherNotes = postForm(courierId, pickup, "pickup-1", "notes=Paket+ezik");
+
+        // THEN
+        assertThat(retry).hasStatus(HttpStatus.OK);
+        assertThat(retry.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(otherNotes).hasStatus(HttpStatus.UNPROCESSABLE_CONTENT);
+    }
+
+    @Test
+    @DisplayName("a form-bodied complete is fingerprinted by its parameters, not their order")
+    void formBodiedCompleteIsFingerprinted() {
+        // GIVEN
+        var courierId = insertCourier();
+        var orderId = insertOrder("IN_TRANSIT", courierId);
+        var complete = "/api/v1/courier/orders/" + orderId + "/complete";
+        assertThat(postForm(courierId, complete, "complete-1", "notes=Kap%C4%B1ya+teslim&collectionAmount=120.5"))
+                .hasStatus(HttpStatus.OK);
+
+        // WHEN
+        var reordered = postForm(courierId, complete, "complete-1", "collectionAmount=120.5&notes=Kap%C4%B1ya+teslim");
+        var otherAmount = postForm(courierId, complete, "complete-1", "notes=Kap%C4%B1ya+teslim&collectionAmount=99");
+        var pickupWithSameKey = postForm(courierId, "/api/v1/courier/orders/" + orderId + "/pickup", "complete-1",
+                "notes=Kap%C4%B1ya+teslim");
+
+        // THEN
+        assertThat(reordered).hasStatus(HttpStatus.OK);
+        assertThat(reordered.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(otherAmount).hasStatus(HttpStatus.UNPROCESSABLE_CONTENT);
+        // Anahtar URI'ye bağlıdır; pickup ayrı bir istektir ve DELIVERED siparişte 400 alır
+        assertThat(pickupWithSameKey).hasStatus(HttpStatus.BAD_REQUEST);
+        assertThat(pickupWithSameKey.getResponse().getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT collection_amount FROM orders WHERE id = ?",
+                BigDecimal.class, orderId)).isEqualByComparingTo("120.5");
+    }
+
+    private MvcTestResult createOrder(String key, String body) {
+        return mockMvc
+                .post()
+                .uri("/api/v1/business/orders")
+                .header("Authorization", "Bearer " + jwtTokenProvider.generateToken(42L, "keanu@reeves.com"))
+                .header(IdempotencyFilter.HEADER, key)
+                .content(body)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+    }
+
+    private MvcTestResult postForm(Long courierId, String uri, String key, String form) {
+        return mockMvc
+                .post()
+                .uri(uri)
+                .header("Authorization", "Bearer " + jwtTokenProvider.generateToken(courierId, "idempotency@courier.local"))
+                .header(IdempotencyFilter.HEADER, key)
+                .content(form)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+    }
+
+    private Long insertCourier() {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO couriers (name, email, phone, password_hash, status)
+                VALUES ('Idempotency Courier', 'idempotency@courier.local', '05000002001', 'x', 'ONLINE')
+                RETURNING id
+                """, Long.class);
+    }
+
+    private Long insertOrder(String status, Long courierId) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO orders (order_number, status, business_id, courier_id, pickup_address, delivery_address,
+                                    delivery_fee, order_date)
+                VALUES ('IDEMPOTENCY-1', CAST(? AS order_status), 42, ?, 'Moda, Istanbul', 'Beşiktaş, Istanbul', 35, now())
+                RETURNING id
+                """, Long.class, status, courierId);
+    }
+
+    private Long orderCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM orders", Long.class);
+    }
+
+    private static OrderCreateRequest orderRequest(String endCustomerName) {
+        var request = new OrderCreateRequest();
+        request.setPickupAddress("Kadıköy Moda Caddesi No:123, Istanbul");
+        request.setDeliveryAddress("Beşiktaş Barbaros Bulvarı No:45, Istanbul");
+        request.setEndCustomerName(endCustomerName);
+        request.setEndCustomerPhone("+905551234567");
+        request.setPriority(OrderPriority.NORMAL);
+        request.setPaymentType(PaymentType.CASH);
+        request.setDeliveryFee(BigDecimal.valueOf(35.50));
+        return request;
+    }
+}
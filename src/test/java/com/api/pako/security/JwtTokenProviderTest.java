@@ -0,0 +1,66 @@
+package com.api.pako.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-KEY-23a4ec1c-3bd4-417a-83fa-7c9bae9ec9bd.#%";
+
+    private final JwtTokenProvider underTest = new JwtTokenProvider(SECRET, 1, 100);
+
+    @Test
+    void parseTokenReturnsAllClaimsAtOnce() {
+        // GIVEN
+        var token = underTest.generateToken(42L, "keanu@reeves.com", "BUSINESS");
+
+        // WHEN
+        var claims = underTest.parseToken(token);
+
+        // THEN
+        assertThat(claims.userId()).isEqualTo(42L);
+        assertThat(claims.email()).isEqualTo("keanu@reeves.com");
+        assertThat(claims.role()).isEqualTo("BUSINESS");
+        assertThat(underTest.parseToken(token)).isSameAs(claims);
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        // GIVEN
+        var token = underTest.generateToken(42L, "keanu@reeves.com", "BUSINESS");
+        underTest.parseToken(token);
+        var tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // WHEN / THEN
+        assertThat(underTest.resolve(tampered)).isEmpty();
+        assertThat(underTest.validateToken(null)).isFalse();
+        assertThatThrownBy(() -> underTest.getUserIdFromToken(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void tokensFromAnotherKeyAreRejected() {
+        // GIVEN
+        var other = new JwtTokenProvider(SECRET.replace('a', 'b'), 1, 100);
+        var token = other.generateToken(42L, "keanu@reeves.com", "BUSINESS");
+
+        // WHEN / THEN
+        assertThat(underTest.resolve(token)).isEmpty();
+    }
+
+    @Test
+    void uncachedProviderStillVerifies() {
+        // GIVEN
+        var uncached = new JwtTokenProvider(SECRET, 1, 0);
+        var token = uncached.generateToken(7L, "courier@example.com", "COURIER");
+
+        // WHEN
+        var claims = uncached.parseToken(token);
+
+        // THEN
+        assertThat(claims.userId()).isEqualTo(7L);
+        assertThat(claims.role()).isEqualTo("COURIER");
+    }
+}
@@ -0,0 +1,74 @@
+package com.api.pako.security;
+
+import com.api.pako.config.SecurityConfig;
+import com.api.pako.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordVerifierTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void legacyHashMatchesAndIsUpgraded() {
+        // GIVEN
+        var encoder = new SecurityConfig(null, null, null).passwordEncoder(11);
+        var underTest = new PasswordVerifier(encoder, meterRegistry, 2, 250);
+        var legacyHash = new BCryptPasswordEncoder(4).encode("test123");
+
+        // WHEN
+        var result = underTest.verify("test123", legacyHash);
+
+        // THEN
+        assertThat(result.matches()).isTrue();
+        assertThat(result.upgradedHash()).startsWith("{bcrypt}$2a$11$");
+        assertThat(underTest.verify("test123", result.upgradedHash()))
+                .isEqualTo(new PasswordVerifier.Result(true, null));
+    }
+
+    @Test
+    void wrongPasswordIsNotUpgraded() {
+        // GIVEN
+        var encoder = new SecurityConfig(null, null, null).passwordEncoder(4);
+        var underTest = new PasswordVerifier(encoder, meterRegistry, 2, 250);
+
+        // WHEN
+        var result = underTest.verify("wrong", new BCryptPasswordEncoder(4).encode("test123"));
+
+        // THEN
+        assertThat(result).isEqualTo(new PasswordVerifier.Result(false, null));
+    }
+
+    @Test
+    void checksBeyondTheLimitAreShed() throws Exception {
+        // GIVEN
+        var inside = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var encoder = mock(PasswordEncoder.class);
+        when(encoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            inside.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        var underTest = new PasswordVerifier(encoder, meterRegistry, 1, 10);
+        var first = CompletableFuture.supplyAsync(() -> underTest.verify("a", "hash"));
+        inside.await(5, TimeUnit.SECONDS);
+
+        // WHEN / THEN
+        assertThatThrownBy(() -> underTest.verify("b", "hash")).isInstanceOf(LoginThrottledException.class);
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).matches()).isTrue();
+        assertThat(meterRegistry.get("auth.password.checks.shed").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.api.pako.service;
+
+import com.api.pako.event.AssignmentClosedEvent;
+import com.api.pako.event.AssignmentCreatedEvent;
+import com.api.pako.model.enums.AssignmentStatus;
+import com.api.pako.repository.OrderAssignmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class AssignmentTimeoutSchedulerTest {
+
+    private final OrderAssignmentService orderAssignmentService = mock(OrderAssignmentService.class);
+    private final AssignmentTimeoutScheduler underTest =
+            new AssignmentTimeoutScheduler(orderAssignmentService, mock(OrderAssignmentRepository.class), 2);
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    void expiresAssignmentWhenTimerFires() {
+        // GIVEN
+        var timeoutAt = OffsetDateTime.now(ZoneOffset.UTC).plusNanos(50_000_000);
+
+        // WHEN
+        underTest.onAssignmentCreated(new AssignmentCreatedEvent(1L, 10L, 100L, timeoutAt));
+
+        // THEN
+        verify(orderAssignmentService, timeout(2000)).expireAssignment(1L);
+        assertThat(underTest.pendingCount()).isZero();
+    }
+
+    @Test
+    void closedAssignmentIsNotExpired() {
+        // GIVEN
+        var timeoutAt = OffsetDateTime.now(ZoneOffset.UTC).plusNanos(100_000_000);
+        underTest.onAssignmentCreated(new AssignmentCreatedEvent(1L, 10L, 100L, timeoutAt));
+
+        // WHEN
+        underTest.onAssignmentClosed(new AssignmentClosedEvent(1L, 10L, 100L, AssignmentStatus.ACCEPTED));
+
+        // THEN
+        assertThat(underTest.pendingCount()).isZero();
+        verify(orderAssignmentService, after(500).never()).expireAssignment(1L);
+    }
+
+    @Test
+    void timersDueTogetherExpireWithBoundedConcurrency() throws InterruptedException {
+        // GIVEN
+        var release = new CountDownLatch(1);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await();
+            running.decrementAndGet();
+            return null;
+        }).when(orderAssignmentService).expireAssignment(anyLong());
+        var timeoutAt = OffsetDateTime.now(ZoneOffset.UTC).plusNanos(50_000_000);
+
+        // WHEN
+        for (long id = 1; id <= 10; id++) {
+            underTest.onAssignmentCreated(new AssignmentCreatedEvent(id, id, 100L, timeoutAt));
+        }
+
+        // THEN
+        verify(orderAssignmentService, timeout(2000).times(2)).expireAssignment(anyLong());
+        verify(orderAssignmentService, after(300).atMost(2)).expireAssignment(anyLong());
+        release.countDown();
+        verify(orderAssignmentService, timeout(2000).times(10)).expireAssignment(anyLong());
+        assertThat(maxRunning).hasValue(2);
+    }
+}
@@ -0,0 +1,144 @@
+package com.api.pako.service;
+
+import com.api.pako.controller.AbstractIntegrationTest;
+import com.api.pako.service.OrderAssignmentService.TimeoutOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AssignmentTimeoutSweeperIT extends AbstractIntegrationTest {
+
+    @Autowired
+    AssignmentTimeoutSweeper sweeper;
+
+    @Autowired
+    OrderAssignmentService orderAssignmentService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Long courierId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM on_duty_couriers");
+        jdbcTemplate.update("DELETE FROM order_assignments");
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        jdbcTemplate.update("DELETE FROM orders");
+        courierId = jdbcTemplate.queryForObject("""
+                INSERT INTO couriers (name, email, phone, password_hash, status)
+                VALUES ('Sweep Courier', 'sweep@courier.local', '05000003001', 'x', 'ONLINE')
+                RETURNING id
+                """, Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM order_assignments");
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM couriers WHERE email = 'sweep@courier.local'");
+    }
+
+    @Test
+    @DisplayName("an order whose assignment timed out without a new one is found again and retried")
+    void strandedOrderIsRetried() {
+        // GIVEN
+        var stranded = insertOrder("SWEEP-1", "PENDING");
+        insertAssignment(stranded, "TIMEOUT");
+        var stillOffered = insertOrder("SWEEP-2", "PENDING");
+        insertAssignment(stillOffered, "TIMEOUT");
+        insertAssignment(stillOffered, "PENDING");
+        var cancelled = insertOrder("SWEEP-3", "CANCELLED");
+        insertAssignment(cancelled, "TIMEOUT");
+
+        // WHEN
+        var awaiting = orderAssignmentService.claimOrdersAwaitingAssignment(10);
+
+        // THEN
+        assertThat(awaiting).containsExactly(stranded);
+        // Nöbetçi kurye yok: sipariş beklemede kalır ve bir sonraki sweep'te yine denenir
+        assertThat(orderAssignmentService.reassignAwaitingOrder(stranded)).isEqualTo(TimeoutOutcome.AWAITING_COURIER);
+        assertThat(orderAssignmentService.reassignAwaitingOrder(stillOffered)).isEqualTo(TimeoutOutcome.SKIPPED);
+        assertThat(orderAssignmentService.claimOrdersAwaitingAssignment(10)).containsExactly(stranded);
+    }
+
+    @Test
+    @DisplayName("the sweep closes overdue assignments and leaves their orders retryable")
+    void sweepClosesOverdueAssignments() {
+        // GIVEN
+        var orderId = insertOrder("SWEEP-4", "PENDING");
+        jdbcTemplate.update("""
+                INSERT INTO order_assignments (order_id, courier_id, assigned_at, status, timeout_at)
+                VALUES (?, ?, now() - INTERVAL '10 minutes', 'PENDING', now() - INTERVAL '5 minutes')
+                """, orderId, courierId);
+
+        // WHEN
+        var result = sweeper.sweep();
+
+        // THEN
+        assertThat(result.processed()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT status FROM order_assignments WHERE order_id = ?", String.class, orderId)).isEqualTo("TIMEOUT");
+        assertThat(orderAssignmentService.claimOrdersAwaitingAssignment(10)).containsExactly(orderId);
+    }
+
+    @Test
+    @DisplayName("retries rotate through more waiting orders than fit in one batch")
+    void retriesRotateBeyondTheFirstBatch() {
+        // GIVEN
+        var first = insertOrder("SWEEP-5", "PENDING");
+        insertAssignment(first, "TIMEOUT");
+        var second = insertOrder("SWEEP-6", "PENDING");
+        insertAssignment(second, "TIMEOUT");
+        var third = insertOrder("SWEEP-7", "PENDING");
+        insertAssignment(third, "TIMEOUT");
+
+        // WHEN
+        var firstRun = orderAssignmentService.claimOrdersAwaitingAssignment(2);
+        var secondRun = orderAssignmentService.claimOrdersAwaitingAssignment(2);
+
+        // THEN
+        assertThat(firstRun).containsExactlyInAnyOrder(first, second);
+        // Nöbetçi kurye yok, hepsi beklemede: hiç denenmeyen önce, sonra en eski deneme
+        assertThat(secondRun).containsExactlyInAnyOrder(third, first);
+    }
+
+    @Test
+    @DisplayName("an order that never got an assignment is picked up once it is older than the grace period")
+    void neverAssignedOrderIsPickedUpAfterGrace() {
+        // GIVEN
+        var lost = insertOrder("SWEEP-8", "PENDING");
+        jdbcTemplate.update("UPDATE orders SET created_at = now() - INTERVAL '10 minutes' WHERE id = ?", lost);
+        insertOrder("SWEEP-9", "PENDING"); // yeni: dispatcher hâlâ atıyor olabilir
+
+        // WHEN
+        var awaiting = orderAssignmentService.claimOrdersAwaitingAssignment(10);
+
+        // THEN
+        assertThat(awaiting).containsExactly(lost);
+        // Nöbetçi kurye yok: ilk atama denenir, sipariş beklemede kalır
+        assertThat(orderAssignmentService.reassignAwaitingOrder(lost)).isEqualTo(TimeoutOutcome.AWAITING_COURIER);
+    }
+
+    private Long insertOrder(String orderNumber, String status) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO orders (order_number, status, business_id, courier_id, pickup_address, delivery_address,
+                                    delivery_fee, order_date)
+                VALUES (?, CAST(? AS order_status), 42, ?, 'Moda, Istanbul', 'Beşiktaş, Istanbul', 35, now())
+                RETURNING id
+                """, Long.class, orderNumber, status, courierId);
+    }
+
+    private void insertAssignment(Long orderId, String status) {
+        jdbcTemplate.update("""
+                INSERT INTO order_assignments (order_id, courier_id, assigned_at, status, timeout_at)
+                VALUES (?, ?, now() - INTERVAL '10 minutes', ?, now() + INTERVAL '5 minutes')
+                """, orderId, courierId, status);
+    }
+}
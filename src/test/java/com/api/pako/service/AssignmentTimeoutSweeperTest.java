@@ -0,0 +1,108 @@
+package com.api.pako.service;
+
+import com.api.pako.repository.OrderAssignmentRepository.TimedOutAssignment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AssignmentTimeoutSweeperTest {
+
+    private final OrderAssignmentService orderAssignmentService = mock(OrderAssignmentService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AssignmentTimeoutSweeper underTest =
+            new AssignmentTimeoutSweeper(orderAssignmentService, meterRegistry, 2, 4);
+
+    @Test
+    void sweepReassignsEachOrderOnceAndCountsOutcomes() {
+        // GIVEN
+        when(orderAssignmentService.expireOverdueAssignments(4))
+                .thenReturn(List.of(assignment(1L, 10L), assignment(2L, 20L), assignment(3L, 30L), assignment(4L, 30L)));
+        when(orderAssignmentService.reassignAwaitingOrder(10L)).thenReturn(OrderAssignmentService.TimeoutOutcome.REASSIGNED);
+        when(orderAssignmentService.reassignAwaitingOrder(20L)).thenReturn(OrderAssignmentService.TimeoutOutcome.AWAITING_COURIER);
+        when(orderAssignmentService.reassignAwaitingOrder(30L)).thenThrow(new IllegalStateException("boom"));
+
+        // WHEN
+        var result = underTest.sweep();
+
+        // THEN
+        assertThat(result).isEqualTo(new AssignmentTimeoutSweeper.BatchResult(4, 1, 1));
+        verify(orderAssignmentService, times(1)).reassignAwaitingOrder(30L);
+        assertThat(meterRegistry.counter("assignment.timeout.sweep.assignments", "outcome", "processed").count())
+                .isEqualTo(4.0);
+        assertThat(meterRegistry.counter("assignment.timeout.sweep.assignments", "outcome", "failed").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void scheduledSweepRepeatsWhileBatchesAreFull() {
+        // GIVEN
+        when(orderAssignmentService.expireOverdueAssignments(4))
+                .thenReturn(List.of(assignment(1L, 10L), assignment(2L, 20L), assignment(3L, 30L), assignment(4L, 40L)))
+                .thenReturn(List.of(assignment(5L, 50L)));
+
+        // WHEN
+        underTest.checkTimeouts();
+
+        // THEN
+        verify(orderAssignmentService, times(2)).expireOverdueAssignments(4);
+        verify(orderAssignmentService).reassignAwaitingOrder(50L);
+    }
+
+    @Test
+    void scheduledSweepRetriesOrdersLeftWithoutAssignment() {
+        // GIVEN
+        when(orderAssignmentService.expireOverdueAssignments(4)).thenReturn(List.of());
+        when(orderAssignmentService.claimOrdersAwaitingAssignment(4)).thenReturn(List.of(60L, 70L));
+        when(orderAssignmentService.reassignAwaitingOrder(60L)).thenReturn(OrderAssignmentService.TimeoutOutcome.REASSIGNED);
+        when(orderAssignmentService.reassignAwaitingOrder(70L)).thenReturn(OrderAssignmentService.TimeoutOutcome.SKIPPED);
+
+        // WHEN
+        underTest.checkTimeouts();
+
+        // THEN
+        verify(orderAssignmentService).reassignAwaitingOrder(60L);
+        verify(orderAssignmentService).reassignAwaitingOrder(70L);
+        assertThat(meterRegistry.counter("assignment.timeout.sweep.assignments", "outcome", "retried").count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.counter("assignment.timeout.sweep.assignments", "outcome", "reassigned").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void emptySweepDoesNothing() {
+        // GIVEN
+        when(orderAssignmentService.expireOverdueAssignments(4)).thenReturn(List.of());
+
+        // WHEN
+        var result = underTest.sweep();
+
+        // THEN
+        assertThat(result).isEqualTo(new AssignmentTimeoutSweeper.BatchResult(0, 0, 0));
+    }
+
+    private static TimedOutAssignment assignment(Long id, Long orderId) {
+        return new TimedOutAssignment() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getOrderId() {
+                return orderId;
+            }
+
+            @Override
+            public Long getCourierId() {
+                return 7L;
+            }
+        };
+    }
+}
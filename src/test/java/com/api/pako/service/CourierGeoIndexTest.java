@@ -0,0 +1,114 @@
+package com.api.pako.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CourierGeoIndexTest {
+
+    private static final double MIN_LAT = 40.80;
+    private static final double MIN_LON = 28.60;
+
+    @Test
+    void nearestMatchesBruteForce() {
+        // GIVEN
+        var underTest = new CourierGeoIndex(0.01, 64);
+        var random = new Random(42);
+        int n = 2_000;
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = MIN_LAT + random.nextDouble() * 0.4;
+            lons[i] = MIN_LON + random.nextDouble() * 0.8;
+            underTest.update(i, lats[i], lons[i]);
+        }
+        long[] ids = new long[5];
+        double[] distances = new double[5];
+
+        for (int q = 0; q < 50; q++) {
+            double lat = MIN_LAT + random.nextDouble() * 0.4;
+            double lon = MIN_LON + random.nextDouble() * 0.8;
+
+            // WHEN
+            int found = underTest.nearest(lat, lon, -1, Double.POSITIVE_INFINITY, ids, distances);
+
+            // THEN
+            long[] expected = IntStream.range(0, n).boxed()
+                    .sorted(Comparator.comparingDouble(i -> squaredDistance(lat, lon, lats[i], lons[i])))
+                    .limit(5)
+                    .mapToLong(Integer::longValue)
+                    .toArray();
+            assertThat(found).isEqualTo(5);
+            assertThat(ids).containsExactly(expected);
+        }
+    }
+
+    @Test
+    void nearestSkipsExcludedCourierAndRespectsMaxDistance() {
+        // GIVEN
+        var underTest = new CourierGeoIndex(0.01, 64);
+        underTest.update(1L, 41.000, 29.000);
+        underTest.update(2L, 41.001, 29.000);
+        underTest.update(3L, 41.100, 29.000);
+        long[] ids = new long[3];
+        double[] distances = new double[3];
+
+        // WHEN
+        int found = underTest.nearest(41.000, 29.000, 1L, 1_000, ids, distances);
+
+        // THEN
+        assertThat(found).isEqualTo(1);
+        assertThat(ids[0]).isEqualTo(2L);
+        assertThat(distances[0]).isCloseTo(111.3, within(1.0));
+    }
+
+    @Test
+    void withinRadiusReturnsOnlyCouriersInRange() {
+        // GIVEN
+        var underTest = new CourierGeoIndex(0.01, 64);
+        underTest.update(1L, 41.000, 29.000);
+        underTest.update(2L, 41.010, 29.000);
+        underTest.update(3L, 41.050, 29.000);
+        long[] ids = new long[10];
+        double[] distances = new double[10];
+
+        // WHEN
+        int found = underTest.withinRadius(41.000, 29.000, 2_000, ids, distances);
+
+        // THEN
+        assertThat(Arrays.copyOf(ids, found)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void updateMovesCourierAndRemoveDropsIt() {
+        // GIVEN
+        var underTest = new CourierGeoIndex(0.01, 64);
+        underTest.update(1L, 41.000, 29.000);
+        underTest.update(2L, 41.000, 29.010);
+        long[] ids = new long[1];
+        double[] distances = new double[1];
+
+        // WHEN
+        underTest.update(2L, 41.500, 29.500);
+        underTest.remove(1L);
+        int found = underTest.nearest(41.000, 29.000, -1, Double.POSITIVE_INFINITY, ids, distances);
+
+        // THEN
+        assertThat(underTest.size()).isEqualTo(1);
+        assertThat(underTest.contains(1L)).isFalse();
+        assertThat(found).isEqualTo(1);
+        assertThat(ids[0]).isEqualTo(2L);
+    }
+
+    private static double squaredDistance(double lat1, double lon1, double lat2, double lon2) {
+        double dx = (lon2 - lon1) * Math.cos(Math.toRadians(lat1));
+        double dy = lat2 - lat1;
+        return dx * dx + dy * dy;
+    }
+}
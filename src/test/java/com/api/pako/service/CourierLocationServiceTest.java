@@ -0,0 +1,116 @@
+package com.api.pako.service;
+
+import com.api.pako.dto.LocationPingRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CourierLocationServiceTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2025, 12, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OnDutyCourierSet onDutyCouriers = new OnDutyCourierSet();
+    private final CourierGeoIndex geoIndex = new CourierGeoIndex(0.01, 64);
+    private final CourierLocationService underTest = new CourierLocationService(
+            jdbcTemplate, onDutyCouriers, geoIndex, new SimpleMeterRegistry(), 500);
+
+    @Test
+    void keepsNewestPingAndIgnoresStaleOnes() {
+        // GIVEN
+        underTest.record(1L, new LocationPingRequest(41.0, 29.0, T0.plusSeconds(10)));
+
+        // WHEN
+        underTest.record(1L, new LocationPingRequest(40.0, 28.0, T0));
+
+        // THEN
+        assertThat(underTest.getLatest(1L)).get()
+                .extracting(CourierLocationService.Position::latitude)
+                .isEqualTo(41.0);
+    }
+
+    @Test
+    void onlyOnDutyCouriersEnterGeoIndex() {
+        // GIVEN
+        onDutyCouriers.add(1L);
+
+        // WHEN
+        underTest.record(1L, new LocationPingRequest(41.0, 29.0, T0));
+        underTest.record(2L, new LocationPingRequest(41.0, 29.0, T0));
+
+        // THEN
+        assertThat(geoIndex.contains(1L)).isTrue();
+        assertThat(geoIndex.contains(2L)).isFalse();
+    }
+
+    @Test
+    void futurePingIsClampedToServerTime() {
+        // GIVEN
+        underTest.record(1L, new LocationPingRequest(41.0, 29.0, OffsetDateTime.now(ZoneOffset.UTC).plusDays(1)));
+
+        // WHEN
+        underTest.record(1L, new LocationPingRequest(40.0, 28.0, null));
+
+        // THEN
+        assertThat(underTest.getLatest(1L)).get()
+                .extracting(CourierLocationService.Position::latitude)
+                .isEqualTo(40.0);
+    }
+
+    @Test
+    void offDutyPositionIsDroppedAfterFlush() {
+        // GIVEN
+        onDutyCouriers.add(1L);
+        underTest.record(1L, new LocationPingRequest(41.0, 29.0, T0));
+        underTest.record(2L, new LocationPingRequest(41.2, 29.2, T0));
+
+        // WHEN
+        underTest.flush();
+
+        // THEN
+        assertThat(underTest.getLatest(1L)).isPresent();
+        assertThat(underTest.getLatest(2L)).isEmpty();
+    }
+
+    @Test
+    void flushWritesOneRowPerCourierThenNothing() {
+        // GIVEN
+        underTest.record(1L, new LocationPingRequest(41.0, 29.0, T0));
+        underTest.record(1L, new LocationPingRequest(41.1, 29.1, T0.plusSeconds(5)));
+        underTest.record(2L, new LocationPingRequest(41.2, 29.2, T0));
+
+        // WHEN
+        int first = underTest.flush();
+        int second = underTest.flush();
+
+        // THEN
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isZero();
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((Collection<Object> rows) -> rows.size() == 2), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any());
+    }
+
+    @Test
+    void emptyFlushSkipsDatabase() {
+        // WHEN
+        underTest.flush();
+
+        // THEN
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), ArgumentMatchers.<Collection<Object>>any(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any());
+    }
+}
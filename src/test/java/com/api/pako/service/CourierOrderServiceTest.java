@@ -0,0 +1,97 @@
+package com.api.pako.service;
+
+import com.api.pako.business.dto.OrderResponse;
+import com.api.pako.dto.OrderStatusResponse;
+import com.api.pako.event.OrderStatusChangedEvent;
+import com.api.pako.exception.InvalidOrderOperationException;
+import com.api.pako.exception.OrderNotFoundException;
+import com.api.pako.exception.UnauthorizedAccessException;
+import com.api.pako.model.enums.OrderStatus;
+import com.api.pako.repository.OrderRepository;
+import com.api.pako.repository.OrderRepositoryCustom.StatusSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CourierOrderServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 12, 1, 9, 30);
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final CourierOrderService underTest = new CourierOrderService(orderRepository, eventPublisher);
+
+    @Test
+    void completeUpdatesConditionallyAndPublishesTheChange() {
+        // GIVEN
+        var amount = BigDecimal.valueOf(120);
+        when(orderRepository.transitionStatus(5L, 7L, OrderStatus.IN_TRANSIT, OrderStatus.DELIVERED, "kapıda", amount))
+                .thenReturn(Optional.of(new StatusSnapshot(OrderStatus.DELIVERED, 42L, 7L, NOW)));
+
+        // WHEN
+        var response = underTest.complete(7L, 5L, "kapıda", amount);
+
+        // THEN
+        assertThat(response).isEqualTo(new OrderStatusResponse(5L, OrderStatus.DELIVERED, NOW));
+        verify(eventPublisher).publishEvent(
+                new OrderStatusChangedEvent(5L, 42L, 7L, OrderStatus.IN_TRANSIT, OrderStatus.DELIVERED));
+    }
+
+    @Test
+    void repeatedPickupIsAcceptedWithoutSecondEvent() {
+        // GIVEN
+        when(orderRepository.transitionStatus(any(), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(orderRepository.findStatusSnapshot(5L))
+                .thenReturn(Optional.of(new StatusSnapshot(OrderStatus.PICKED_UP, 42L, 7L, NOW)));
+
+        // WHEN
+        var response = underTest.pickup(7L, 5L, "  ");
+
+        // THEN
+        assertThat(response).isEqualTo(new OrderStatusResponse(5L, OrderStatus.PICKED_UP, NOW));
+        verify(orderRepository).transitionStatus(5L, 7L, OrderStatus.ASSIGNED, OrderStatus.PICKED_UP, null, null);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void failedTransitionsExplainWhy() {
+        // GIVEN
+        when(orderRepository.transitionStatus(any(), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(orderRepository.findStatusSnapshot(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findStatusSnapshot(2L))
+                .thenReturn(Optional.of(new StatusSnapshot(OrderStatus.PICKED_UP, 42L, 8L, NOW)));
+        when(orderRepository.findStatusSnapshot(3L))
+                .thenReturn(Optional.of(new StatusSnapshot(OrderStatus.ASSIGNED, 42L, 7L, NOW)));
+
+        // WHEN / THEN
+        assertThatThrownBy(() -> underTest.startDelivery(7L, 1L)).isInstanceOf(OrderNotFoundException.class);
+        assertThatThrownBy(() -> underTest.startDelivery(7L, 2L)).isInstanceOf(UnauthorizedAccessException.class);
+        assertThatThrownBy(() -> underTest.startDelivery(7L, 3L))
+                .isInstanceOf(InvalidOrderOperationException.class)
+                .hasMessageContaining("Mevcut durum: ASSIGNED, Beklenen: PICKED_UP");
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void orderOfAnotherCourierIsNotShown() {
+        // GIVEN
+        var order = new OrderResponse();
+        order.setOrderId(5L);
+        order.setCourierId(8L);
+        when(orderRepository.findResponseById(5L)).thenReturn(Optional.of(order));
+
+        // WHEN / THEN
+        assertThatThrownBy(() -> underTest.getOrder(7L, 5L)).isInstanceOf(UnauthorizedAccessException.class);
+    }
+}
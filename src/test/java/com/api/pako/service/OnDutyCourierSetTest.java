@@ -0,0 +1,46 @@
+package com.api.pako.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OnDutyCourierSetTest {
+
+    @Test
+    void tracksMembership() {
+        // GIVEN
+        var underTest = new OnDutyCourierSet();
+        underTest.add(1L);
+        underTest.add(2L);
+        underTest.add(1L);
+
+        // WHEN
+        var removed = underTest.remove(2L);
+
+        // THEN
+        assertThat(removed).isTrue();
+        assertThat(underTest.remove(2L)).isFalse();
+        assertThat(underTest.contains(1L)).isTrue();
+        assertThat(underTest.contains(2L)).isFalse();
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void resetReplacesContents() {
+        // GIVEN
+        var underTest = new OnDutyCourierSet();
+        underTest.add(1L);
+        underTest.add(2L);
+
+        // WHEN
+        underTest.reset(List.of(2L, 3L));
+
+        // THEN
+        assertThat(underTest.contains(1L)).isFalse();
+        assertThat(underTest.contains(2L)).isTrue();
+        assertThat(underTest.contains(3L)).isTrue();
+        assertThat(underTest.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,91 @@
+package com.api.pako.service;
+
+import com.api.pako.controller.AbstractIntegrationTest;
+import com.api.pako.repository.OnDutyCourierRepository.ClaimedCourier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OnDutyServiceIT extends AbstractIntegrationTest {
+
+    // Hikari'nin varsayılan havuzundan (10) küçük olmalı; her claim kendi bağlantısını tutar
+    private static final int CLAIMS = 8;
+
+    @Autowired
+    OnDutyService onDutyService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO couriers (name, email, phone, password_hash, status)
+                SELECT 'Claim ' || n, 'claim-' || n || '@courier.local', '0500000' || lpad(n::text, 4, '0'), 'x', 'ONLINE'
+                  FROM generate_series(1, ?) AS n
+                """, CLAIMS);
+        jdbcTemplate.update("""
+                INSERT INTO on_duty_couriers (courier_id, on_duty_since, source)
+                SELECT id, now() - (id * INTERVAL '1 second'), 'system'
+                  FROM couriers
+                 WHERE email LIKE 'claim-%@courier.local'
+                """);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM couriers WHERE email LIKE 'claim-%@courier.local'");
+    }
+
+    @Test
+    @DisplayName("Parallel claims holding their locks each get a different courier")
+    void parallelClaimsReturnDistinctCouriers() throws Exception {
+        // GIVEN
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        // Kilitler ancak herkes sahiplendikten sonra bırakılır; SKIP LOCKED olmasa claim'ler birbirini beklerdi
+        var allClaimed = new CyclicBarrier(CLAIMS);
+
+        // WHEN
+        List<Long> claimed = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CLAIMS)) {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < CLAIMS; i++) {
+                futures.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                    Long courierId = onDutyService.claimNextCourier(null)
+                            .map(ClaimedCourier::getCourierId)
+                            .orElse(null);
+                    try {
+                        allClaimed.await(10, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return courierId;
+                })));
+            }
+            for (Future<Long> future : futures) {
+                claimed.add(future.get(30, TimeUnit.SECONDS));
+            }
+        }
+
+        // THEN
+        assertThat(claimed).doesNotContainNull().doesNotHaveDuplicates().hasSize(CLAIMS);
+    }
+}
@@ -0,0 +1,155 @@
+package com.api.pako.service.cache;
+
+import com.api.pako.model.Courier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheTest {
+
+    private static final CourierProfile PROFILE =
+            new CourierProfile(7L, "Ayşe", "ayse@example.com", "05550000000", Courier.CourierStatus.ONLINE);
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void localEntriesAreReusedUntilEvicted() {
+        // GIVEN
+        var underTest = cache(null);
+        var loads = new AtomicInteger();
+
+        // WHEN
+        underTest.get(7L, id -> load(loads));
+        underTest.get(7L, id -> load(loads));
+        underTest.evict(7L);
+        var reloaded = underTest.get(7L, id -> load(loads));
+
+        // THEN
+        assertThat(reloaded).contains(PROFILE);
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "couriers").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void remoteHitSkipsTheLoader() {
+        // GIVEN
+        var redis = redis();
+        when(redis.opsForValue().multiGet(List.of("cache:couriers:7", "cache:couriers:7:version")))
+                .thenReturn(Arrays.asList(jsonMapper.writeValueAsString(PROFILE), null));
+        var underTest = cache(redis);
+        var loads = new AtomicInteger();
+
+        // WHEN
+        var result = underTest.get(7L, id -> load(loads));
+
+        // THEN
+        assertThat(result).contains(PROFILE);
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void remoteMissLoadsAndStoresInRedis() {
+        // GIVEN
+        var redis = redis();
+        var underTest = cache(redis);
+
+        // WHEN
+        underTest.get(7L, id -> Optional.of(PROFILE));
+
+        // THEN
+        verify(redis).execute(any(RedisScript.class), eq(List.of("cache:couriers:7", "cache:couriers:7:version")),
+                eq("0"), eq(jsonMapper.writeValueAsString(PROFILE)), eq("600000"));
+    }
+
+    @Test
+    void valueLoadedAcrossAnEvictionIsNotCached() {
+        // GIVEN
+        var redis = redis();
+        // Okuyucu miss gördükten sonra başka bir node evict etti; versiyon değişti
+        when(redis.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+        var underTest = cache(redis);
+        var loads = new AtomicInteger();
+
+        // WHEN
+        var first = underTest.get(7L, id -> load(loads));
+        underTest.get(7L, id -> load(loads));
+
+        // THEN
+        assertThat(first).contains(PROFILE);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void unreachableRedisFallsBackToTheLoader() {
+        // GIVEN
+        var redis = redis();
+        when(redis.opsForValue().multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+        var underTest = cache(redis);
+        var loads = new AtomicInteger();
+
+        // WHEN
+        var result = underTest.get(7L, id -> load(loads));
+
+        // THEN
+        assertThat(result).contains(PROFILE);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.l2.gets").tag("result", "error").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void missingEntitiesAreNotCached() {
+        // GIVEN
+        var underTest = cache(null);
+        var loads = new AtomicInteger();
+
+        // WHEN
+        underTest.get(7L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        var second = underTest.get(7L, id -> load(loads));
+
+        // THEN
+        assertThat(second).contains(PROFILE);
+        assertThat(loads).hasValue(2);
+    }
+
+    private TwoLevelCache<CourierProfile> cache(StringRedisTemplate redis) {
+        return new TwoLevelCache<>("couriers", CourierProfile.class, 100, Duration.ofMinutes(1),
+                redis, jsonMapper, Duration.ofMinutes(10), meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StringRedisTemplate redis() {
+        var redis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+        return redis;
+    }
+
+    private static Optional<CourierProfile> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return Optional.of(PROFILE);
+    }
+}
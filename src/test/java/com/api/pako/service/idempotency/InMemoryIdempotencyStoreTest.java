@@ -0,0 +1,127 @@
+package com.api.pako.service.idempotency;
+
+import com.api.pako.service.idempotency.IdempotencyStore.ClaimStatus;
+import com.api.pako.service.idempotency.IdempotencyStore.StoredResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryIdempotencyStoreTest {
+
+    private static final StoredResponse CREATED =
+            new StoredResponse(201, "application/json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+    private final InMemoryIdempotencyStore underTest = new InMemoryIdempotencyStore(3600, 1_000_000);
+
+    @Test
+    void completedKeyIsReplayed() {
+        // GIVEN
+        underTest.claim("k", "fp", Duration.ZERO);
+        underTest.complete("k", "fp", CREATED);
+
+        // WHEN
+        var claim = underTest.claim("k", "fp", Duration.ZERO);
+
+        // THEN
+        assertThat(claim.status()).isEqualTo(ClaimStatus.REPLAY);
+        assertThat(claim.response()).isEqualTo(CREATED);
+    }
+
+    @Test
+    void differentRequestWithSameKeyIsMismatch() {
+        // GIVEN
+        underTest.claim("k", "fp", Duration.ZERO);
+        underTest.complete("k", "fp", CREATED);
+
+        // WHEN
+        var claim = underTest.claim("k", "other", Duration.ZERO);
+
+        // THEN
+        assertThat(claim.status()).isEqualTo(ClaimStatus.MISMATCH);
+    }
+
+    @Test
+    void releasedKeyCanBeClaimedAgain() {
+        // GIVEN
+        underTest.claim("k", "fp", Duration.ZERO);
+        underTest.release("k");
+
+        // WHEN
+        var claim = underTest.claim("k", "fp", Duration.ZERO);
+
+        // THEN
+        assertThat(claim.status()).isEqualTo(ClaimStatus.OWNER);
+    }
+
+    @Test
+    void duplicateInFlightWaitsForTheOwner() throws Exception {
+        // GIVEN
+        underTest.claim("k", "fp", Duration.ZERO);
+
+        // WHEN
+        var duplicate = CompletableFuture.supplyAsync(() -> underTest.claim("k", "fp", Duration.ofSeconds(5)));
+        Thread.sleep(50);
+        underTest.complete("k", "fp", CREATED);
+
+        // THEN
+        var claim = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(claim.status()).isEqualTo(ClaimStatus.REPLAY);
+        assertThat(claim.response()).isEqualTo(CREATED);
+    }
+
+    @Test
+    void duplicateGivesUpWhenOwnerIsTooSlow() {
+        // GIVEN
+        underTest.claim("k", "fp", Duration.ZERO);
+
+        // WHEN
+        var claim = underTest.claim("k", "fp", Duration.ofMillis(20));
+
+        // THEN
+        assertThat(claim.status()).isEqualTo(ClaimStatus.IN_PROGRESS);
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void storedResponsesAreBoundedByWeight() {
+        // GIVEN
+        var bounded = new InMemoryIdempotencyStore(3600, 10_000);
+        var body = new StoredResponse(201, "application/json", new byte[1_000]);
+
+        // WHEN
+        for (int i = 0; i < 100; i++) {
+            bounded.claim("k" + i, "fp", Duration.ZERO);
+            bounded.complete("k" + i, "fp", body);
+        }
+
+        // THEN
+        assertThat(bounded.size()).isLessThan(10);
+    }
+
+    @Test
+    void inFlightKeySurvivesWeightEviction() throws Exception {
+        // GIVEN
+        var bounded = new InMemoryIdempotencyStore(3600, 10_000);
+        var body = new StoredResponse(201, "application/json", new byte[1_000]);
+        bounded.claim("in-flight", "fp", Duration.ZERO);
+        var duplicate = CompletableFuture.supplyAsync(() -> bounded.claim("in-flight", "fp", Duration.ofSeconds(5)));
+
+        // WHEN
+        for (int i = 0; i < 100; i++) {
+            bounded.claim("k" + i, "fp", Duration.ZERO);
+            bounded.complete("k" + i, "fp", body);
+        }
+        bounded.size();
+        bounded.complete("in-flight", "fp", CREATED);
+
+        // THEN
+        var claim = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(claim.status()).isEqualTo(ClaimStatus.REPLAY);
+        assertThat(claim.response()).isEqualTo(CREATED);
+    }
+}
@@ -0,0 +1,91 @@
+package com.api.pako.service.notification;
+
+import com.api.pako.event.UserNotificationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class NotificationDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockingSender sender = new BlockingSender();
+    private NotificationDispatcher underTest;
+
+    @AfterEach
+    void tearDown() {
+        sender.release.countDown();
+        underTest.shutdown();
+    }
+
+    @Test
+    void queuedMessagesAreDeliveredInOrderAndStatusUpdatesCoalesce() throws InterruptedException {
+        // GIVEN
+        underTest = new NotificationDispatcher(sender, meterRegistry, 100, 4);
+        underTest.enqueue(event("first", null));
+        assertThat(sender.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // WHEN
+        underTest.enqueue(event("ASSIGNED", "order-status:1"));
+        underTest.enqueue(event("other", null));
+        underTest.enqueue(event("PICKED_UP", "order-status:1"));
+        sender.release.countDown();
+
+        // THEN
+        await().atMost(5, TimeUnit.SECONDS).until(() -> sender.sent.size() == 3);
+        assertThat(sender.sent).containsExactly("first", "PICKED_UP", "other");
+        assertThat(meterRegistry.counter("websocket.notification.coalesced").count()).isEqualTo(1.0);
+        assertThat(underTest.queueDepth()).isZero();
+    }
+
+    @Test
+    void messagesBeyondCapacityAreDropped() throws InterruptedException {
+        // GIVEN
+        underTest = new NotificationDispatcher(sender, meterRegistry, 1, 4);
+        underTest.enqueue(event("first", null));
+        assertThat(sender.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // WHEN
+        var second = underTest.enqueue(event("second", null));
+        var third = underTest.enqueue(event("third", null));
+        sender.release.countDown();
+
+        // THEN
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> sender.sent.size() == 2);
+        assertThat(sender.sent).containsExactly("first", "second");
+        assertThat(meterRegistry.counter("websocket.notification.dropped").count()).isEqualTo(1.0);
+    }
+
+    private static UserNotificationEvent event(String payload, String coalesceKey) {
+        return new UserNotificationEvent("7", "/queue/orders", payload, coalesceKey);
+    }
+
+    /**
+     * Holds the first delivery until released, so tests can queue messages behind it
+     */
+    private static final class BlockingSender implements UserNotificationSender {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<Object> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void sendToUser(String user, String destination, Object payload) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.add(payload);
+        }
+    }
+}
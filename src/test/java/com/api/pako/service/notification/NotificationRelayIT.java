@@ -0,0 +1,127 @@
+package com.api.pako.service.notification;
+
+import com.api.pako.INeedCourierApplication;
+import com.api.pako.security.JwtTokenProvider;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application nodes sharing one database and one Redis: a message sent on node A
+ * must reach a courier whose WebSocket session lives on node B.
+ */
+class NotificationRelayIT {
+
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer(
+            DockerImageName.parse("postgis/postgis:17-3.6-alpine").asCompatibleSubstituteFor("postgres"));
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:8.4.0-alpine")
+            .withExposedPorts(6379);
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        POSTGRES.start();
+        REDIS.start();
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+        REDIS.stop();
+        POSTGRES.stop();
+    }
+
+    @Test
+    @DisplayName("A user notification sent on one node reaches a session connected to another node")
+    void notificationCrossesNodes() throws Exception {
+        // GIVEN
+        var token = nodeB.getBean(JwtTokenProvider.class).generateToken(42L, "keanu@reeves.com");
+        var received = new LinkedBlockingQueue<Map<String, Object>>();
+        var session = connect(nodeB, token);
+        session.subscribe("/user/queue/assignments", collectingHandler(received));
+
+        // WHEN
+        // Abonelik asenkron kaydedilir; ilk mesaj kaybolursa tekrar gönderilir
+        var sender = nodeA.getBean(UserNotificationSender.class);
+        Map<String, Object> message = null;
+        for (int attempt = 0; attempt < 20 && message == null; attempt++) {
+            sender.sendToUser("42", "/queue/assignments", Map.of("type", "NEW_ASSIGNMENT", "orderId", 7));
+            message = received.poll(250, TimeUnit.MILLISECONDS);
+        }
+
+        // THEN
+        assertThat(message).isNotNull();
+        assertThat(message).containsEntry("type", "NEW_ASSIGNMENT").containsEntry("orderId", 7);
+        session.disconnect();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(INeedCourierApplication.class)
+                .properties(
+                        "spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                        "spring.datasource.username=" + POSTGRES.getUsername(),
+                        "spring.datasource.password=" + POSTGRES.getPassword(),
+                        "spring.data.redis.host=" + REDIS.getHost(),
+                        "spring.data.redis.port=" + REDIS.getMappedPort(6379),
+                        "spring.docker.compose.enabled=false",
+                        "websocket.broker.mode=redis",
+                        "server.port=0")
+                .run();
+    }
+
+    private static StompSession connect(ConfigurableApplicationContext node, String token) throws Exception {
+        var stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new JacksonJsonMessageConverter());
+        var headers = new WebSocketHttpHeaders();
+        headers.setBearerAuth(token);
+        var port = node.getEnvironment().getProperty("local.server.port");
+        return stompClient.connectAsync("http://localhost:" + port + "/ws", headers, new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    private static StompFrameHandler collectingHandler(BlockingQueue<Map<String, Object>> received) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<String, Object>) payload);
+            }
+        };
+    }
+}
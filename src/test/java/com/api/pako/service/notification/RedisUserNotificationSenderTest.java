@@ -0,0 +1,68 @@
+package com.api.pako.service.notification;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisUserNotificationSenderTest {
+
+    private static final String CHANNEL = "ws:user-notifications";
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SimpUserRegistry userRegistry = mock(SimpUserRegistry.class);
+    private final RedisUserNotificationSender underTest = new RedisUserNotificationSender(
+            redisTemplate, messagingTemplate, userRegistry, new JsonMapper(), CHANNEL);
+
+    @Test
+    void publishedMessageIsDeliveredToLocallyConnectedUser() {
+        // GIVEN
+        when(userRegistry.getUser("7")).thenReturn(mock(SimpUser.class));
+        underTest.sendToUser("7", "/queue/assignments", Map.of("type", "NEW_ASSIGNMENT", "orderId", 12));
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), published.capture());
+
+        // WHEN
+        underTest.onMessage(message(published.getValue()), null);
+
+        // THEN
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("7"), eq("/queue/assignments"), payload.capture());
+        assertThat(((JsonNode) payload.getValue()).path("orderId").asInt()).isEqualTo(12);
+    }
+
+    @Test
+    void messageForUserOnAnotherNodeIsIgnored() {
+        // GIVEN
+        when(userRegistry.getUser("7")).thenReturn(null);
+
+        // WHEN
+        underTest.onMessage(message("{\"user\":\"7\",\"destination\":\"/queue/assignments\",\"payload\":{}}"), null);
+        underTest.onMessage(message("not json"), null);
+
+        // THEN
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,138 @@
+package com.api.pako.service.outbox;
+
+import com.api.pako.business.dto.OrderCreateRequest;
+import com.api.pako.business.service.BusinessOrderService;
+import com.api.pako.controller.AbstractIntegrationTest;
+import com.api.pako.model.enums.OrderPriority;
+import com.api.pako.model.enums.PaymentType;
+import com.api.pako.repository.OrderRepository;
+import com.api.pako.security.JwtTokenProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox rows are written in the transaction of the order change. The relay only runs once at
+ * startup (empty outbox), so rows stay in the table and no broker is needed.
+ */
+@TestPropertySource(properties = {
+        "outbox.relay.enabled=true",
+        "outbox.relay.interval-ms=3600000"
+})
+public class OutboxRecorderIT extends AbstractIntegrationTest {
+
+    private static final Long BUSINESS_ID = 42L; // matches with test-migrations directory
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    BusinessOrderService businessOrderService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE TABLE order_tracking");
+        jdbcTemplate.execute("TRUNCATE TABLE outbox_events");
+        orderRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE TABLE outbox_events");
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Creating an order commits its ORDER_CREATED row")
+    void createdOrderCommitsOutboxRow() throws IOException {
+        // WHEN
+        Long orderId = createOrder();
+
+        // THEN
+        assertThat(outboxEventTypes(orderId)).containsExactly("ORDER_CREATED");
+    }
+
+    @Test
+    @DisplayName("A rolled back status change leaves no outbox row behind")
+    void rolledBackStatusChangeLeavesNoOutboxRow() throws IOException {
+        // GIVEN
+        Long orderId = createOrder();
+
+        // WHEN
+        transactionTemplate.executeWithoutResult(status -> {
+            businessOrderService.cancelOrder(orderId, BUSINESS_ID, "rollback");
+            status.setRollbackOnly();
+        });
+
+        // THEN
+        assertThat(orderStatus(orderId)).isEqualTo("PENDING");
+        assertThat(outboxEventTypes(orderId)).containsExactly("ORDER_CREATED");
+    }
+
+    @Test
+    @DisplayName("A committed status change commits its outbox row")
+    void committedStatusChangeCommitsOutboxRow() throws IOException {
+        // GIVEN
+        Long orderId = createOrder();
+
+        // WHEN
+        transactionTemplate.executeWithoutResult(status ->
+                businessOrderService.cancelOrder(orderId, BUSINESS_ID, "commit"));
+
+        // THEN
+        assertThat(orderStatus(orderId)).isEqualTo("CANCELLED");
+        assertThat(outboxEventTypes(orderId)).containsExactly("ORDER_CREATED", "ORDER_STATUS_CHANGED");
+    }
+
+    private Long createOrder() throws IOException {
+        var request = new OrderCreateRequest();
+        request.setPickupAddress("Kadıköy Moda Caddesi No:123, Istanbul");
+        request.setDeliveryAddress("Beşiktaş Barbaros Bulvarı No:45, Istanbul");
+        request.setEndCustomerName("Outbox Customer");
+        request.setEndCustomerPhone("+905551234567");
+        request.setPriority(OrderPriority.NORMAL);
+        request.setPaymentType(PaymentType.CASH);
+        request.setDeliveryFee(BigDecimal.valueOf(35.50));
+
+        var response = mockMvc.post()
+                .uri("/api/v1/business/orders")
+                .header("Authorization", "Bearer " + jwtTokenProvider.generateToken(BUSINESS_ID, "keanu@reeves.com"))
+                .content(dtoToJson(request))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+        assertThat(response.getResponse().getStatus()).isEqualTo(201);
+        return stringToJson(response.getResponse().getContentAsString()).path("data").path("orderId").asLong();
+    }
+
+    private String orderStatus(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, orderId);
+    }
+
+    private List<String> outboxEventTypes(Long orderId) {
+        return jdbcTemplate.queryForList(
+                "SELECT event_type FROM outbox_events WHERE aggregate_type = 'ORDER' AND aggregate_id = ? ORDER BY id",
+                String.class, orderId);
+    }
+}
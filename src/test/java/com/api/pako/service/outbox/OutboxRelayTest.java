@@ -0,0 +1,163 @@
+package com.api.pako.service.outbox;
+
+import com.api.pako.model.OutboxEvent;
+import com.api.pako.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Publishes against an in-JVM Kafka broker; the outbox table is mocked
+ */
+class OutboxRelayTest {
+
+    private static final String ORDER_TOPIC = "test.order-events";
+    private static final String ASSIGNMENT_TOPIC = "test.assignment-events";
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 2, ORDER_TOPIC, ASSIGNMENT_TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @BeforeEach
+    void grantRelayLock() {
+        when(outboxEventRepository.tryLockRelay(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(true);
+    }
+
+    @Test
+    void relayPublishesEveryBatchAndMarksItPublished() {
+        // GIVEN
+        var underTest = relay(broker.getBrokersAsString(), 10_000);
+        when(outboxEventRepository.lockUnpublished(2)).thenReturn(
+                List.of(event(1L, OutboxEvent.AGGREGATE_ORDER, 10L, "ORDER_CREATED"),
+                        event(2L, OutboxEvent.AGGREGATE_ASSIGNMENT, 20L, "ASSIGNMENT_CREATED")),
+                List.of(event(3L, OutboxEvent.AGGREGATE_ORDER, 10L, "ORDER_STATUS_CHANGED")),
+                List.of());
+        when(outboxEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc()).thenReturn(Optional.empty());
+
+        // WHEN
+        underTest.relay();
+
+        // THEN
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any());
+        verify(outboxEventRepository).markPublished(eq(List.of(3L)), any());
+        assertThat(meterRegistry.counter("outbox.relay.published").count()).isEqualTo(3.0);
+
+        var records = consume(3);
+        assertThat(records).extracting(ConsumerRecord::topic)
+                .containsExactlyInAnyOrder(ORDER_TOPIC, ORDER_TOPIC, ASSIGNMENT_TOPIC);
+        var orderEvents = records.stream().filter(r -> r.topic().equals(ORDER_TOPIC)).toList();
+        assertThat(orderEvents).extracting(ConsumerRecord::key).containsOnly("10");
+        assertThat(orderEvents).extracting(r -> header(r, "event-type"))
+                .containsExactly("ORDER_CREATED", "ORDER_STATUS_CHANGED");
+    }
+
+    @Test
+    void unacknowledgedBatchStaysUnpublished() {
+        // GIVEN
+        var underTest = relay("localhost:1", 500);
+        when(outboxEventRepository.lockUnpublished(anyInt()))
+                .thenReturn(List.of(event(1L, OutboxEvent.AGGREGATE_ORDER, 10L, "ORDER_CREATED")));
+        when(outboxEventRepository.countByPublishedAtIsNull()).thenReturn(1L);
+        when(outboxEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc())
+                .thenReturn(Optional.of(event(1L, OutboxEvent.AGGREGATE_ORDER, 10L, "ORDER_CREATED")));
+
+        // WHEN
+        underTest.relay();
+
+        // THEN
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any());
+        assertThat(meterRegistry.counter("outbox.relay.failed").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("outbox.relay.pending").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void relayStaysIdleWhileAnotherNodeHoldsTheLock() {
+        // GIVEN
+        var underTest = relay(broker.getBrokersAsString(), 10_000);
+        when(outboxEventRepository.tryLockRelay(OutboxRelay.RELAY_LOCK_KEY)).thenReturn(false);
+
+        // WHEN
+        int published = underTest.publishBatch();
+
+        // THEN
+        assertThat(published).isZero();
+        verify(outboxEventRepository, never()).lockUnpublished(anyInt());
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any());
+    }
+
+    private OutboxRelay relay(String bootstrapServers, long sendTimeoutMs) {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(bootstrapServers);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        producerProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, sendTimeoutMs);
+        var kafkaTemplate = new KafkaTemplate<String, String>(new DefaultKafkaProducerFactory<>(producerProps));
+        return new OutboxRelay(outboxEventRepository, kafkaTemplate, TransactionOperations.withoutTransaction(),
+                meterRegistry, 2, ORDER_TOPIC, ASSIGNMENT_TOPIC, sendTimeoutMs);
+    }
+
+    private static List<ConsumerRecord<String, String>> consume(int expected) {
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps(broker, "outbox-relay-test", false);
+        consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (var consumer = new DefaultKafkaConsumerFactory<String, String>(consumerProps).createConsumer()) {
+            consumer.subscribe(List.of(ORDER_TOPIC, ASSIGNMENT_TOPIC));
+            List<ConsumerRecord<String, String>> records = new ArrayList<>();
+            KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), expected).forEach(records::add);
+            return records;
+        }
+    }
+
+    private static String header(ConsumerRecord<String, String> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    private static OutboxEvent event(Long id, String aggregateType, Long aggregateId, String eventType) {
+        var event = new OutboxEvent(aggregateType, aggregateId, eventType, "{\"eventType\":\"" + eventType + "\"}");
+        event.setId(id);
+        event.setCreatedAt(OffsetDateTime.now().minusSeconds(5));
+        return event;
+    }
+}